@@ -1,16 +1,18 @@
 package org.oneedtech.inspect.clr;
 
 import static java.lang.Boolean.TRUE;
-import static org.oneedtech.inspect.core.Inspector.Behavior.RESET_CACHES_ON_RUN;
 import static org.oneedtech.inspect.core.Inspector.InjectionKeys.DID_RESOLUTION_SERVICE_URL;
 import static org.oneedtech.inspect.core.report.ReportUtil.onProbeException;
 import static org.oneedtech.inspect.util.json.ObjectMapperCache.Config.DEFAULT;
 import static org.oneedtech.inspect.vc.Credential.CREDENTIAL_KEY;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.CACHE_PROOF_VERIFICATIONS;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.PARALLEL_PROBES;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.PREFETCH_REMOTE_RESOURCES;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.STREAM_REVOCATION_LISTS;
 import static org.oneedtech.inspect.vc.VCInspector.InjectionKeys.*;
 import static org.oneedtech.inspect.vc.VerifiableCredential.REFRESH_SERVICE_RESOURCE_TYPES;
 import static org.oneedtech.inspect.vc.VerifiableCredential.ProofType.EXTERNAL;
 import static org.oneedtech.inspect.vc.payload.PayloadParser.fromJwt;
-import static org.oneedtech.inspect.vc.util.JsonNodeUtil.asNodeList;
 
 import java.net.URI;
 import java.util.ArrayList;
@@ -18,6 +20,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 
 import org.oneedtech.inspect.clr.probe.ClrSubjectProbe;
 import org.oneedtech.inspect.core.probe.Probe;
@@ -26,8 +29,6 @@ import org.oneedtech.inspect.core.probe.RunContext.Key;
 import org.oneedtech.inspect.core.probe.json.JsonPathEvaluator;
 import org.oneedtech.inspect.core.report.Report;
 import org.oneedtech.inspect.core.report.ReportItems;
-import org.oneedtech.inspect.schema.JsonSchemaCache;
-import org.oneedtech.inspect.schema.SchemaKey;
 import org.oneedtech.inspect.util.json.ObjectMapperCache;
 import org.oneedtech.inspect.util.resource.Resource;
 import org.oneedtech.inspect.util.resource.ResourceType;
@@ -38,6 +39,8 @@ import org.oneedtech.inspect.util.spec.Specification;
 import org.oneedtech.inspect.vc.Credential;
 import org.oneedtech.inspect.vc.EndorsementInspector;
 import org.oneedtech.inspect.vc.OB30Inspector;
+import org.oneedtech.inspect.vc.ProbeGraph;
+import org.oneedtech.inspect.vc.RemotePrefetcher;
 import org.oneedtech.inspect.vc.VCInspector;
 import org.oneedtech.inspect.vc.VerifiableCredential;
 import org.oneedtech.inspect.vc.VerifiableCredential.Type;
@@ -55,8 +58,8 @@ import org.oneedtech.inspect.vc.probe.RevocationListProbe;
 import org.oneedtech.inspect.vc.probe.RunContextKey;
 import org.oneedtech.inspect.vc.probe.TypePropertyProbe;
 import org.oneedtech.inspect.vc.probe.did.DidResolver;
+import org.oneedtech.inspect.vc.probe.did.LocalDidResolver;
 import org.oneedtech.inspect.vc.probe.did.SimpleDidResolver;
-import org.oneedtech.inspect.vc.util.CachingDocumentLoader;
 import org.velocitynetwork.contracts.VelocityNetworkDidResolver;
 import org.velocitynetwork.contracts.VelocityNetworkMetadataRegistryFacade;
 import org.velocitynetwork.contracts.VelocityNetworkMetadataRegistryFacadeImpl;
@@ -88,10 +91,7 @@ public class CLR20Inspector extends VCInspector {
 	public Report run(Resource resource) {
 		super.check(resource);	//TODO because URIs, this should be a fetch and cache
 
-		if(getBehavior(RESET_CACHES_ON_RUN) == TRUE) {
-			JsonSchemaCache.reset();
-			CachingDocumentLoader.reset();
-		}
+		resetCaches();
 
 		ObjectMapper mapper = ObjectMapperCache.get(DEFAULT);
 		JsonPathEvaluator jsonPath = new JsonPathEvaluator(mapper);
@@ -115,7 +115,7 @@ public class CLR20Inspector extends VCInspector {
 			}
 			velocityNetworkDidResolver = new VelocityNetworkDidResolver(velocityNetworkMetadataRegistryFacade, this.vnConfig.getOrDefault(VNF_BURNER_DID, "").toString());
 		}
-      	DidResolver didResolver = new SimpleDidResolver(this.didResolutionUrl, velocityNetworkDidResolver);
+      	DidResolver didResolver = LocalDidResolver.wrap(localDidDocuments, new SimpleDidResolver(this.didResolutionUrl, velocityNetworkDidResolver));
 
 		VerifiableCredential.Builder credentialBuilder = new VerifiableCredential.Builder();
 		RunContext ctx = new RunContext.Builder()
@@ -142,110 +142,116 @@ public class CLR20Inspector extends VCInspector {
             //we expect the above to place a generated object in the context
 			VerifiableCredential clr = ctx.getGeneratedObject(VerifiableCredential.ID);
 
+			if (getBehavior(PREFETCH_REMOTE_RESOURCES) == TRUE) {
+				RemotePrefetcher.start(clr, ctx, getDocumentLoader(), didResolver, getBehavior(STREAM_REVOCATION_LISTS) == TRUE);
+			}
+
+			ProbeGraph probes = new ProbeGraph(getBehavior(PARALLEL_PROBES) == TRUE);
+
 			//context and type properties
 			VerifiableCredential.Type type = Type.ClrCredential;
 			for(Probe<JsonNode> probe : List.of(new ContextPropertyProbe(type), new TypePropertyProbe(type))) {
-				probeCount++;
-				accumulator.add(probe.run(clr.getJson(), ctx));
-				if(broken(accumulator)) return abort(ctx, accumulator, probeCount);
+				probes.add(() -> probe.run(clr.getJson(), ctx));
 			}
 
 			//canonical schema
-			SchemaKey schema = clr.getSchemaKey().orElseThrow();
-			probeCount++;
-			accumulator.add(new JsonSchemasProbe(schema).run(clr, ctx));
-			if(broken(accumulator)) return abort(ctx, accumulator, probeCount);
+			probes.add(() -> new JsonSchemasProbe(clr.getSchemaKey().orElseThrow()).run(clr, ctx));
 
 			// inline schema
-			probeCount++;
-			accumulator.add(new InlineJsonSchemaProbe(schema).run(clr.getJson(), ctx));
-			if(broken(accumulator)) return abort(ctx, accumulator, probeCount);
+			probes.add(() -> new InlineJsonSchemaProbe(clr.getSchemaKey().orElseThrow()).run(clr.getJson(), ctx));
 
 			//credentialSubject
-			probeCount++;
-			accumulator.add(new ClrSubjectProbe("ClrSubject").run(clr.getJson(), ctx));
+			probes.add(() -> new ClrSubjectProbe("ClrSubject").run(clr.getJson(), ctx)).unchecked();
 
 			//signatures, proofs
-			probeCount++;
-			if(clr.getProofType() == EXTERNAL){
-				//The credential originally contained in a JWT, validate the jwt and external proof.
-				accumulator.add(new ExternalProofProbe(false).run(clr, ctx));
-			} else {
-				accumulator.add(new EmbeddedProofProbe(type).run(clr, ctx));
-			}
-			if(broken(accumulator)) return abort(ctx, accumulator, probeCount);
+			ProbeGraph.Node proof = probes.add(() -> {
+				if(clr.getProofType() == EXTERNAL){
+					//The credential originally contained in a JWT, validate the jwt and external proof.
+					return new ExternalProofProbe(false).run(clr, ctx);
+				} else {
+					return new EmbeddedProofProbe(type, getBehavior(CACHE_PROOF_VERIFICATIONS) == TRUE).run(clr, ctx);
+				}
+			});
 
 			//check refresh service if we are not already refreshed
-			probeCount++;
-			if(resource.getContext().get(REFRESHED) != TRUE) {
-				Optional<String> newID = checkRefreshService(clr, ctx);
-				if(newID.isPresent()) {
-					// If the refresh is not successful, continue the verification process using the original OpenBadgeCredential.
-					UriResource uriResource = new UriResource(new URI(newID.get()), null, REFRESH_SERVICE_RESOURCE_TYPES);
-					if (uriResource.exists()) {
-						accumulator.add(this.run(uriResource.setContext(new ResourceContext(REFRESHED, TRUE))));
+			probes.add(() -> {
+				if(resource.getContext().get(REFRESHED) != TRUE) {
+					Optional<String> newID = checkRefreshService(clr, ctx);
+					if(newID.isPresent()) {
+						// If the refresh is not successful, continue the verification process using the original OpenBadgeCredential.
+						UriResource uriResource = new UriResource(new URI(newID.get()), null, REFRESH_SERVICE_RESOURCE_TYPES);
+						if (uriResource.exists()) {
+							return this.run(uriResource.setContext(new ResourceContext(REFRESHED, TRUE)));
+						}
 					}
 				}
-			}
+				return null;
+			}, proof).unchecked().ordered();
 
 			//revocation, expiration and issuance
-			for(Probe<Credential> probe : List.of(new RevocationListProbe(),
+			for(Probe<Credential> probe : List.of(new RevocationListProbe(getBehavior(STREAM_REVOCATION_LISTS) == TRUE),
 					new ExpirationProbe(), new IssuanceProbe())) {
-				probeCount++;
-				accumulator.add(probe.run(clr, ctx));
-				if(broken(accumulator)) return abort(ctx, accumulator, probeCount);
+				probes.add(() -> probe.run(clr, ctx));
 			}
 
-			//embedded endorsements
-			EndorsementInspector.Builder endorsementInspectorBuilder = new EndorsementInspector.Builder();
-			if (didResolutionUrl != null) {
-				endorsementInspectorBuilder = endorsementInspectorBuilder.inject(DID_RESOLUTION_SERVICE_URL, didResolutionUrl);
-			}
-			EndorsementInspector endorsementInspector = endorsementInspectorBuilder.build();
+			ProbeGraph.Result result = probes.run(accumulator, this::broken);
+			probeCount += result.getProbeCount();
+			result.throwIfFailed();
+			if(result.isStopped()) return abort(ctx, accumulator, probeCount);
 
-			List<JsonNode> endorsements = asNodeList(clr.getJson(), "$..endorsement", jsonPath);
-			for(JsonNode node : endorsements) {
-				probeCount++;
-				VerifiableCredential endorsement = credentialBuilder.resource(resource).jsonData(node).build();
-				accumulator.add(endorsementInspector.run(resource, Map.of(CREDENTIAL_KEY, endorsement)));
-			}
+			//embedded endorsements
+			EndorsementInspector endorsementInspector = configureSubInspector(new EndorsementInspector.Builder()).build();
+
+			List<Callable<Report>> endorsementInspections = new ArrayList<>();
+			try {
+				List<JsonNode> endorsements = clr.getTree().getEndorsements();
+				for(JsonNode node : endorsements) {
+					probeCount++;
+					VerifiableCredential endorsement = credentialBuilder.resource(resource).jsonData(node).build();
+					endorsementInspections.add(() -> endorsementInspector.run(resource, Map.of(CREDENTIAL_KEY, endorsement)));
+				}
 
-			//embedded jwt endorsements
-			endorsements = asNodeList(clr.getJson(), "$..endorsementJwt", jsonPath);
-			for(JsonNode node : endorsements) {
-				probeCount++;
-				String jwt = node.asText();
-				JsonNode vcNode = fromJwt(jwt, ctx);
-				VerifiableCredential endorsement = credentialBuilder.resource(resource).jsonData(vcNode).jwt(jwt).build();
-				accumulator.add(endorsementInspector.run(resource, Map.of(CREDENTIAL_KEY, endorsement)));
+				//embedded jwt endorsements
+				endorsements = clr.getTree().getEndorsementJwts();
+				for(JsonNode node : endorsements) {
+					probeCount++;
+					String jwt = node.asText();
+					JsonNode vcNode = fromJwt(jwt, ctx);
+					VerifiableCredential endorsement = credentialBuilder.resource(resource).jsonData(vcNode).jwt(jwt).build();
+					endorsementInspections.add(() -> endorsementInspector.run(resource, Map.of(CREDENTIAL_KEY, endorsement)));
+				}
+			} finally {
+				// verify the endorsements read before any unreadable one, as a serial run would have
+				accumulator.addAll(runSubInspections(endorsementInspections, false));
 			}
 
 			//embedded subject credentials
 			String path = "$.credentialSubject.verifiableCredential";
-			List<JsonNode> vcs = asNodeList(clr.getJson(), path, jsonPath);
-			OB30Inspector.Builder obInspectorBuilder = new OB30Inspector.Builder()
-				.inject(VNF_CONFIG, this.vnConfig);
-			if (didResolutionUrl != null) {
-				obInspectorBuilder = obInspectorBuilder.inject(DID_RESOLUTION_SERVICE_URL, this.didResolutionUrl);
-			}
-			OB30Inspector obInspector = obInspectorBuilder.build();
+			List<JsonNode> vcs = clr.getTree().getSubjectCredentials();
+			OB30Inspector obInspector = configureSubInspector(new OB30Inspector.Builder()).build();
 
+			List<Callable<Report>> inspections = new ArrayList<>();
 			for (int i = 0; i < vcs.size(); i++) {
 				JsonNode node = vcs.get(i);
 				String systemId = new StringBuilder().append(resource.getID()).append('/')
 						.append(path).append('[').append(i).append(']').toString();
-				Resource vcr = new StringResource(CharSource.wrap(node.toString()), systemId, ResourceType.JSON);
-				VerifiableCredential vc = credentialBuilder.resource(vcr).jsonData(node).build();
-
-				if(vc.getCredentialType() == Type.AchievementCredential) {
-					Report report = obInspector.run(vcr, Map.of(CREDENTIAL_KEY, vc));
-					probeCount += report.getSummary().getTotalRun();
-					accumulator.add(report);
-					if(broken(accumulator)) return abort(ctx, accumulator, probeCount);
-				} else {
-					//TODO run generic proof check using iron?
-					//or issue warning that not checked?
-				}
+				inspections.add(() -> {
+					Resource vcr = new StringResource(CharSource.wrap(node.toString()), systemId, ResourceType.JSON);
+					VerifiableCredential vc = new VerifiableCredential.Builder().resource(vcr).jsonData(node).build();
+
+					if(vc.getCredentialType() == Type.AchievementCredential) {
+						return obInspector.run(vcr, Map.of(CREDENTIAL_KEY, vc));
+					} else {
+						//TODO run generic proof check using iron?
+						//or issue warning that not checked?
+						return null;
+					}
+				});
+			}
+			for (Report report : runSubInspections(inspections, true)) {
+				probeCount += report.getSummary().getTotalRun();
+				accumulator.add(report);
+				if(broken(accumulator)) return abort(ctx, accumulator, probeCount);
 			}
 
 			//finally, run any user-added probes
@@ -1,9 +1,16 @@
 package org.oneedtech.inspect.clr;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.oneedtech.inspect.test.Assertions.assertInvalid;
 import static org.oneedtech.inspect.test.Assertions.assertValid;
 import static org.oneedtech.inspect.test.Assertions.assertWarning;
 
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -11,6 +18,9 @@ import org.oneedtech.inspect.core.Inspector;
 import org.oneedtech.inspect.core.Inspector.Behavior;
 import org.oneedtech.inspect.core.report.Report;
 import org.oneedtech.inspect.test.PrintHelper;
+import org.oneedtech.inspect.test.Sample;
+import org.oneedtech.inspect.vc.OB30Inspector;
+import org.oneedtech.inspect.vc.VCInspector;
 
 public class CLR20Tests {
     private static CLR20Inspector validator;
@@ -49,6 +59,62 @@ public class CLR20Tests {
         });
 	}
 
+	@Test
+	void testSimpleJsonValidAfterOB30() {
+		// the OB 3.0 context is processed after a different context list in each run
+		assertDoesNotThrow(()->{
+			Report ob30 = new OB30Inspector.Builder().build().run(Samples.OB30.JSON.SIMPLE_JSON.asFileResource());
+			assertValid(ob30);
+			Report report = validator.run(Samples.CLR20.JSON.SIMPLE_JSON.asFileResource());
+			if(verbose) PrintHelper.print(report, true);
+			assertValid(report);
+		});
+	}
+
+	@Test
+	void testParallelSubInspectionsKeepReport() {
+		assertDoesNotThrow(()->{
+			for (boolean failFast : new boolean[] { false, true }) {
+				for (Sample sample : List.of(Samples.CLR20.JSON.SIMPLE_V1_JSON, Samples.CLR20.JSON.SIMPLE_EXPIRED_CREDENTIAL_JSON)) {
+					Report serial = inspector(failFast, false).run(sample.asFileResource());
+					Report parallel = inspector(failFast, true).run(sample.asFileResource());
+					if(verbose) PrintHelper.print(parallel, true);
+					assertEquals(items(serial), items(parallel));
+					assertEquals(serial.getSummary().getTotalRun(), parallel.getSummary().getTotalRun());
+				}
+			}
+		});
+	}
+
+	@Test
+	void testFailFastStopsAtFatalSubInspection() {
+		// the second of six embedded credentials has expired
+		assertDoesNotThrow(()->{
+			Report complete = inspector(false, true).run(Samples.CLR20.JSON.SIMPLE_EXPIRED_CREDENTIAL_JSON.asFileResource());
+			for (boolean parallel : new boolean[] { false, true }) {
+				Report stopped = inspector(true, parallel).run(Samples.CLR20.JSON.SIMPLE_EXPIRED_CREDENTIAL_JSON.asFileResource());
+				if(verbose) PrintHelper.print(stopped, true);
+				assertInvalid(stopped);
+				assertTrue(stopped.getSummary().getTotalRun() < complete.getSummary().getTotalRun());
+				assertTrue(items(stopped).size() < items(complete).size());
+			}
+		});
+	}
+
+	private static CLR20Inspector inspector(boolean failFast, boolean parallel) {
+		return new CLR20Inspector.Builder()
+				.set(Behavior.TEST_INCLUDE_SUCCESS, true)
+				.set(Behavior.VALIDATOR_FAIL_FAST, failFast)
+				.set(VCInspector.Behavior.PARALLEL_SUB_INSPECTIONS, parallel)
+				.build();
+	}
+
+	private static List<String> items(Report report) {
+		return StreamSupport.stream(report.spliterator(), false)
+				.map(item -> item.getOutcome() + " " + item.getMessage())
+				.collect(Collectors.toList());
+	}
+
 	// commented out due that https://western.riverwell.k12.or.us/ is not accessible
 	// @Test
  	// void testComplexJsonValid() {
@@ -10,6 +10,12 @@ public class Samples {
 			public final static Sample SIMPLE_JSON_NOPROOF = new Sample("clr20/simple-noproof.json", true);
 			public final static Sample SIMPLE_JWT = new Sample("clr20/simple.jwt", true);
 			public final static Sample COMPLEX_JSON = new Sample("clr20/complex.json", true);
+			public final static Sample SIMPLE_EXPIRED_CREDENTIAL_JSON = new Sample("clr20/simple-expired-credential.json", false);
+		}
+	}
+	public static final class OB30 {
+		public static final class JSON {
+			public final static Sample SIMPLE_JSON = new Sample("ob30/simple.json", true);
 		}
 	}
 }
@@ -1,13 +1,15 @@
 package org.oneedtech.inspect.tcp.vc;
 
 import static java.lang.Boolean.TRUE;
-import static org.oneedtech.inspect.core.Inspector.Behavior.RESET_CACHES_ON_RUN;
 import static org.oneedtech.inspect.core.Inspector.InjectionKeys.DID_RESOLUTION_SERVICE_URL;
 import static org.oneedtech.inspect.core.report.ReportUtil.onProbeException;
 import static org.oneedtech.inspect.util.json.ObjectMapperCache.Config.DEFAULT;
 import static org.oneedtech.inspect.vc.Credential.CREDENTIAL_KEY;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.CACHE_PROOF_VERIFICATIONS;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.PARALLEL_PROBES;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.PREFETCH_REMOTE_RESOURCES;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.STREAM_REVOCATION_LISTS;
 import static org.oneedtech.inspect.vc.VCInspector.InjectionKeys.VNF_CONFIG;
-import static org.oneedtech.inspect.vc.util.JsonNodeUtil.asNodeList;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -26,8 +28,6 @@ import org.oneedtech.inspect.core.probe.RunContext.Key;
 import org.oneedtech.inspect.core.probe.json.JsonPathEvaluator;
 import org.oneedtech.inspect.core.report.Report;
 import org.oneedtech.inspect.core.report.ReportItems;
-import org.oneedtech.inspect.schema.JsonSchemaCache;
-import org.oneedtech.inspect.schema.SchemaKey;
 import org.oneedtech.inspect.util.json.ObjectMapperCache;
 import org.oneedtech.inspect.util.resource.Resource;
 import org.oneedtech.inspect.util.resource.ResourceType;
@@ -36,6 +36,8 @@ import org.oneedtech.inspect.util.spec.Specification;
 import org.oneedtech.inspect.util.version.Version;
 import org.oneedtech.inspect.vc.Credential;
 import org.oneedtech.inspect.vc.OB30Inspector;
+import org.oneedtech.inspect.vc.ProbeGraph;
+import org.oneedtech.inspect.vc.RemotePrefetcher;
 import org.oneedtech.inspect.vc.VCInspector;
 import org.oneedtech.inspect.vc.VerifiableCredential;
 import org.oneedtech.inspect.vc.VerifiableCredential.Type;
@@ -48,7 +50,6 @@ import org.oneedtech.inspect.vc.probe.IssuanceProbe;
 import org.oneedtech.inspect.vc.probe.JsonSchemasProbe;
 import org.oneedtech.inspect.vc.probe.RevocationListProbe;
 import org.oneedtech.inspect.vc.probe.TypePropertyProbe;
-import org.oneedtech.inspect.vc.util.CachingDocumentLoader;
 
 public class TCPInspector extends VCInspector {
   protected final List<Probe<VerifiableCredential>> userProbes;
@@ -68,10 +69,7 @@ public class TCPInspector extends VCInspector {
   public Report run(Resource resource) {
     super.check(resource); // TODO because URIs, this should be a fetch and cache
 
-    if (getBehavior(RESET_CACHES_ON_RUN) == TRUE) {
-      JsonSchemaCache.reset();
-      CachingDocumentLoader.reset();
-    }
+    resetCaches();
 
     ObjectMapper mapper = ObjectMapperCache.get(DEFAULT);
     JsonPathEvaluator jsonPath = new JsonPathEvaluator(mapper);
@@ -100,58 +98,51 @@ public class TCPInspector extends VCInspector {
       // we expect the above to place a generated object in the context
       VerifiableCredential tcpVc = ctx.getGeneratedObject(VerifiableCredential.ID);
 
+      if (getBehavior(PREFETCH_REMOTE_RESOURCES) == TRUE) {
+        RemotePrefetcher.start(
+            tcpVc, ctx, getDocumentLoader(),
+            null, getBehavior(STREAM_REVOCATION_LISTS) == TRUE);
+      }
+
+      ProbeGraph probes = new ProbeGraph(getBehavior(PARALLEL_PROBES) == TRUE);
+
       // context and type properties
       VerifiableCredential.Type type = Type.TcpVc;
       for (Probe<JsonNode> probe :
           List.of(new ContextPropertyProbe(type), new TypePropertyProbe(type))) {
-        probeCount++;
-        accumulator.add(probe.run(tcpVc.getJson(), ctx));
-        if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+        probes.add(() -> probe.run(tcpVc.getJson(), ctx));
       }
 
       // canonical schema
-      SchemaKey schema = tcpVc.getSchemaKey().orElseThrow();
-      probeCount++;
-      accumulator.add(new JsonSchemasProbe(schema).run(tcpVc, ctx));
-      if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+      probes.add(() -> new JsonSchemasProbe(tcpVc.getSchemaKey().orElseThrow()).run(tcpVc, ctx));
 
       // inline schema
-      probeCount++;
-      accumulator.add(new InlineJsonSchemaProbe(schema).run(tcpVc.getJson(), ctx));
-      if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+      probes.add(() -> new InlineJsonSchemaProbe(tcpVc.getSchemaKey().orElseThrow()).run(tcpVc.getJson(), ctx));
 
       // signatures, proofs
-      probeCount++;
-      accumulator.add(new EmbeddedProofProbe(type).run(tcpVc, ctx));
-      if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+      probes.add(() -> new EmbeddedProofProbe(type, getBehavior(CACHE_PROOF_VERIFICATIONS) == TRUE).run(tcpVc, ctx));
 
       // revocation, expiration and issuance
       for (Probe<Credential> probe :
-          List.of(new RevocationListProbe(), new ExpirationProbe(), new IssuanceProbe())) {
-        probeCount++;
-        accumulator.add(probe.run(tcpVc, ctx));
-        if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+          List.of(
+              new RevocationListProbe(getBehavior(STREAM_REVOCATION_LISTS) == TRUE),
+              new ExpirationProbe(),
+              new IssuanceProbe())) {
+        probes.add(() -> probe.run(tcpVc, ctx));
       }
 
+      ProbeGraph.Result result = probes.run(accumulator, this::broken);
+      probeCount += result.getProbeCount();
+      result.throwIfFailed();
+      if (result.isStopped()) return abort(ctx, accumulator, probeCount);
+
       // embedded verifications
       String path = "$.credentialSubject..verifications";
-      List<JsonNode> verifications = asNodeList(tcpVc.getJson(), path, jsonPath);
+      List<JsonNode> verifications = tcpVc.getTree().getSubjectVerifications();
 
-      OB30Inspector.Builder obInspectorBuilder = new OB30Inspector.Builder()
-        .inject(VNF_CONFIG, this.vnConfig);
-      if (didResolutionUrl != null) {
-        obInspectorBuilder =
-            obInspectorBuilder.inject(DID_RESOLUTION_SERVICE_URL, this.didResolutionUrl);
-      }
-      OB30Inspector obInspector = obInspectorBuilder.build();
+      OB30Inspector obInspector = configureSubInspector(new OB30Inspector.Builder()).build();
 
-      CLR20Inspector.Builder clrInspectorBuilder = new CLR20Inspector.Builder()
-        .inject(VNF_CONFIG, this.vnConfig);
-      if (didResolutionUrl != null) {
-        clrInspectorBuilder =
-            clrInspectorBuilder.inject(DID_RESOLUTION_SERVICE_URL, this.didResolutionUrl);
-      }
-      CLR20Inspector clrInspector = clrInspectorBuilder.build();
+      CLR20Inspector clrInspector = configureSubInspector(new CLR20Inspector.Builder()).build();
 
       for (int i = 0; i < verifications.size(); i++) {
         JsonNode node = verifications.get(i);
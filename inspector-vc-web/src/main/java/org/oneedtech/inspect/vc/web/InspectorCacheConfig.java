@@ -0,0 +1,103 @@
+package org.oneedtech.inspect.vc.web;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oneedtech.inspect.vc.jsonld.JsonLdNodeCache;
+import org.oneedtech.inspect.vc.probe.ProofVerificationCache;
+import org.oneedtech.inspect.vc.probe.did.DidDocumentCache;
+import org.oneedtech.inspect.vc.status.bitstring.BitstringStatusListCache;
+import org.oneedtech.inspect.vc.status.revocation.RevocationListCache;
+import org.oneedtech.inspect.vc.util.CachingDocumentLoader;
+import org.oneedtech.inspect.vc.util.DocumentStore;
+import org.oneedtech.inspect.vc.util.HttpClientService;
+import org.oneedtech.inspect.vc.util.InspectorExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Configures the process-wide caches and the outbound HTTP client used by the inspectors.
+ */
+@Configuration
+public class InspectorCacheConfig {
+
+	@Value("${inspector.document-store.path:}")
+	private String documentStorePath;
+
+	@Value("${inspector.document-store.max-bytes:268435456}")
+	private long documentStoreMaxBytes;
+
+	@Value("${inspector.status-list.default-ttl:5m}")
+	private Duration statusListDefaultTtl;
+
+	@Value("${inspector.did.ttl:1h}")
+	private Duration didTtl;
+
+	@Value("${inspector.did.negative-ttl:1m}")
+	private Duration didNegativeTtl;
+
+	@Value("${inspector.proof-cache.ttl:1h}")
+	private Duration proofCacheTtl;
+
+	@Value("${inspector.http.connect-timeout:10s}")
+	private Duration httpConnectTimeout;
+
+	@Value("${inspector.http.request-timeout:30s}")
+	private Duration httpRequestTimeout;
+
+	@Value("${inspector.http.max-requests-per-host:16}")
+	private int httpMaxRequestsPerHost;
+
+	@Value("${inspector.http.max-response-bytes:67108864}")
+	private long httpMaxResponseBytes;
+
+	@Value("${inspector.executor.threads:16}")
+	private int executorThreads;
+
+	private DocumentStore documentStore;
+
+	@PostConstruct
+	public void init() {
+		HttpClientService.setDefault(HttpClientService.builder()
+				.connectTimeout(httpConnectTimeout)
+				.requestTimeout(httpRequestTimeout)
+				.maxRequestsPerHost(httpMaxRequestsPerHost)
+				.maxResponseBytes(httpMaxResponseBytes)
+				.build());
+		InspectorExecutor.setParallelism(executorThreads);
+		BitstringStatusListCache.setDefaultTtl(statusListDefaultTtl);
+		DidDocumentCache.setTtl(didTtl);
+		DidDocumentCache.setNegativeTtl(didNegativeTtl);
+		ProofVerificationCache.setTtl(proofCacheTtl);
+
+		if (documentStorePath != null && !documentStorePath.isBlank()) {
+			try {
+				documentStore = DocumentStore.open(Path.of(documentStorePath), documentStoreMaxBytes);
+				CachingDocumentLoader.setDocumentStore(documentStore);
+				RevocationListCache.setDocumentStore(documentStore);
+				JsonLdNodeCache.setDocumentStore(documentStore);
+				logger.info("Using document store at {}", documentStorePath);
+			} catch (IOException e) {
+				logger.error("Could not open document store at {}", documentStorePath, e);
+			}
+		}
+	}
+
+	@PreDestroy
+	public void destroy() throws IOException {
+		if (documentStore != null) {
+			CachingDocumentLoader.setDocumentStore(null);
+			RevocationListCache.setDocumentStore(null);
+			JsonLdNodeCache.setDocumentStore(null);
+			documentStore.close();
+		}
+	}
+
+	private final static Logger logger = LogManager.getLogger();
+}
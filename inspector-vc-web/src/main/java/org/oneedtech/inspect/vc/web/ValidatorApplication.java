@@ -12,7 +12,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @SpringBootApplication // == @SpringBootConfiguration @EnableAutoConfiguration @ComponentScan
 @Configuration
-@Import(InspectorWebConfig.class)
+@Import({InspectorWebConfig.class, InspectorCacheConfig.class})
 @ComponentScan(basePackages = {
 	"org.oneedtech.inspect.web.controller",
 	"org.oneedtech.inspect.web.storage",
@@ -0,0 +1,98 @@
+package org.oneedtech.inspect.vc.probe.validation;
+
+import static org.oneedtech.inspect.util.json.ObjectMapperCache.Config.DEFAULT;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.oneedtech.inspect.core.probe.RunContext;
+import org.oneedtech.inspect.core.probe.RunContext.Key;
+import org.oneedtech.inspect.core.report.ReportItems;
+import org.oneedtech.inspect.util.json.ObjectMapperCache;
+import org.oneedtech.inspect.vc.Assertion;
+import org.oneedtech.inspect.vc.OB20Inspector;
+import org.oneedtech.inspect.vc.Validation;
+import org.oneedtech.inspect.vc.jsonld.JsonLdGeneratedObject;
+import org.oneedtech.inspect.vc.jsonld.probe.JsonLDCompactionProbe;
+import org.oneedtech.inspect.vc.resource.DefaultJsonLDUriResourceFactory;
+import org.oneedtech.inspect.vc.resource.UriResourceFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.Resources;
+
+/**
+ * Properties validation of an assertion, its badge class and its issuer profile, with
+ * the shared {@link ValidationPlan}s and with a probe created per validation on every
+ * run, as the OB 2.0 inspector did before the plans. The nodes are those of
+ * ValidationPlanTests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationPlanBenchmark {
+    private RunContext ctx;
+    private JsonNode assertion;
+    private JsonNode badge;
+    private JsonNode issuer;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper mapper = ObjectMapperCache.get(DEFAULT);
+        UriResourceFactory uriResourceFactory = new DefaultJsonLDUriResourceFactory();
+        ctx = new RunContext.Builder()
+                .put(new OB20Inspector.Builder().build())
+                .put(Key.JACKSON_OBJECTMAPPER, mapper)
+                .put(Key.URI_RESOURCE_FACTORY, uriResourceFactory)
+                .build();
+
+        assertion = mapper.readTree(Resources.getResource("ob20/basic-assertion.json"));
+        badge = mapper.readTree(Resources.getResource("ob20/assets/robotics-badge.json"));
+        issuer = mapper.readTree(Resources.getResource("ob20/assets/organization.json"));
+        for (JsonNode node : List.of(badge, issuer)) {
+            String id = JsonLDCompactionProbe.getId(uriResourceFactory.of(node.get("id").asText()));
+            ctx.addGeneratedObject(new JsonLdGeneratedObject(id, node));
+        }
+    }
+
+    @Benchmark
+    public void plan(Blackhole blackhole) throws Exception {
+        runPlan(Assertion.Type.Assertion, assertion, blackhole);
+        runPlan(Assertion.Type.BadgeClass, badge, blackhole);
+        runPlan(Assertion.Type.Profile, issuer, blackhole);
+    }
+
+    @Benchmark
+    public void perProbe(Blackhole blackhole) throws Exception {
+        runProbes(Assertion.Type.Assertion, assertion, blackhole);
+        runProbes(Assertion.Type.BadgeClass, badge, blackhole);
+        runProbes(Assertion.Type.Profile, issuer, blackhole);
+    }
+
+    private void runPlan(Assertion.Type type, JsonNode node, Blackhole blackhole) throws Exception {
+        for (ReportItems items : ValidationPlan.of(type).run(node, ctx)) {
+            blackhole.consume(items);
+        }
+    }
+
+    private void runProbes(Assertion.Type type, JsonNode node, Blackhole blackhole) throws Exception {
+        for (Validation validation : type.getValidations()) {
+            blackhole.consume(ValidationPropertyProbeFactory.of(type.toString(), "Properties Validation", validation).run(node, ctx));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.oneedtech.inspect.vc.status.bitstring;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Expansion of a 16 MB status list: the whole list, through {@link BitstringExpansion},
+ * and through a GZIPInputStream read in 1 KB blocks as the probe used to, and a single
+ * status read with a cursor near the start and at the end of the list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BitstringExpansionBenchmark {
+  private static final int SIZE = 16 * 1024 * 1024;
+  private byte[] compressed;
+
+  @Setup
+  public void setup() throws IOException {
+    byte[] bitstring = new byte[SIZE];
+    for (int i = 0; i < SIZE; i += 4099) {
+      bitstring[i] = (byte) (i * 31);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(bitstring);
+    }
+    compressed = out.toByteArray();
+  }
+
+  @Benchmark
+  public byte[] expand() throws IOException {
+    return BitstringExpansion.expand(compressed);
+  }
+
+  @Benchmark
+  public byte[] gzipInputStream() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      byte[] buffer = new byte[1024];
+      int n;
+      while ((n = in.read(buffer)) > 0) {
+        out.write(buffer, 0, n);
+      }
+    }
+    return out.toByteArray();
+  }
+
+  @Benchmark
+  public int cursorFirstByte() throws IOException {
+    try (BitstringExpansion.Cursor cursor = BitstringExpansion.cursor(compressed)) {
+      return cursor.byteAt(4099);
+    }
+  }
+
+  @Benchmark
+  public int cursorLastByte() throws IOException {
+    try (BitstringExpansion.Cursor cursor = BitstringExpansion.cursor(compressed)) {
+      return cursor.byteAt(SIZE - 1);
+    }
+  }
+}
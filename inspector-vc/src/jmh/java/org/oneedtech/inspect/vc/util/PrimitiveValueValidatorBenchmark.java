@@ -0,0 +1,76 @@
+package org.oneedtech.inspect.vc.util;
+
+import static org.oneedtech.inspect.util.json.ObjectMapperCache.Config.DEFAULT;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.oneedtech.inspect.util.json.ObjectMapperCache;
+import org.oneedtech.inspect.vc.Assertion.ValueType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Validation of the good and bad values of PrimitiveValueValidatorTests, one value type
+ * per parameter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveValueValidatorBenchmark {
+    private static final Map<ValueType, List<Object>> VALUES = Map.of(
+        ValueType.COMPACT_IRI, List.of("id", "email", "telephone", "url", "verify", "obi:validatesType", "@type", "sloths", "@id"),
+        ValueType.RDF_TYPE, List.of("Assertion", "BadgeClass", "hosted", "obi:CustomType", "http://example.org/MyType", "sloths", "id", 1),
+        ValueType.DATETIME, List.of("1977-06-10T12:00:00+0800", "1977-06-10T12:00:00-0800", "1977-06-10T12:00:00+08",
+            "1977-06-10T12:00:00+08:00", "notadatetime", "1977-06-10T12:00:00"),
+        ValueType.DATA_URI_OR_URL, List.of("data:text/plain;charset=UTF-8;page=21,the%20data:1234,5678", "data:,",
+            "http://www.example.com:8080/foo/bar", "http://foo.com/blah_(wikipedia)#cite-1", "data:image/gif", "rdar://12345",
+            "urn:uuid:9d278beb-36cf-4bc8-888d-674ff9843d72"),
+        ValueType.IRI, List.of("http://www.example.com:8080/", "_:b0", "urn:uuid:9d278beb-36cf-4bc8-888d-674ff9843d72",
+            "urn:uuid:123", "urn:uuid:zz278beb-36cf-4bc8-888d-674ff9843d72"),
+        ValueType.URL_AUTHORITY, List.of("google.com", "nerds.example.com", "http://google.com/", "bears.com/thewoods", "1::6:7:8"),
+        ValueType.TELEPHONE, List.of("+64010", "+18006662344;ext=666", "1-800-666-DEVIL", "+18006664343 x666"),
+        ValueType.EMAIL, List.of("abc@localhost", "cool+uncool@example.org", " spacey@gmail.com", "steveman [at] gee mail dot com"));
+
+    @Param({ "COMPACT_IRI", "RDF_TYPE", "DATETIME", "DATA_URI_OR_URL", "IRI", "URL_AUTHORITY", "TELEPHONE", "EMAIL" })
+    public ValueType valueType;
+
+    private Function<JsonNode, Boolean> validationFunction;
+    private List<JsonNode> values;
+
+    @Setup
+    public void setup() {
+        ObjectMapper mapper = ObjectMapperCache.get(DEFAULT);
+        validationFunction = valueType.getValidationFunction();
+        values = new ArrayList<>();
+        for (Object value : VALUES.get(valueType)) {
+            values.add(mapper.valueToTree(value));
+        }
+    }
+
+    @Benchmark
+    public void validate(Blackhole blackhole) {
+        for (JsonNode value : values) {
+            blackhole.consume(validationFunction.apply(value));
+        }
+    }
+}
@@ -28,6 +28,7 @@ import org.oneedtech.inspect.vc.probe.ExternalProofProbe;
 import org.oneedtech.inspect.vc.probe.RunContextKey;
 import org.oneedtech.inspect.vc.probe.TypePropertyProbe;
 import org.oneedtech.inspect.vc.probe.did.DidResolver;
+import org.oneedtech.inspect.vc.probe.did.LocalDidResolver;
 import org.oneedtech.inspect.vc.probe.did.SimpleDidResolver;
 
 public class BitstringStatusListCredentialInspector extends VCInspector {
@@ -38,7 +39,7 @@ public class BitstringStatusListCredentialInspector extends VCInspector {
     super(builder);
     this.didResolver = (DidResolver) builder.getInjected(RunContextKey.DID_RESOLVER).orElse(null);
     if (this.didResolver == null) {
-      this.didResolver = new SimpleDidResolver(null, null);
+      this.didResolver = LocalDidResolver.wrap(localDidDocuments, new SimpleDidResolver(null, null));
     }
   }
 
@@ -34,6 +34,7 @@ public abstract class Credential extends GeneratedObject {
     final String issuedOnPropertyName;
     final String expiresAtPropertyName;
     final Map<CredentialEnum, SchemaKey> schemas;
+    private volatile CredentialTree tree;
 
     protected Credential(String id, Resource resource, JsonNode data, String jwt, Map<CredentialEnum, SchemaKey> schemas, String issuedOnPropertyName, String expiresAtPropertyName) {
 		super(id, GeneratedObject.Type.INTERNAL);
@@ -59,6 +60,18 @@ public abstract class Credential extends GeneratedObject {
 		return Optional.ofNullable(jwt);
 	}
 
+    /**
+     * The nodes of the JSON data looked for by the inspectors, walked once on first use.
+     */
+    public CredentialTree getTree() {
+        CredentialTree tree = this.tree;
+        if (tree == null) {
+            tree = CredentialTree.of(jsonData);
+            this.tree = tree;
+        }
+        return tree;
+    }
+
     public String getIssuedOnPropertyName() {
         return issuedOnPropertyName;
     }
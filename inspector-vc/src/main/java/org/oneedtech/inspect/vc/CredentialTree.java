@@ -0,0 +1,189 @@
+package org.oneedtech.inspect.vc;
+
+import static org.oneedtech.inspect.vc.util.JsonNodeUtil.asStringList;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * The nodes of a credential's JSON tree the inspectors look for, collected in
+ * a single walk of the tree. Each list holds its nodes in the order of the
+ * equivalent JSONPath deep scan, such as {@code $..endorsement}: objects are
+ * visited before their properties, properties in document order, and array
+ * values are flattened into their elements.
+ */
+public final class CredentialTree {
+	private final List<JsonNode> endorsements = new ArrayList<>();
+	private final List<JsonNode> endorsementJwts = new ArrayList<>();
+	private final List<JsonNode> subjectCredentials = new ArrayList<>();
+	private final List<JsonNode> subjectVerifications = new ArrayList<>();
+	private final List<Extension> extensions = new ArrayList<>();
+
+	private CredentialTree() {}
+
+	/**
+	 * Walk the given tree.
+	 */
+	public static CredentialTree of(JsonNode root) {
+		CredentialTree tree = new CredentialTree();
+		tree.walk(root, true, false, true, new ArrayDeque<>());
+		return tree;
+	}
+
+	/**
+	 * The values of all endorsement properties, as {@code $..endorsement}.
+	 */
+	public List<JsonNode> getEndorsements() {
+		return Collections.unmodifiableList(endorsements);
+	}
+
+	/**
+	 * The values of all endorsementJwt properties, as {@code $..endorsementJwt}.
+	 */
+	public List<JsonNode> getEndorsementJwts() {
+		return Collections.unmodifiableList(endorsementJwts);
+	}
+
+	/**
+	 * The credentials embedded in the credential subject, as {@code $.credentialSubject.verifiableCredential}.
+	 */
+	public List<JsonNode> getSubjectCredentials() {
+		return Collections.unmodifiableList(subjectCredentials);
+	}
+
+	/**
+	 * The values of all verifications properties within the credential subject,
+	 * as {@code $.credentialSubject..verifications}.
+	 */
+	public List<JsonNode> getSubjectVerifications() {
+		return Collections.unmodifiableList(subjectVerifications);
+	}
+
+	/**
+	 * The objects typed as an Extension, not looking into id and type properties
+	 * nor into arrays nested in arrays.
+	 */
+	public List<Extension> getExtensions() {
+		return Collections.unmodifiableList(extensions);
+	}
+
+	/**
+	 * @param root whether the node is the root of the tree
+	 * @param inSubject whether the node is within the credential subject
+	 * @param extensions whether extensions are looked for in the node
+	 * @param path the property names and array indexes leading to the node, while looking for extensions
+	 */
+	private void walk(JsonNode node, boolean root, boolean inSubject, boolean extensions, Deque<Object> path) {
+		if (node.isObject()) {
+			visit(node, inSubject, extensions, path);
+			Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+			while (fields.hasNext()) {
+				Map.Entry<String, JsonNode> field = fields.next();
+				String name = field.getKey();
+				JsonNode value = field.getValue();
+				boolean subject = inSubject || (root && name.equals("credentialSubject"));
+				if (root && name.equals("credentialSubject") && value.isObject() && value.has("verifiableCredential")) {
+					addAll(subjectCredentials, value.get("verifiableCredential"));
+				}
+
+				boolean childExtensions = extensions && !name.equals("id") && !name.equals("type");
+				if (childExtensions) path.addLast(name);
+				if (value.isArray()) {
+					// the elements of a property value are looked into for extensions, nested arrays are not
+					for (int i = 0; i < value.size(); i++) {
+						if (childExtensions) path.addLast(i);
+						walk(value.get(i), false, subject, childExtensions, path);
+						if (childExtensions) path.removeLast();
+					}
+				} else {
+					walk(value, false, subject, childExtensions, path);
+				}
+				if (childExtensions) path.removeLast();
+			}
+		} else if (node.isArray()) {
+			for (JsonNode element : node) {
+				walk(element, false, inSubject, false, path);
+			}
+		}
+	}
+
+	private void visit(JsonNode node, boolean inSubject, boolean extensions, Deque<Object> path) {
+		if (node.has("endorsement")) {
+			addAll(endorsements, node.get("endorsement"));
+		}
+		if (node.has("endorsementJwt")) {
+			addAll(endorsementJwts, node.get("endorsementJwt"));
+		}
+		if (inSubject && node.has("verifications")) {
+			addAll(subjectVerifications, node.get("verifications"));
+		}
+		if (extensions && node.has("type")) {
+			List<String> types = asStringList(node.get("type"));
+			if (types.contains("Extension")) {
+				List<String> typesToTest = new ArrayList<>(types);
+				typesToTest.removeIf(type -> type.equals("Extension"));
+				this.extensions.add(new Extension(toPath(path), typesToTest, node));
+			}
+		}
+	}
+
+	private static void addAll(List<JsonNode> list, JsonNode value) {
+		if (value.isArray()) {
+			value.forEach(list::add);
+		} else {
+			list.add(value);
+		}
+	}
+
+	private static String toPath(Deque<Object> path) {
+		StringBuilder sb = new StringBuilder();
+		for (Object segment : path) {
+			if (segment instanceof Integer) {
+				sb.append('[').append(segment).append(']');
+			} else {
+				sb.append('.').append(segment);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * An object typed as an Extension.
+	 */
+	public static final class Extension {
+		private final String path;
+		private final List<String> types;
+		private final JsonNode node;
+
+		Extension(String path, List<String> types, JsonNode node) {
+			this.path = path;
+			this.types = types;
+			this.node = node;
+		}
+
+		/**
+		 * The path to the object from the root, such as {@code .credentialSubject.achievement[0]}, empty for the root.
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		/**
+		 * The types of the object other than Extension.
+		 */
+		public List<String> getTypes() {
+			return types;
+		}
+
+		public JsonNode getNode() {
+			return node;
+		}
+	}
+}
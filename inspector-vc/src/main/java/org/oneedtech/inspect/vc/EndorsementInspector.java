@@ -1,7 +1,6 @@
 package org.oneedtech.inspect.vc;
 
 import static java.lang.Boolean.TRUE;
-import static org.oneedtech.inspect.core.Inspector.Behavior.RESET_CACHES_ON_RUN;
 import static org.oneedtech.inspect.core.Inspector.InjectionKeys.DID_RESOLUTION_SERVICE_URL;
 import static org.oneedtech.inspect.core.probe.RunContext.Key.GENERATED_OBJECT_BUILDER;
 import static org.oneedtech.inspect.core.probe.RunContext.Key.JACKSON_OBJECTMAPPER;
@@ -10,6 +9,10 @@ import static org.oneedtech.inspect.core.report.ReportUtil.onProbeException;
 import static org.oneedtech.inspect.util.code.Defensives.checkNotNull;
 import static org.oneedtech.inspect.util.json.ObjectMapperCache.Config.DEFAULT;
 import static org.oneedtech.inspect.vc.Credential.CREDENTIAL_KEY;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.CACHE_PROOF_VERIFICATIONS;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.PARALLEL_PROBES;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.PREFETCH_REMOTE_RESOURCES;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.STREAM_REVOCATION_LISTS;
 import static org.oneedtech.inspect.vc.VCInspector.InjectionKeys.*;
 import static org.oneedtech.inspect.vc.VerifiableCredential.REFRESH_SERVICE_RESOURCE_TYPES;
 import static org.oneedtech.inspect.vc.VerifiableCredential.ProofType.EXTERNAL;
@@ -30,8 +33,6 @@ import org.oneedtech.inspect.core.probe.RunContext;
 import org.oneedtech.inspect.core.probe.json.JsonPathEvaluator;
 import org.oneedtech.inspect.core.report.Report;
 import org.oneedtech.inspect.core.report.ReportItems;
-import org.oneedtech.inspect.schema.JsonSchemaCache;
-import org.oneedtech.inspect.schema.SchemaKey;
 import org.oneedtech.inspect.util.json.ObjectMapperCache;
 import org.oneedtech.inspect.util.resource.Resource;
 import org.oneedtech.inspect.util.resource.UriResource;
@@ -50,8 +51,8 @@ import org.oneedtech.inspect.vc.probe.RevocationListProbe;
 import org.oneedtech.inspect.vc.probe.RunContextKey;
 import org.oneedtech.inspect.vc.probe.TypePropertyProbe;
 import org.oneedtech.inspect.vc.probe.did.DidResolver;
+import org.oneedtech.inspect.vc.probe.did.LocalDidResolver;
 import org.oneedtech.inspect.vc.probe.did.SimpleDidResolver;
-import org.oneedtech.inspect.vc.util.CachingDocumentLoader;
 import org.velocitynetwork.contracts.VelocityNetworkDidResolver;
 import org.velocitynetwork.contracts.VelocityNetworkMetadataRegistryFacade;
 import org.velocitynetwork.contracts.VelocityNetworkMetadataRegistryFacadeImpl;
@@ -114,7 +115,7 @@ public class EndorsementInspector extends VCInspector implements SubInspector {
 			}
 			velocityNetworkDidResolver = new VelocityNetworkDidResolver(velocityNetworkMetadataRegistryFacade, this.vnConfig.getOrDefault(VNF_BURNER_DID, "").toString());
 		}
-		DidResolver didResolver = new SimpleDidResolver(this.didResolutionUrl, velocityNetworkDidResolver);
+		DidResolver didResolver = LocalDidResolver.wrap(localDidDocuments, new SimpleDidResolver(this.didResolutionUrl, velocityNetworkDidResolver));
 
     RunContext ctx =
         new RunContext.Builder()
@@ -127,30 +128,42 @@ public class EndorsementInspector extends VCInspector implements SubInspector {
 
     List<ReportItems> accumulator = new ArrayList<>();
     int probeCount = 0;
+
+    if (getBehavior(PREFETCH_REMOTE_RESOURCES) == TRUE) {
+      RemotePrefetcher.start(
+          endorsement, ctx, getDocumentLoader(),
+          didResolver, getBehavior(STREAM_REVOCATION_LISTS) == TRUE);
+    }
+
     try {
 
+      ProbeGraph probes = new ProbeGraph(getBehavior(PARALLEL_PROBES) == TRUE);
+
       // context and type properties
       VerifiableCredential.Type type = Type.EndorsementCredential;
       for (Probe<JsonNode> probe :
           List.of(new ContextPropertyProbe(type), new TypePropertyProbe(type))) {
-        probeCount++;
-        accumulator.add(probe.run(endorsement.getJson(), ctx));
-        if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+        probes.add(() -> probe.run(endorsement.getJson(), ctx));
       }
 
       // inline schema (parent inspector has already validated against canonical)
-      accumulator.add(new InlineJsonSchemaProbe().run(endorsement.getJson(), ctx));
+      probes.add(() -> new InlineJsonSchemaProbe().run(endorsement.getJson(), ctx)).unchecked().uncounted();
 
       // signatures, proofs
-      probeCount++;
-      if (endorsement.getProofType() == EXTERNAL) {
-        // The credential originally contained in a JWT, validate the jwt and external proof.
-        accumulator.add(new ExternalProofProbe(false).run(endorsement, ctx));
-      } else {
-        // The credential not contained in a jwt, must have an internal proof.
-        accumulator.add(new EmbeddedProofProbe(type).run(endorsement, ctx));
-      }
-      if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+      probes.add(() -> {
+        if (endorsement.getProofType() == EXTERNAL) {
+          // The credential originally contained in a JWT, validate the jwt and external proof.
+          return new ExternalProofProbe(false).run(endorsement, ctx);
+        } else {
+          // The credential not contained in a jwt, must have an internal proof.
+          return new EmbeddedProofProbe(type, getBehavior(CACHE_PROOF_VERIFICATIONS) == TRUE).run(endorsement, ctx);
+        }
+      });
+
+      ProbeGraph.Result result = probes.run(accumulator, this::broken);
+      probeCount += result.getProbeCount();
+      result.throwIfFailed();
+      if (result.isStopped()) return abort(ctx, accumulator, probeCount);
 
       // check refresh service if we are not already refreshed (check just like in external CLR)
       probeCount++;
@@ -168,13 +181,20 @@ public class EndorsementInspector extends VCInspector implements SubInspector {
       }
 
       // revocation, expiration and issuance
+      probes = new ProbeGraph(getBehavior(PARALLEL_PROBES) == TRUE);
       for (Probe<Credential> probe :
-          List.of(new RevocationListProbe(), new ExpirationProbe(), new IssuanceProbe())) {
-        probeCount++;
-        accumulator.add(probe.run(endorsement, ctx));
-        if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+          List.of(
+              new RevocationListProbe(getBehavior(STREAM_REVOCATION_LISTS) == TRUE),
+              new ExpirationProbe(),
+              new IssuanceProbe())) {
+        probes.add(() -> probe.run(endorsement, ctx));
       }
 
+      result = probes.run(accumulator, this::broken);
+      probeCount += result.getProbeCount();
+      result.throwIfFailed();
+      if (result.isStopped()) return abort(ctx, accumulator, probeCount);
+
     } catch (Exception e) {
       accumulator.add(onProbeException(Probe.ID.NO_UNCAUGHT_EXCEPTIONS, resource, "EndorsementInspector validation", e));
     }
@@ -186,10 +206,7 @@ public class EndorsementInspector extends VCInspector implements SubInspector {
   public Report run(Resource resource) {
     super.check(resource);
 
-    if (getBehavior(RESET_CACHES_ON_RUN) == TRUE) {
-      JsonSchemaCache.reset();
-      CachingDocumentLoader.reset();
-    }
+    resetCaches();
 
     ObjectMapper mapper = ObjectMapperCache.get(DEFAULT);
     JsonPathEvaluator jsonPath = new JsonPathEvaluator(mapper);
@@ -215,40 +232,46 @@ public class EndorsementInspector extends VCInspector implements SubInspector {
       // we expect the above to place a generated object in the context
       VerifiableCredential endorsement = ctx.getGeneratedObject(VerifiableCredential.ID);
 
+      if (getBehavior(PREFETCH_REMOTE_RESOURCES) == TRUE) {
+        RemotePrefetcher.start(
+            endorsement, ctx, getDocumentLoader(),
+            null, getBehavior(STREAM_REVOCATION_LISTS) == TRUE);
+      }
+
+      ProbeGraph probes = new ProbeGraph(getBehavior(PARALLEL_PROBES) == TRUE);
+
       // context and type properties
       VerifiableCredential.Type type = Type.EndorsementCredential;
       for (Probe<JsonNode> probe :
           List.of(new ContextPropertyProbe(type), new TypePropertyProbe(type))) {
-        probeCount++;
-        accumulator.add(probe.run(endorsement.getJson(), ctx));
-        if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+        probes.add(() -> probe.run(endorsement.getJson(), ctx));
       }
 
       // canonical schema
-      SchemaKey schema = endorsement.getSchemaKey().orElseThrow();
-      probeCount++;
-      accumulator.add(new JsonSchemasProbe(schema).run(endorsement, ctx));
-      if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+      probes.add(() -> new JsonSchemasProbe(endorsement.getSchemaKey().orElseThrow()).run(endorsement, ctx));
 
       // inline schema
-      probeCount++;
-      accumulator.add(new InlineJsonSchemaProbe(schema).run(endorsement.getJson(), ctx));
-      if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+      probes.add(() -> new InlineJsonSchemaProbe(endorsement.getSchemaKey().orElseThrow()).run(endorsement.getJson(), ctx));
 
       // credentialSubject
-      probeCount++;
-      accumulator.add(
-          new CredentialSubjectProbe("EndorsementSubject").run(endorsement.getJson(), ctx));
+      probes.add(
+          () -> new CredentialSubjectProbe("EndorsementSubject").run(endorsement.getJson(), ctx))
+          .unchecked();
 
       // signatures, proofs
-      probeCount++;
-      if (endorsement.getProofType() == EXTERNAL) {
-        // The credential originally contained in a JWT, validate the jwt and external proof.
-        accumulator.add(new ExternalProofProbe(false).run(endorsement, ctx));
-      } else {
-        accumulator.add(new EmbeddedProofProbe(type).run(endorsement, ctx));
-      }
-      if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+      probes.add(() -> {
+        if (endorsement.getProofType() == EXTERNAL) {
+          // The credential originally contained in a JWT, validate the jwt and external proof.
+          return new ExternalProofProbe(false).run(endorsement, ctx);
+        } else {
+          return new EmbeddedProofProbe(type, getBehavior(CACHE_PROOF_VERIFICATIONS) == TRUE).run(endorsement, ctx);
+        }
+      });
+
+      ProbeGraph.Result result = probes.run(accumulator, this::broken);
+      probeCount += result.getProbeCount();
+      result.throwIfFailed();
+      if (result.isStopped()) return abort(ctx, accumulator, probeCount);
 
       // check refresh service if we are not already refreshed
       probeCount++;
@@ -262,13 +285,20 @@ public class EndorsementInspector extends VCInspector implements SubInspector {
       }
 
       // revocation, expiration and issuance
+      probes = new ProbeGraph(getBehavior(PARALLEL_PROBES) == TRUE);
       for (Probe<Credential> probe :
-          List.of(new RevocationListProbe(), new ExpirationProbe(), new IssuanceProbe())) {
-        probeCount++;
-        accumulator.add(probe.run(endorsement, ctx));
-        if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+          List.of(
+              new RevocationListProbe(getBehavior(STREAM_REVOCATION_LISTS) == TRUE),
+              new ExpirationProbe(),
+              new IssuanceProbe())) {
+        probes.add(() -> probe.run(endorsement, ctx));
       }
 
+      result = probes.run(accumulator, this::broken);
+      probeCount += result.getProbeCount();
+      result.throwIfFailed();
+      if (result.isStopped()) return abort(ctx, accumulator, probeCount);
+
       // finally, run any user-added probes
       for (Probe<VerifiableCredential> probe : userProbes) {
         probeCount++;
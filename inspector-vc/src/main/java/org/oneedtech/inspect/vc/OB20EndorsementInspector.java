@@ -101,7 +101,7 @@ public class OB20EndorsementInspector extends VCInspector implements SubInspecto
 				for(Probe<JsonLdGeneratedObject> probe : List.of(new VerificationDependenciesProbe(endorsementNode.get("id").asText(), "claim"),
 					new AssertionRevocationListProbe(endorsementNode.get("id").asText(), "claim"))) {
 					probeCount++;
-					accumulator.add(probe.run(new JsonLdGeneratedObject(endorsementNode.toString()), ctx));
+					accumulator.add(probe.run(new JsonLdGeneratedObject(endorsementNode), ctx));
 					if(broken(accumulator)) return abort(ctx, accumulator, probeCount);
 				}
 			}
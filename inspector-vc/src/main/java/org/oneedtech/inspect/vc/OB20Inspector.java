@@ -1,12 +1,9 @@
 package org.oneedtech.inspect.vc;
 
-import static java.lang.Boolean.TRUE;
 import static java.util.stream.Collectors.toList;
-import static org.oneedtech.inspect.core.Inspector.Behavior.RESET_CACHES_ON_RUN;
 import static org.oneedtech.inspect.core.report.ReportUtil.onProbeException;
 import static org.oneedtech.inspect.util.json.ObjectMapperCache.Config.DEFAULT;
 import static org.oneedtech.inspect.vc.Credential.CREDENTIAL_KEY;
-import static org.oneedtech.inspect.vc.util.JsonNodeUtil.asNodeList;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -21,7 +18,6 @@ import org.oneedtech.inspect.core.probe.RunContext.Key;
 import org.oneedtech.inspect.core.probe.json.JsonPathEvaluator;
 import org.oneedtech.inspect.core.report.Report;
 import org.oneedtech.inspect.core.report.ReportItems;
-import org.oneedtech.inspect.schema.JsonSchemaCache;
 import org.oneedtech.inspect.util.code.Tuple;
 import org.oneedtech.inspect.util.json.ObjectMapperCache;
 import org.oneedtech.inspect.util.resource.Resource;
@@ -45,12 +41,10 @@ import org.oneedtech.inspect.vc.probe.IssuanceProbe;
 import org.oneedtech.inspect.vc.probe.TypePropertyProbe;
 import org.oneedtech.inspect.vc.probe.VerificationDependenciesProbe;
 import org.oneedtech.inspect.vc.probe.VerificationJWTProbe;
-import org.oneedtech.inspect.vc.probe.validation.ValidationPropertyProbeFactory;
+import org.oneedtech.inspect.vc.probe.validation.ValidationPlan;
 import org.oneedtech.inspect.vc.resource.UriResourceFactory;
-import org.oneedtech.inspect.vc.util.CachingDocumentLoader;
 
 import com.apicatalog.jsonld.loader.DocumentLoader;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -71,10 +65,7 @@ public class OB20Inspector extends VCInspector {
 	public Report run(Resource resource) {
 		super.check(resource);
 
-		if(getBehavior(RESET_CACHES_ON_RUN) == TRUE) {
-			JsonSchemaCache.reset();
-			CachingDocumentLoader.reset();
-		}
+		resetCaches();
 
         ObjectMapper mapper = ObjectMapperCache.get(DEFAULT);
 		JsonPathEvaluator jsonPath = new JsonPathEvaluator(mapper);
@@ -121,22 +112,22 @@ public class OB20Inspector extends VCInspector {
 
 			// validate JSON LD
 			JsonLdGeneratedObject jsonLdGeneratedObject = ctx.getGeneratedObject(JsonLDCompactionProbe.getId(assertion));
-			accumulator.add(new JsonLDValidationProbe().run(jsonLdGeneratedObject.getJson(), ctx));
+			accumulator.add(new JsonLDValidationProbe().run(jsonLdGeneratedObject.getNode(), ctx));
 			if(broken(accumulator, true)) return abort(ctx, accumulator, probeCount);
 
 			// validation the Open Badge, from the compacted form
-			JsonNode assertionNode = mapper.readTree(jsonLdGeneratedObject.getJson());
+			JsonNode assertionNode = jsonLdGeneratedObject.getNode();
 
 			// mount the graph, flattening embedded resources
 			probeCount++;
 			accumulator.add(new GraphFetcherProbe(assertion).run(assertionNode, ctx));
 			if(broken(accumulator)) return abort(ctx, accumulator, probeCount);
 
-			// perform validations
-			List<Validation> validations = assertion.getValidations();
-			for (Validation validation : validations) {
+			// perform validations, with the plan compiled once for the credential type
+			ValidationPlan plan = ValidationPlan.of((Type) assertion.getCredentialType());
+			for (ReportItems items : plan.run(assertionNode, ctx)) {
 				probeCount++;
-				accumulator.add(ValidationPropertyProbeFactory.of(assertion.getCredentialType().toString(), "Properties Validation", validation).run(assertionNode, ctx));
+				accumulator.add(items);
 				if(broken(accumulator)) return abort(ctx, accumulator, probeCount);
 			}
 
@@ -165,22 +156,15 @@ public class OB20Inspector extends VCInspector {
 				if(broken(accumulator)) return abort(ctx, accumulator, probeCount);
 			}
 
-			// get all json-ld generated objects for both extension and endorsements validation
-			List<JsonNode> jsonLdGeneratedObjects = ctx.getGeneratedObjects().values().stream()
+			// walk all json-ld generated objects once for both extension and endorsements validation
+			List<CredentialTree> jsonLdGeneratedObjects = ctx.getGeneratedObjects().values().stream()
 				.filter(generatedObject -> generatedObject instanceof JsonLdGeneratedObject)
-				.map(obj -> {
-
-					try {
-						return mapper.readTree(((JsonLdGeneratedObject) obj).getJson());
-					} catch (JsonProcessingException e) {
-						throw new IllegalArgumentException("Couldn't not parse " + obj.getId() + ": contains invalid JSON");
-					}
-				})
+				.map(obj -> CredentialTree.of(((JsonLdGeneratedObject) obj).getNode()))
 				.collect(toList());
 
 			// validate extensions
 			List<Tuple<ExtensionProbe, JsonNode>> extensionProbeTuples = jsonLdGeneratedObjects.stream()
-				.flatMap(node -> getExtensionProbes(node, "id").stream())
+				.flatMap(tree -> getExtensionProbes(tree, "id").stream())
 				.collect(toList());
 			for (Tuple<ExtensionProbe, JsonNode> extensionProbeTuple : extensionProbeTuples) {
 				probeCount++;
@@ -189,15 +173,15 @@ public class OB20Inspector extends VCInspector {
 			}
 
 			// Embedded endorsements. Pass document loader because it has already cached documents, and it has localdomains for testing
-			OB20EndorsementInspector endorsementInspector = new OB20EndorsementInspector.Builder()
+			OB20EndorsementInspector endorsementInspector = configureSubInspector(new OB20EndorsementInspector.Builder())
 				.documentLoader(documentLoader)
 				.uriResourceFactory(uriResourceFactory)
 				.build();
 
 			// get endorsements for all JSON_LD objects in the graph
-			List<JsonNode> endorsements = jsonLdGeneratedObjects.stream().flatMap(node -> {
+			List<JsonNode> endorsements = jsonLdGeneratedObjects.stream().flatMap(tree -> {
 				// return endorsement node, filtering out the on inside @context
-				return asNodeList(node, "$..endorsement", jsonPath).stream().filter(endorsementNode -> !endorsementNode.isObject());
+				return tree.getEndorsements().stream().filter(endorsementNode -> !endorsementNode.isObject());
 			})
 			.collect(toList());
 
@@ -210,7 +194,7 @@ public class OB20Inspector extends VCInspector {
 					throw new IllegalArgumentException("endorsement " + node.toString() + " not found in graph");
 				}
 
-				Assertion endorsement = new Assertion.Builder().resource(resource).jsonData(mapper.readTree(resolved.getJson())).build();
+				Assertion endorsement = new Assertion.Builder().resource(resource).jsonData(resolved.getNode()).build();
 				// pass graph to subinspector
 				Map<String, GeneratedObject> parentObjects = new HashMap<>(ctx.getGeneratedObjects());
 				parentObjects.put(CREDENTIAL_KEY, endorsement);
@@ -241,7 +225,7 @@ public class OB20Inspector extends VCInspector {
 		}
 	}
 
-	public static class Behavior extends Inspector.Behavior {
+	public static class Behavior extends VCInspector.Behavior {
 		/**
 		 * Whether to support local redirection of uris
 		 */
@@ -1,17 +1,19 @@
 package org.oneedtech.inspect.vc;
 
 import static java.lang.Boolean.TRUE;
-import static org.oneedtech.inspect.core.Inspector.Behavior.RESET_CACHES_ON_RUN;
 import static org.oneedtech.inspect.core.Inspector.InjectionKeys.DID_RESOLUTION_SERVICE_URL;
 import static org.oneedtech.inspect.core.report.ReportUtil.onProbeException;
 import static org.oneedtech.inspect.util.code.Defensives.checkNotNull;
 import static org.oneedtech.inspect.util.json.ObjectMapperCache.Config.DEFAULT;
 import static org.oneedtech.inspect.vc.Credential.CREDENTIAL_KEY;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.CACHE_PROOF_VERIFICATIONS;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.PARALLEL_PROBES;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.PREFETCH_REMOTE_RESOURCES;
+import static org.oneedtech.inspect.vc.VCInspector.Behavior.STREAM_REVOCATION_LISTS;
 import static org.oneedtech.inspect.vc.VCInspector.InjectionKeys.*;
 import static org.oneedtech.inspect.vc.VerifiableCredential.ProofType.EXTERNAL;
 import static org.oneedtech.inspect.vc.VerifiableCredential.REFRESH_SERVICE_RESOURCE_TYPES;
 import static org.oneedtech.inspect.vc.payload.PayloadParser.fromJwt;
-import static org.oneedtech.inspect.vc.util.JsonNodeUtil.asNodeList;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -22,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 import org.oneedtech.inspect.core.SubInspector;
 import org.oneedtech.inspect.core.probe.GeneratedObject;
 import org.oneedtech.inspect.core.probe.Probe;
@@ -30,8 +33,6 @@ import org.oneedtech.inspect.core.probe.RunContext.Key;
 import org.oneedtech.inspect.core.probe.json.JsonPathEvaluator;
 import org.oneedtech.inspect.core.report.Report;
 import org.oneedtech.inspect.core.report.ReportItems;
-import org.oneedtech.inspect.schema.JsonSchemaCache;
-import org.oneedtech.inspect.schema.SchemaKey;
 import org.oneedtech.inspect.util.json.ObjectMapperCache;
 import org.oneedtech.inspect.util.resource.Resource;
 import org.oneedtech.inspect.util.resource.ResourceType;
@@ -57,6 +58,7 @@ import org.oneedtech.inspect.vc.probe.RevocationListProbe;
 import org.oneedtech.inspect.vc.probe.RunContextKey;
 import org.oneedtech.inspect.vc.probe.TypePropertyProbe;
 import org.oneedtech.inspect.vc.probe.did.DidResolver;
+import org.oneedtech.inspect.vc.probe.did.LocalDidResolver;
 import org.oneedtech.inspect.vc.probe.did.SimpleDidResolver;
 import org.oneedtech.inspect.vc.util.CachingDocumentLoader;
 import org.velocitynetwork.contracts.VelocityNetworkDidResolver;
@@ -98,10 +100,7 @@ public class OB30Inspector extends VCInspector implements SubInspector {
   public Report run(Resource resource) {
     super.check(resource); // TODO because URIs, this should be a fetch and cache
 
-    if (getBehavior(RESET_CACHES_ON_RUN) == TRUE) {
-      JsonSchemaCache.reset();
-      CachingDocumentLoader.reset();
-    }
+    resetCaches();
 
     ObjectMapper mapper = ObjectMapperCache.get(DEFAULT);
     JsonPathEvaluator jsonPath = new JsonPathEvaluator(mapper);
@@ -184,7 +183,7 @@ public class OB30Inspector extends VCInspector implements SubInspector {
             );
     }
 
-    DidResolver didResolver = new SimpleDidResolver(this.didResolutionUrl, velocityNetworkDidResolver);
+    DidResolver didResolver = LocalDidResolver.wrap(localDidDocuments, new SimpleDidResolver(this.didResolutionUrl, velocityNetworkDidResolver));
     VerifiableCredential.Builder credentialBuilder = new VerifiableCredential.Builder();
     RunContext ctx =
         new RunContext.Builder()
@@ -205,107 +204,114 @@ public class OB30Inspector extends VCInspector implements SubInspector {
     List<ReportItems> accumulator = new ArrayList<>();
     int probeCount = 0;
 
+    if (getBehavior(PREFETCH_REMOTE_RESOURCES) == TRUE) {
+      RemotePrefetcher.start(
+          ob, ctx, getDocumentLoader(),
+          didResolver, getBehavior(STREAM_REVOCATION_LISTS) == TRUE);
+    }
+
     try {
 
+      ProbeGraph probes = new ProbeGraph(getBehavior(PARALLEL_PROBES) == TRUE);
+
       // JSON-LD validation
-      probeCount++;
-      accumulator.add(new JsonLDValidationProbe(new CachingDocumentLoader()).run(ob.getJson().toString(), ctx));
-      if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+      probes.add(() -> new JsonLDValidationProbe(new CachingDocumentLoader()).run(ob.getJson(), ctx));
 
       // context and type properties
       VerifiableCredential.Type type = Type.OpenBadgeCredential;
       for (Probe<JsonNode> probe :
           List.of(new ContextPropertyProbe(type), new TypePropertyProbe(type))) {
-        probeCount++;
-        accumulator.add(probe.run(ob.getJson(), ctx));
-        if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+        probes.add(() -> probe.run(ob.getJson(), ctx));
       }
 
       // canonical schema
-      SchemaKey schema = ob.getSchemaKey().orElseThrow();
-      probeCount++;
-      accumulator.add(new JsonSchemasProbe(schema).run(ob, ctx));
-      if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+      probes.add(() -> new JsonSchemasProbe(ob.getSchemaKey().orElseThrow()).run(ob, ctx));
 
       // inline schema
-      probeCount++;
-      accumulator.add(new InlineJsonSchemaProbe(schema).run(ob.getJson(), ctx));
-      if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+      probes.add(() -> new InlineJsonSchemaProbe(ob.getSchemaKey().orElseThrow()).run(ob.getJson(), ctx));
 
       // credentialSubject
-      probeCount++;
-      accumulator.add(
-          new CredentialSubjectProbe("AchievementSubject", true, true).run(ob.getJson(), ctx));
+      probes.add(
+          () -> new CredentialSubjectProbe("AchievementSubject", true, true).run(ob.getJson(), ctx))
+          .unchecked();
 
       // evidence
-      probeCount++;
-      accumulator.add(new EvidenceProbe().run(ob.getJson(), ctx));
-      if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+      probes.add(() -> new EvidenceProbe().run(ob.getJson(), ctx));
 
       // issuer
-      probeCount++;
-      accumulator.add(new IssuerProbe().run(ob.getJson(), ctx));
-      if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+      probes.add(() -> new IssuerProbe().run(ob.getJson(), ctx));
 
       // signatures, proofs
-      probeCount++;
-      if (ob.getProofType() == EXTERNAL) {
-        // The credential originally contained in a JWT, validate the jwt and external proof.
-        accumulator.add(new ExternalProofProbe(false).run(ob, ctx));
-      } else {
-        // The credential not contained in a jwt, must have an internal proof.
-        accumulator.add(new EmbeddedProofProbe(type).run(ob, ctx));
-      }
-      if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+      ProbeGraph.Node proof = probes.add(() -> {
+        if (ob.getProofType() == EXTERNAL) {
+          // The credential originally contained in a JWT, validate the jwt and external proof.
+          return new ExternalProofProbe(false).run(ob, ctx);
+        } else {
+          // The credential not contained in a jwt, must have an internal proof.
+          return new EmbeddedProofProbe(type, getBehavior(CACHE_PROOF_VERIFICATIONS) == TRUE).run(ob, ctx);
+        }
+      });
 
       // check refresh service if we are not already refreshed
-      probeCount++;
-      if (resource.getContext().get(REFRESHED) != TRUE) {
-        Optional<String> newID = checkRefreshService(ob, ctx);
-        if (newID.isPresent()) {
-          // If the refresh is not successful, continue the verification process using the original
-          // OpenBadgeCredential.
-          UriResource uriResource =
-              new UriResource(new URI(newID.get()), null, REFRESH_SERVICE_RESOURCE_TYPES);
-          if (uriResource.exists()) {
-            accumulator.add(this.run(uriResource.setContext(new ResourceContext(REFRESHED, TRUE))));
+      probes.add(() -> {
+        if (resource.getContext().get(REFRESHED) != TRUE) {
+          Optional<String> newID = checkRefreshService(ob, ctx);
+          if (newID.isPresent()) {
+            // If the refresh is not successful, continue the verification process using the original
+            // OpenBadgeCredential.
+            UriResource uriResource =
+                new UriResource(new URI(newID.get()), null, REFRESH_SERVICE_RESOURCE_TYPES);
+            if (uriResource.exists()) {
+              return this.run(uriResource.setContext(new ResourceContext(REFRESHED, TRUE)));
+            }
           }
         }
-      }
+        return null;
+      }, proof).unchecked().ordered();
 
       // revocation, expiration and issuance
       for (Probe<Credential> probe :
-          List.of(new RevocationListProbe(), new ExpirationProbe(), new IssuanceProbe())) {
-        probeCount++;
-        accumulator.add(probe.run(ob, ctx));
-        if (broken(accumulator)) return abort(ctx, accumulator, probeCount);
+          List.of(
+              new RevocationListProbe(getBehavior(STREAM_REVOCATION_LISTS) == TRUE),
+              new ExpirationProbe(),
+              new IssuanceProbe())) {
+        probes.add(() -> probe.run(ob, ctx));
       }
 
-      // embedded endorsements
-      EndorsementInspector.Builder endorsementInspectorBuilder = new EndorsementInspector.Builder();
-      if (didResolutionUrl != null) {
-        endorsementInspectorBuilder =
-            endorsementInspectorBuilder.inject(DID_RESOLUTION_SERVICE_URL, didResolutionUrl);
-      }
-      EndorsementInspector endorsementInspector = endorsementInspectorBuilder.build();
+      ProbeGraph.Result result = probes.run(accumulator, this::broken);
+      probeCount += result.getProbeCount();
+      result.throwIfFailed();
+      if (result.isStopped()) return abort(ctx, accumulator, probeCount);
 
-      List<JsonNode> endorsements = asNodeList(ob.getJson(), "$..endorsement", jsonPath);
-      for (JsonNode node : endorsements) {
-        probeCount++;
-        VerifiableCredential endorsement =
-            credentialBuilder.resource(resource).jsonData(node).build();
-        accumulator.add(endorsementInspector.run(resource, Map.of(CREDENTIAL_KEY, endorsement)));
-      }
+      // embedded endorsements
+      EndorsementInspector endorsementInspector =
+          configureSubInspector(new EndorsementInspector.Builder()).build();
+
+      List<Callable<Report>> endorsementInspections = new ArrayList<>();
+      try {
+        List<JsonNode> endorsements = ob.getTree().getEndorsements();
+        for (JsonNode node : endorsements) {
+          probeCount++;
+          VerifiableCredential endorsement =
+              credentialBuilder.resource(resource).jsonData(node).build();
+          endorsementInspections.add(
+              () -> endorsementInspector.run(resource, Map.of(CREDENTIAL_KEY, endorsement)));
+        }
 
-      // embedded jwt endorsements
-      endorsements = asNodeList(ob.getJson(), "$..endorsementJwt", jsonPath);
-      for (JsonNode node : endorsements) {
-        probeCount++;
-        String jwt = node.asText();
-        JsonNode vcNode = fromJwt(jwt, ctx);
-        VerifiableCredential endorsement =
-            credentialBuilder.resource(resource).jsonData(vcNode).jwt(jwt).build();
-        accumulator.add(endorsementInspector.run(resource, Map.of(CREDENTIAL_KEY, endorsement)));
+        // embedded jwt endorsements
+        endorsements = ob.getTree().getEndorsementJwts();
+        for (JsonNode node : endorsements) {
+          probeCount++;
+          String jwt = node.asText();
+          JsonNode vcNode = fromJwt(jwt, ctx);
+          VerifiableCredential endorsement =
+              credentialBuilder.resource(resource).jsonData(vcNode).jwt(jwt).build();
+          endorsementInspections.add(
+              () -> endorsementInspector.run(resource, Map.of(CREDENTIAL_KEY, endorsement)));
+        }
+      } finally {
+        // verify the endorsements read before any unreadable one, as a serial run would have
+        accumulator.addAll(runSubInspections(endorsementInspections, false));
       }
 
     } catch (Exception e) {
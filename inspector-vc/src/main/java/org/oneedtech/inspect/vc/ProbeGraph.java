@@ -0,0 +1,230 @@
+package org.oneedtech.inspect.vc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import org.oneedtech.inspect.core.report.ReportItems;
+import org.oneedtech.inspect.vc.util.InspectorExecutor;
+
+/**
+ * The probes of an inspection, in report order, with the probes each one depends on.
+ * Run serially, probes run in report order. Run in parallel, each probe starts on the
+ * InspectorExecutor as soon as the probes it depends on have completed. Either way,
+ * results are added to the report in report order and fail-fast checks apply in that
+ * order, so the report and probe count are those of a serial run. Once a check fails,
+ * probes that have not started yet are skipped. A probe may still start while a probe
+ * before it, that is not one of its dependencies, is running, so probes with side effects
+ * should be {@link Node#ordered() ordered}.
+ */
+public class ProbeGraph {
+	private final boolean parallel;
+	private final List<Node> nodes = new ArrayList<>();
+
+	/**
+	 * @param parallel whether to run independent probes concurrently
+	 */
+	public ProbeGraph(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Add a probe, after the probes added before it in the report.
+	 *
+	 * @param dependencies probes, added before, that must complete before this one starts
+	 */
+	public Node add(Step step, Node... dependencies) {
+		for (Node dependency : dependencies) {
+			if (!nodes.contains(dependency)) {
+				throw new IllegalArgumentException("Dependencies must be added first");
+			}
+		}
+		Node node = new Node(step, List.of(dependencies));
+		nodes.add(node);
+		return node;
+	}
+
+	/**
+	 * Run the probes, adding their results to the accumulator.
+	 *
+	 * @param broken whether the accumulated results end the inspection
+	 */
+	public Result run(List<ReportItems> accumulator, Predicate<List<ReportItems>> broken) {
+		if (parallel && nodes.size() > 1 && !InspectorExecutor.isWorker()) {
+			return runParallel(accumulator, broken);
+		}
+		Result result = new Result();
+		for (Node node : nodes) {
+			if (node.counted) result.probeCount++;
+			ReportItems items;
+			try {
+				items = node.step.run();
+			} catch (Exception e) {
+				result.failure = e;
+				return result;
+			}
+			if (items != null) accumulator.add(items);
+			if (node.checked && broken.test(accumulator)) {
+				result.stopped = true;
+				return result;
+			}
+		}
+		return result;
+	}
+
+	private Result runParallel(List<ReportItems> accumulator, Predicate<List<ReportItems>> broken) {
+		AtomicBoolean cancelled = new AtomicBoolean();
+		Map<Node, CompletableFuture<ReportItems>> futures = new ConcurrentHashMap<>();
+		for (Node node : nodes) {
+			CompletableFuture<?>[] dependencies = (node.ordered ? nodes.subList(0, nodes.indexOf(node)) : node.dependencies).stream()
+					.map(futures::get)
+					.toArray(CompletableFuture<?>[]::new);
+			futures.put(node, CompletableFuture.allOf(dependencies).thenApplyAsync(ignored -> {
+				if (cancelled.get() || isBroken(node, futures, broken)) {
+					throw new CancellationException();
+				}
+				try {
+					return node.step.run();
+				} catch (Exception e) {
+					throw new CompletionException(e);
+				}
+			}, InspectorExecutor.getExecutor()));
+		}
+
+		Result result = new Result();
+		try {
+			for (Node node : nodes) {
+				if (node.counted) result.probeCount++;
+				ReportItems items;
+				try {
+					items = futures.get(node).get();
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof Error) throw (Error) e.getCause();
+					result.failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+					return result;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					result.failure = e;
+					return result;
+				}
+				if (items != null) accumulator.add(items);
+				if (node.checked && broken.test(accumulator)) {
+					result.stopped = true;
+					return result;
+				}
+			}
+			return result;
+		} finally {
+			cancelled.set(true);
+		}
+	}
+
+	/**
+	 * Whether a serial run would stop before the given node, as far as the probes before it
+	 * that have completed tell. Their results are checked in report order up to the first
+	 * probe still running, and past it each completed probe is checked on its own.
+	 */
+	private boolean isBroken(Node node, Map<Node, CompletableFuture<ReportItems>> futures,
+			Predicate<List<ReportItems>> broken) {
+		List<ReportItems> preceding = new ArrayList<>();
+		boolean inOrder = true;
+		for (Node before : nodes) {
+			if (before == node) break;
+			CompletableFuture<ReportItems> future = futures.get(before);
+			if (!future.isDone()) {
+				inOrder = false;
+				continue;
+			}
+			// a serial run would have ended on the failure
+			if (future.isCompletedExceptionally()) return true;
+			ReportItems items = future.join();
+			if (inOrder) {
+				if (items != null) preceding.add(items);
+				if (before.checked && broken.test(preceding)) return true;
+			} else if (before.checked && items != null && broken.test(List.of(items))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A probe run, returning its results or null if there are none to report.
+	 */
+	@FunctionalInterface
+	public interface Step {
+		ReportItems run() throws Exception;
+	}
+
+	public static final class Node {
+		private final Step step;
+		private final List<Node> dependencies;
+		private boolean checked = true;
+		private boolean counted = true;
+		private boolean ordered = false;
+
+		private Node(Step step, List<Node> dependencies) {
+			this.step = step;
+			this.dependencies = dependencies;
+		}
+
+		/**
+		 * Do not end the inspection if the results are broken after this probe.
+		 */
+		public Node unchecked() {
+			this.checked = false;
+			return this;
+		}
+
+		/**
+		 * Do not count this probe in the probe count.
+		 */
+		public Node uncounted() {
+			this.counted = false;
+			return this;
+		}
+
+		/**
+		 * Start this probe only once every probe before it has completed, and only if a serial
+		 * run would get to it.
+		 */
+		public Node ordered() {
+			this.ordered = true;
+			return this;
+		}
+	}
+
+	public static final class Result {
+		private int probeCount;
+		private boolean stopped;
+		private Exception failure;
+
+		/**
+		 * The number of probes counted up to where the run ended.
+		 */
+		public int getProbeCount() {
+			return probeCount;
+		}
+
+		/**
+		 * Whether the run ended on a failed check.
+		 */
+		public boolean isStopped() {
+			return stopped;
+		}
+
+		/**
+		 * Throw the exception the run ended on, if any.
+		 */
+		public void throwIfFailed() throws Exception {
+			if (failure != null) throw failure;
+		}
+	}
+}
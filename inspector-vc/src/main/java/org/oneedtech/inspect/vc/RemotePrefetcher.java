@@ -0,0 +1,158 @@
+package org.oneedtech.inspect.vc;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oneedtech.inspect.core.probe.RunContext;
+import org.oneedtech.inspect.core.probe.json.JsonSchemaProbe;
+import org.oneedtech.inspect.vc.probe.ExternalProofProbe;
+import org.oneedtech.inspect.vc.probe.did.DidResolver;
+import org.oneedtech.inspect.vc.status.bitstring.BitstringStatusListCache;
+import org.oneedtech.inspect.vc.status.revocation.RevocationListCache;
+import org.oneedtech.inspect.vc.util.JsonNodeUtil;
+
+import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Starts fetching the remote resources a parsed credential refers to, all at
+ * once, so that the probes needing them later find them in the shared caches:
+ * its @context documents, the verification methods of its proofs, the key its
+ * jwt kid refers to, its revocation and status lists, and its inline
+ * credentialSchema ids. Failures are ignored; the probes fetch again and report
+ * them.
+ *
+ * <p>Fetches run on a small pool of their own, since nothing waits for them,
+ * rather than on the InspectorExecutor that probes and sub-inspections wait on.
+ * Status list credentials are only fetched, not verified: the probe verifies
+ * them, sharing the request of a prefetch still in flight.</p>
+ *
+ * <p>A refreshService is not prefetched, since the refreshed credential is
+ * loaded as a new inspection input rather than through a shared cache.</p>
+ */
+public final class RemotePrefetcher {
+	private static final String INLINE_SCHEMA_TYPE = "1EdTechJsonSchemaValidator2019";
+
+	private RemotePrefetcher() {}
+
+	/**
+	 * Start prefetching the remote resources of the given credential.
+	 *
+	 * @param loader the document loader to fetch documents with
+	 * @param didResolver the resolver the probes resolve DIDs with, or null to
+	 *     leave out DIDs
+	 * @param streamRevocationLists whether 1EdTechRevocationLists are searched
+	 *     while reading rather than cached, in which case they are left out
+	 * @return a future completing once all fetches have completed
+	 */
+	public static CompletableFuture<Void> start(VerifiableCredential crd, RunContext ctx,
+			DocumentLoader loader, DidResolver didResolver, boolean streamRevocationLists) {
+		Map<String, Fetch> fetches = new LinkedHashMap<>();
+		JsonNode json = crd.getJson();
+
+		// @context
+		for (JsonNode context : nodes(json, "@context")) {
+			URI uri = httpUri(context);
+			if (uri != null) {
+				fetches.putIfAbsent(uri.toString(), () -> loader.loadDocument(uri, new DocumentLoaderOptions()));
+			}
+		}
+
+		// verification methods
+		for (JsonNode proof : nodes(json, "proof")) {
+			JsonNode method = proof.get("verificationMethod");
+			URI uri = httpUri(method);
+			if (uri != null) {
+				fetches.putIfAbsent(uri.toString(), () -> loader.loadDocument(uri, new DocumentLoaderOptions()));
+			} else if (didResolver != null && method != null && method.isTextual() && method.textValue().startsWith("did:")) {
+				URI did = toUri(method.textValue());
+				if (did != null) {
+					fetches.putIfAbsent(did.toString(), () -> didResolver.resolve(did, loader));
+				}
+			}
+		}
+
+		// jwt kid
+		if (crd.getJwt().isPresent()) {
+			fetches.put("kid", () -> new ExternalProofProbe(false).prefetchKey(crd, ctx));
+		}
+
+		// revocation and status lists
+		for (JsonNode status : nodes(json, "credentialStatus")) {
+			String type = status.path("type").asText().strip();
+			if (type.equals("1EdTechRevocationList") && !streamRevocationLists) {
+				URI uri = toUri(status.path("id").asText().strip());
+				if (uri != null) {
+					fetches.putIfAbsent(uri.toString(), () -> RevocationListCache.get(uri));
+				}
+			} else if (type.equals("BitstringStatusListEntry")
+					&& status.path("statusPurpose").asText().strip().equals("revocation")
+					&& status.hasNonNull("statusListCredential")) {
+				String url = status.get("statusListCredential").asText();
+				URI uri = httpUri(status.get("statusListCredential"));
+				if (uri != null && BitstringStatusListCache.get(url).isEmpty()) {
+					fetches.putIfAbsent(url, () -> BitstringStatusListCache.getCredential(uri));
+				}
+			}
+		}
+
+		// inline schemas
+		ObjectMapper mapper = (ObjectMapper) ctx.get(RunContext.Key.JACKSON_OBJECTMAPPER);
+		for (JsonNode schema : nodes(json, "credentialSchema")) {
+			if (!INLINE_SCHEMA_TYPE.equals(schema.path("type").asText()) || !schema.hasNonNull("id")) continue;
+			String id = schema.get("id").asText().strip();
+			// validating an empty object loads the schema into the JsonSchemaCache
+			fetches.putIfAbsent(id, () -> new JsonSchemaProbe(id).run(mapper.createObjectNode(), ctx));
+		}
+
+		CompletableFuture<?>[] futures = fetches.entrySet().stream()
+				.map(entry -> CompletableFuture.runAsync(() -> {
+					try {
+						entry.getValue().run();
+					} catch (Exception e) {
+						logger.debug("Prefetch of {} failed: {}", entry.getKey(), e.getMessage());
+					}
+				}, executor))
+				.toArray(CompletableFuture<?>[]::new);
+		return CompletableFuture.allOf(futures);
+	}
+
+	private static List<JsonNode> nodes(JsonNode json, String property) {
+		JsonNode node = json.get(property);
+		return node == null ? List.of() : JsonNodeUtil.asNodeList(node);
+	}
+
+	private static URI httpUri(JsonNode node) {
+		if (node == null || !node.isTextual()) return null;
+		URI uri = toUri(node.textValue());
+		if (uri == null) return null;
+		return "http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()) ? uri : null;
+	}
+
+	private static URI toUri(String value) {
+		try {
+			return new URI(value);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	@FunctionalInterface
+	private interface Fetch {
+		void run() throws Exception;
+	}
+
+	private static final ExecutorService executor = Executors.newFixedThreadPool(4,
+			new ThreadFactoryBuilder().setDaemon(true).setNameFormat("inspector-prefetch-%d").build());
+	private static final Logger logger = LogManager.getLogger();
+}
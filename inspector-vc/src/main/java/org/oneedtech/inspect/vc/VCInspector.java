@@ -2,14 +2,16 @@ package org.oneedtech.inspect.vc;
 
 import static java.lang.Boolean.TRUE;
 import static java.util.stream.Collectors.toList;
-import static org.oneedtech.inspect.vc.util.JsonNodeUtil.asStringList;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Spliterators;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
 
 import org.oneedtech.inspect.core.Inspector;
 import org.oneedtech.inspect.core.probe.Outcome;
@@ -17,12 +19,20 @@ import org.oneedtech.inspect.core.probe.Probe;
 import org.oneedtech.inspect.core.probe.RunContext;
 import org.oneedtech.inspect.core.report.Report;
 import org.oneedtech.inspect.core.report.ReportItems;
+import org.oneedtech.inspect.schema.JsonSchemaCache;
 import org.oneedtech.inspect.util.code.Tuple;
+import org.oneedtech.inspect.vc.jsonld.JsonLdNodeCache;
 import org.oneedtech.inspect.vc.jsonld.probe.ExtensionProbe;
+import org.oneedtech.inspect.vc.probe.ExternalProofProbe;
+import org.oneedtech.inspect.vc.probe.ProofVerificationCache;
+import org.oneedtech.inspect.vc.probe.did.DidDocumentCache;
+import org.oneedtech.inspect.vc.probe.did.LocalDidDocuments;
 import org.oneedtech.inspect.vc.resource.DefaultJsonLDUriResourceFactory;
 import org.oneedtech.inspect.vc.resource.UriResourceFactory;
+import org.oneedtech.inspect.vc.status.bitstring.BitstringStatusListCache;
+import org.oneedtech.inspect.vc.status.revocation.RevocationListCache;
 import org.oneedtech.inspect.vc.util.CachingDocumentLoader;
-import org.oneedtech.inspect.vc.util.JsonNodeUtil;
+import org.oneedtech.inspect.vc.util.InspectorExecutor;
 
 import com.apicatalog.jsonld.loader.DocumentLoader;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -32,9 +42,51 @@ import com.fasterxml.jackson.databind.JsonNode;
  * @author mgylling
  */
 public abstract class VCInspector extends Inspector {
+	protected final LocalDidDocuments localDidDocuments;
+	private final Map<String, Object> injections = new HashMap<>();
 
 	protected <B extends VCInspector.Builder<?>> VCInspector(B builder) {
 		super(builder);
+		this.localDidDocuments = getLocalDidDocuments(builder);
+		for (String key : INHERITED_INJECTIONS) {
+			builder.getInjected(key).ifPresent(value -> injections.put(key, value));
+		}
+		if (localDidDocuments != null) {
+			injections.put(InjectionKeys.LOCAL_DID_DOCUMENTS, localDidDocuments);
+		}
+	}
+
+	/**
+	 * Configure the builder of an inspector for embedded credentials with the VCInspector
+	 * behaviors and injections of this inspector, so that the embedded credentials are
+	 * verified the way this one is.
+	 */
+	protected <B extends VCInspector.Builder<B>> B configureSubInspector(B builder) {
+		for (String behavior : INHERITED_BEHAVIORS) {
+			Boolean value = getBehavior(behavior);
+			if (value != null) {
+				builder.set(behavior, value);
+			}
+		}
+		injections.forEach(builder::inject);
+		return builder;
+	}
+
+	/**
+	 * Get the local DID documents injected as a LocalDidDocuments instance, or as
+	 * the path of a directory or bundle file, if any.
+	 */
+	private static LocalDidDocuments getLocalDidDocuments(VCInspector.Builder<?> builder) {
+		Optional<Object> injected = builder.getInjected(InjectionKeys.LOCAL_DID_DOCUMENTS);
+		if (injected.isEmpty()) {
+			return null;
+		}
+		if (injected.get() instanceof LocalDidDocuments) {
+			return (LocalDidDocuments) injected.get();
+		}
+		Optional<Object> refresh = builder.getInjected(InjectionKeys.LOCAL_DID_DOCUMENTS_REFRESH);
+		return LocalDidDocuments.shared(Path.of(injected.get().toString()),
+				refresh.map(interval -> Duration.parse(interval.toString())).orElse(null));
 	}
 
 	protected Report abort(RunContext ctx, List<ReportItems> accumulator, int probeCount) {
@@ -55,6 +107,32 @@ public abstract class VCInspector extends Inspector {
 		return false;
 	}
 
+	/**
+	 * Run the given sub-inspections, concurrently if PARALLEL_SUB_INSPECTIONS is set,
+	 * and return their reports in order. Inspections may return null to be left out.
+	 *
+	 * @param stopWhenBroken whether to stop after the first broken report
+	 */
+	protected List<Report> runSubInspections(List<Callable<Report>> inspections, boolean stopWhenBroken) throws Exception {
+		Predicate<Report> stop = stopWhenBroken ? this::brokenReport : null;
+		if (getBehavior(Behavior.PARALLEL_SUB_INSPECTIONS) == TRUE) {
+			return InspectorExecutor.invokeAll(inspections, stop)
+					.stream().filter(report -> report != null).collect(toList());
+		}
+		List<Report> reports = new ArrayList<>();
+		for (Callable<Report> inspection : inspections) {
+			Report report = inspection.call();
+			if (report == null) continue;
+			reports.add(report);
+			if (stop != null && stop.test(report)) break;
+		}
+		return reports;
+	}
+
+	private boolean brokenReport(Report report) {
+		return report != null && broken(List.of(report));
+	}
+
 	/**
 	 * If the AchievementCredential or EndorsementCredential has a “refreshService” property and the type of the
 	 * RefreshService object is “1EdTechCredentialRefresh”, you should fetch the refreshed credential from the URL
@@ -75,6 +153,24 @@ public abstract class VCInspector extends Inspector {
 		return Optional.empty();
 	}
 
+	/**
+	 * Clear the shared caches of documents, schemas, status lists, DID documents, keys and
+	 * proof verifications, if the RESET_CACHES_ON_RUN behavior is set. Called at the start
+	 * of a run.
+	 */
+	protected void resetCaches() {
+		if (getBehavior(Inspector.Behavior.RESET_CACHES_ON_RUN) == TRUE) {
+			JsonSchemaCache.reset();
+			CachingDocumentLoader.reset();
+			JsonLdNodeCache.reset();
+			BitstringStatusListCache.reset();
+			RevocationListCache.reset();
+			DidDocumentCache.reset();
+			ProofVerificationCache.reset();
+			ExternalProofProbe.reset();
+		}
+	}
+
 	/**
 	 * Creates a caching document loader for loading json resources
 	 * @return document loader for loading json resources
@@ -88,47 +184,27 @@ public abstract class VCInspector extends Inspector {
 	}
 
 	protected List<Tuple<ExtensionProbe, JsonNode>> getExtensionProbes(JsonNode node, String entryPath) {
-		List<Tuple<ExtensionProbe, JsonNode>> probes = new ArrayList<>();
-		if (!node.isObject()) {
-			return probes;
-		}
-
-		if (node.has("type")) {
-			List<String> types = asStringList(node.get("type"));
-
-			// only validate extension types
-			if (types.contains("Extension")) {
-				List<String> typesToTest = types.stream().filter(type -> !type.equals("Extension")).collect(toList());
-				// add an extension Probe
-				probes.add(new Tuple<ExtensionProbe,JsonNode>(new ExtensionProbe(entryPath, typesToTest), node));
-			}
-		}
-
+		return getExtensionProbes(CredentialTree.of(node), entryPath);
+	}
 
-		probes.addAll(StreamSupport
-			.stream(Spliterators.spliteratorUnknownSize(node.fields(), 0), false)
-			.filter(e -> !e.getKey().equals("id") && !e.getKey().equals("type"))
-			.flatMap(entry -> {
-				if (entry.getValue().isArray()) {
-					// recursive call
-					List<JsonNode> childNodes = JsonNodeUtil.asNodeList(entry.getValue());
-					List<Tuple<ExtensionProbe, JsonNode>> subProbes = new ArrayList<>();
-					for (int i = 0; i < childNodes.size(); i++) {
-						JsonNode childNode = childNodes.get(i);
-						subProbes.addAll(getExtensionProbes(childNode, entryPath + "." + entry.getKey() + "[" + i + "]"));
-					}
-					return subProbes.stream();
-				} else {
-					return getExtensionProbes(entry.getValue(), entryPath + "." + entry.getKey()).stream();
-				}
-			})
-			.collect(Collectors.toList())
-		);
-		return probes;
+	protected List<Tuple<ExtensionProbe, JsonNode>> getExtensionProbes(CredentialTree tree, String entryPath) {
+		return tree.getExtensions().stream()
+			.map(extension -> new Tuple<ExtensionProbe,JsonNode>(new ExtensionProbe(entryPath + extension.getPath(), extension.getTypes()), extension.getNode()))
+			.collect(toList());
 	}
 
     protected static final String REFRESHED = "is.refreshed.credential";
 
+	private static final List<String> INHERITED_BEHAVIORS = List.of(Behavior.STREAM_REVOCATION_LISTS,
+			Behavior.PARALLEL_SUB_INSPECTIONS, Behavior.PARALLEL_PROBES, Behavior.PREFETCH_REMOTE_RESOURCES,
+			Behavior.CACHE_PROOF_VERIFICATIONS);
+	// LOCAL_DID_DOCUMENTS is passed on as the instance it resolved to
+	private static final List<String> INHERITED_INJECTIONS = List.of(Inspector.InjectionKeys.DID_RESOLUTION_SERVICE_URL,
+			InjectionKeys.VNF_CONFIG, InjectionKeys.VNF_REGISTRY, InjectionKeys.VNF_RPC_URL,
+			InjectionKeys.VNF_RPC_OAUTH_ENDPOINT, InjectionKeys.VNF_RPC_OAUTH_CLIENT_ID,
+			InjectionKeys.VNF_RPC_OAUTH_CLIENT_SECRET, InjectionKeys.VNF_PRIVATE_KEY,
+			InjectionKeys.VNF_CONTACT_ADDRESS, InjectionKeys.VNF_BURNER_DID);
+
 	public abstract static class Builder<B extends VCInspector.Builder<B>> extends Inspector.Builder<B> {
 		final List<Probe<VerifiableCredential>> probes;
 
@@ -149,6 +225,39 @@ public abstract class VCInspector extends Inspector {
 		}
 	}
 
+	public static class Behavior extends Inspector.Behavior {
+		/**
+		 * Whether to search 1EdTechRevocationLists while downloading them, stopping at
+		 * the first match, instead of caching an index of each list. Keeps memory flat
+		 * for very large lists.
+		 */
+		public static final String STREAM_REVOCATION_LISTS = "STREAM_REVOCATION_LISTS";
+		/**
+		 * Whether to verify the credentials and endorsements embedded in a credential
+		 * concurrently, on the InspectorExecutor. Reports and probe counts are the same
+		 * as when verifying them one after another.
+		 */
+		public static final String PARALLEL_SUB_INSPECTIONS = "PARALLEL_SUB_INSPECTIONS";
+		/**
+		 * Whether to run the independent probes of a credential concurrently, on the
+		 * InspectorExecutor. Reports and probe counts are the same as when running them
+		 * one after another.
+		 */
+		public static final String PARALLEL_PROBES = "PARALLEL_PROBES";
+		/**
+		 * Whether to start fetching the remote resources of a credential, such as its
+		 * contexts, verification methods and status lists, as soon as it is parsed,
+		 * so that the probes find them cached.
+		 */
+		public static final String PREFETCH_REMOTE_RESOURCES = "PREFETCH_REMOTE_RESOURCES";
+		/**
+		 * Whether to skip the canonicalization and signature verification of embedded
+		 * proofs that have been verified before, see ProofVerificationCache. Expiration
+		 * and status are still checked on every run.
+		 */
+		public static final String CACHE_PROOF_VERIFICATIONS = "CACHE_PROOF_VERIFICATIONS";
+	}
+
 	public static class InjectionKeys {
    		public static final String VNF_CONFIG = "VNF_CONFIG";
 		public static final String VNF_REGISTRY = "VNF_REGISTRY";
@@ -159,5 +268,15 @@ public abstract class VCInspector extends Inspector {
 		public static final String VNF_PRIVATE_KEY = "VNF_PRIVATE_KEY";
 		public static final String VNF_CONTACT_ADDRESS = "VNF_CONTACT_ADDRESS";
 		public static final String VNF_BURNER_DID = "VNF_BURNER_DID";
+		/**
+		 * DID documents to resolve DIDs from before using the network: a LocalDidDocuments
+		 * instance, or the path of a directory or bundle file of DID documents.
+		 */
+		public static final String LOCAL_DID_DOCUMENTS = "LOCAL_DID_DOCUMENTS";
+		/**
+		 * How often to reload the DID documents of a LOCAL_DID_DOCUMENTS path, as an
+		 * ISO-8601 duration such as PT15M. Not reloaded if absent.
+		 */
+		public static final String LOCAL_DID_DOCUMENTS_REFRESH = "LOCAL_DID_DOCUMENTS_REFRESH";
 	}
 }
\ No newline at end of file
@@ -1,12 +1,12 @@
 package org.oneedtech.inspect.vc;
 
-import java.io.StringReader;
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
 import org.oneedtech.inspect.vc.jsonld.JsonLDObjectUtils;
 import org.oneedtech.inspect.vc.util.CachingDocumentLoader;
+import org.oneedtech.inspect.vc.util.JsonNodeBridge;
 
 import com.danubetech.dataintegrity.DataIntegrityProof;
 
@@ -27,11 +27,11 @@ public class W3CVCHolder {
         switch (credential.version) {
             case VCDMv1p1:
                 this.credential = com.danubetech.verifiablecredentials.VerifiableCredential
-				    .fromJson(new StringReader(credential.getJson().toString()));
+				    .fromJsonObject(JsonNodeBridge.toMap(credential.getJson()));
                 break;
             case VCDMv2p0:
                 this.credential = com.danubetech.verifiablecredentials.VerifiableCredentialV2
-                    .fromJson(new StringReader(credential.getJson().toString()));
+                    .fromJsonObject(JsonNodeBridge.toMap(credential.getJson()));
                 break;
             default:
                 throw new IllegalArgumentException("Unsupported version: " + credential.version);
@@ -0,0 +1,110 @@
+package org.oneedtech.inspect.vc.jsonld;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.oneedtech.inspect.vc.util.CachingDocumentLoader;
+
+import com.apicatalog.jsonld.JsonLd;
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.JsonLdOptions;
+import com.apicatalog.jsonld.context.ActiveContext;
+import com.apicatalog.jsonld.context.cache.Cache;
+import com.apicatalog.jsonld.document.JsonDocument;
+import com.apicatalog.jsonld.http.media.MediaType;
+import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.apicatalog.rdf.RdfDataset;
+import com.google.common.cache.CacheBuilder;
+
+import foundation.identity.jsonld.JsonLDException;
+import foundation.identity.jsonld.JsonLDObject;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
+/**
+ * A threadsafe cache of processed JSON-LD contexts, shared by the expansion,
+ * compaction and toRDF calls made by the inspectors.
+ * <p>
+ * Titanium keys a processed context by its remote context url, but the processed
+ * context also holds every context processed before it and the base iri of the
+ * document. Entries are therefore shared only between calls with the same scope,
+ * that is the same base iri and the same ordered @context values, so all the
+ * credentials declaring e.g. the v2, CLR and OB contexts share one processing.
+ */
+public class JsonLdContextCache {
+	private static final com.google.common.cache.Cache<String, ActiveContext> cache = CacheBuilder.newBuilder()
+			.maximumSize(256).expireAfterWrite(Duration.ofHours(24)).build();
+
+	private JsonLdContextCache() {}
+
+	/**
+	 * Create JsonLdOptions using the given document loader and the contexts cached
+	 * for the given scope.
+	 * @param scope the base iri and ordered @context values of the call, compared by
+	 * their string form
+	 */
+	public static JsonLdOptions options(DocumentLoader documentLoader, Object... scope) {
+		JsonLdOptions options = new JsonLdOptions(documentLoader);
+		options.setContextCache(new Scope(Arrays.toString(scope)));
+		return options;
+	}
+
+	/**
+	 * Convert a JSON-LD object to an RDF dataset, as {@link JsonLDObject#toDataset()}
+	 * does, but using the shared context cache.
+	 */
+	public static RdfDataset toDataset(JsonLDObject jsonLDObject) throws JsonLDException {
+		DocumentLoader documentLoader = jsonLDObject.getDocumentLoader() != null
+				? jsonLDObject.getDocumentLoader()
+				: new CachingDocumentLoader();
+		JsonObject jsonObject = Json.createObjectBuilder(jsonLDObject.getJsonObject()).build();
+		JsonLdOptions options = options(documentLoader, jsonObject.get("@context"));
+		options.setOrdered(true);
+		JsonDocument jsonDocument = JsonDocument.of(MediaType.JSON_LD, jsonObject);
+		try {
+			return JsonLd.toRdf(jsonDocument).options(options).get();
+		} catch (JsonLdError e) {
+			throw new JsonLDException(e);
+		}
+	}
+
+	public static void reset() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * The view of the shared cache used by a single call. Titanium calls containsKey
+	 * before get, so the entries seen by the call are kept locally and an eviction
+	 * in between does not lose them.
+	 */
+	private static final class Scope implements Cache<String, ActiveContext> {
+		private final String scope;
+		private final Map<String, ActiveContext> seen = new HashMap<>();
+
+		Scope(String scope) {
+			this.scope = scope;
+		}
+
+		@Override
+		public boolean containsKey(String key) {
+			if (seen.containsKey(key)) return true;
+			ActiveContext context = cache.getIfPresent(scope + " " + key);
+			if (context == null) return false;
+			seen.put(key, context);
+			return true;
+		}
+
+		@Override
+		public ActiveContext get(String key) {
+			return containsKey(key) ? seen.get(key) : null;
+		}
+
+		@Override
+		public void put(String key, ActiveContext value) {
+			seen.put(key, value);
+			cache.put(scope + " " + key, value);
+		}
+	}
+}
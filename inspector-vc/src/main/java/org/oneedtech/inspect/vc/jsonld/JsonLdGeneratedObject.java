@@ -2,29 +2,39 @@ package org.oneedtech.inspect.vc.jsonld;
 
 import org.oneedtech.inspect.core.probe.GeneratedObject;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 public class JsonLdGeneratedObject extends GeneratedObject {
-    private String json;
+    private JsonNode node;
 
-    public JsonLdGeneratedObject(String json) {
-        this(ID, json);
+    public JsonLdGeneratedObject(JsonNode node) {
+        this(ID, node);
     }
 
-    public JsonLdGeneratedObject(String id, String json) {
+    public JsonLdGeneratedObject(String id, JsonNode node) {
         super(id, GeneratedObject.Type.INTERNAL);
-        this.json = json;
+        this.node = node;
+    }
+
+    /**
+     * The parsed JSON-LD. The tree may be shared with other runs, so it must not be modified:
+     * use {@link #setNode(JsonNode)} with a modified copy instead.
+     */
+    public JsonNode getNode() {
+        return node;
     }
 
     public String getJson() {
-        return json;
+        return node.toString();
     }
 
     /**
      * Update internal json. We allow this update because some validations updates JSON-LD id attributes with
      * autogenerated ones
-     * @param json
+     * @param node
      */
-    public void setJson(String json) {
-        this.json = json;
+    public void setNode(JsonNode node) {
+        this.node = node;
     }
 
     public static final String ID = JsonLdGeneratedObject.class.getCanonicalName();
@@ -0,0 +1,76 @@
+package org.oneedtech.inspect.vc.jsonld;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.oneedtech.inspect.vc.util.DocumentStore;
+import org.oneedtech.inspect.vc.util.HttpCache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A threadsafe static cache of hosted Open Badges 2.0 graph nodes, such as
+ * BadgeClasses, Issuer profiles and RevocationLists, keyed by url. Nodes are
+ * revalidated according to their HTTP caching headers, see {@link HttpCache}.
+ * The compacted forms of a node are kept with it, so that they are computed
+ * once per version of the hosted document: a 304 response keeps them, new
+ * content starts over.
+ */
+public class JsonLdNodeCache {
+	private static final HttpCache<Node> nodes = new HttpCache<>(Node::new,
+			"application/ld+json, application/json;q=0.9, */*;q=0.1",
+			1024, Duration.ofMinutes(5));
+
+	/**
+	 * Get the node at the given http or https url, fetching or revalidating it if necessary.
+	 */
+	public static Node get(URI url) throws IOException {
+		return nodes.get(url);
+	}
+
+	/**
+	 * Back the cache with the given persistent store, or with none if null.
+	 */
+	public static void setDocumentStore(DocumentStore store) {
+		nodes.setStore(store);
+		nodes.invalidateAll();
+	}
+
+	public static void reset() {
+		nodes.invalidateAll();
+	}
+
+	/**
+	 * A hosted node: its content as served, and its compacted forms by compaction context.
+	 * The compacted forms are shared across runs and must not be modified.
+	 */
+	public static final class Node {
+		private final String content;
+		private final Map<String, JsonNode> compacted = new ConcurrentHashMap<>();
+
+		Node(byte[] content) {
+			this.content = new String(content, UTF_8);
+		}
+
+		public String getContent() {
+			return content;
+		}
+
+		/**
+		 * The node compacted against the given context, if it has been.
+		 */
+		public Optional<JsonNode> getCompacted(String context) {
+			return Optional.ofNullable(compacted.get(context));
+		}
+
+		public void putCompacted(String context, JsonNode node) {
+			compacted.put(context, node);
+		}
+	}
+}
@@ -3,7 +3,6 @@ package org.oneedtech.inspect.vc.jsonld.probe;
 import static java.util.stream.Collectors.joining;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.net.URI;
 import java.util.HashSet;
 import java.util.List;
@@ -14,7 +13,9 @@ import org.oneedtech.inspect.core.probe.RunContext;
 import org.oneedtech.inspect.core.probe.RunContext.Key;
 import org.oneedtech.inspect.core.probe.json.JsonSchemaProbe;
 import org.oneedtech.inspect.core.report.ReportItems;
+import org.oneedtech.inspect.vc.jsonld.JsonLdContextCache;
 import org.oneedtech.inspect.vc.util.CachingDocumentLoader;
+import org.oneedtech.inspect.vc.util.JsonNodeBridge;
 import org.oneedtech.inspect.vc.util.JsonNodeUtil;
 
 import com.apicatalog.jsonld.JsonLd;
@@ -69,14 +70,14 @@ public class ExtensionProbe extends Probe<JsonNode> {
 		ObjectMapper mapper = (ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER);
 		for (URI uri : contexts) {
 			if (!uri.equals(ob20contextUri)) {
-				JsonLdOptions options = new JsonLdOptions(documentLoader);
+				JsonLdOptions options = JsonLdContextCache.options(documentLoader, uri);
                 Document contextDocument = documentLoader.loadDocument(uri, new DocumentLoaderOptions());
-                JsonNode contextJson = mapper.readTree(contextDocument.getJsonContent().orElseThrow().toString());
+                JsonNode contextJson = JsonNodeBridge.toJsonNode(contextDocument.getJsonContent().orElseThrow(), mapper);
 
 				JsonObject compactedContext = JsonLd.compact(uri, "https://w3id.org/openbadges/v2")
 					.options(options)
 					.get();
-				JsonNode context = mapper.readTree(compactedContext.toString());
+				JsonNode context = JsonNodeBridge.toJsonNode(compactedContext, mapper);
 				// validation is an optional property
 				if (!context.has("validation")) {
 					continue;
@@ -90,7 +91,7 @@ public class ExtensionProbe extends Probe<JsonNode> {
                             schemaUri = new URI(validation.get("validationSchema").asText().strip());
 							// check schema is valid
 							Document schemaDocument = documentLoader.loadDocument(schemaUri, new DocumentLoaderOptions());
-							schemaJson = mapper.readTree(schemaDocument.getJsonContent().orElseThrow().toString());
+							schemaJson = JsonNodeBridge.toJsonNode(schemaDocument.getJsonContent().orElseThrow(), mapper);
 						} catch (Exception e) {
 							return fatal("Could not load JSON-schema from URL " + schemaUri, ctx);
 						}
@@ -134,14 +135,14 @@ public class ExtensionProbe extends Probe<JsonNode> {
         // combine contexts
         JsonDocument contextsDocument = combineContexts(context);
 
-        JsonObject compactedObject = JsonLd.compact(JsonDocument.of(new StringReader(merged.toString())), contextsDocument)
+        JsonObject compactedObject = JsonLd.compact(JsonDocument.of(JsonNodeBridge.asJsonStructure(merged)), contextsDocument)
             .options(options)
             .get();
 
         // schema probe on compactedObject and schema
         JsonSchemaFactory factory = JsonSchemaFactory.getInstance(VersionFlag.V4);
         JsonSchema schema = factory.getSchema(schemaUri, schemaJson);
-        return new JsonSchemaProbe(schema).run(mapper.readTree(compactedObject.toString()), ctx);
+        return new JsonSchemaProbe(schema).run(JsonNodeBridge.toJsonNode(compactedObject, mapper), ctx);
 	}
 
     private JsonDocument combineContexts(JsonNode context) {
@@ -152,7 +153,7 @@ public class ExtensionProbe extends Probe<JsonNode> {
             if (contextNode.isTextual()) {
                 contextArrayBuilder.add(contextNode.asText().strip());
             } else if (contextNode.isObject() && contextNode.hasNonNull("@context")) {
-                contextArrayBuilder.add(Json.createReader(new StringReader(contextNode.get("@context").toString())).readObject());
+                contextArrayBuilder.add(JsonNodeBridge.asJsonObject(contextNode.get("@context")));
 
             }
         }
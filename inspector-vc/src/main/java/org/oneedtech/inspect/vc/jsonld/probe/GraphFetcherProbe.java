@@ -1,14 +1,19 @@
 package org.oneedtech.inspect.vc.jsonld.probe;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.oneedtech.inspect.vc.Assertion.ValueType.DATA_URI_OR_URL;
 
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.regex.Matcher;
+import java.util.concurrent.Callable;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -19,23 +24,28 @@ import org.oneedtech.inspect.core.probe.Probe;
 import org.oneedtech.inspect.core.probe.RunContext;
 import org.oneedtech.inspect.core.probe.RunContext.Key;
 import org.oneedtech.inspect.core.report.ReportItems;
+import org.oneedtech.inspect.util.resource.Resource;
+import org.oneedtech.inspect.util.resource.ResourceType;
+import org.oneedtech.inspect.util.resource.StringResource;
 import org.oneedtech.inspect.util.resource.UriResource;
 import org.oneedtech.inspect.vc.Assertion;
 import org.oneedtech.inspect.vc.Assertion.Type;
 import org.oneedtech.inspect.vc.Assertion.ValueType;
 import org.oneedtech.inspect.vc.Validation;
 import org.oneedtech.inspect.vc.jsonld.JsonLdGeneratedObject;
+import org.oneedtech.inspect.vc.jsonld.JsonLdNodeCache;
 import org.oneedtech.inspect.vc.probe.CredentialParseProbe;
 import org.oneedtech.inspect.vc.resource.UriResourceFactory;
 import org.oneedtech.inspect.vc.util.CachingDocumentLoader;
+import org.oneedtech.inspect.vc.util.InspectorExecutor;
 import org.oneedtech.inspect.vc.util.JsonNodeUtil;
 import org.oneedtech.inspect.vc.util.PrimitiveValueValidator;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.io.CharSource;
 import com.google.common.io.Resources;
 
 import foundation.identity.jsonld.ConfigurableDocumentLoader;
@@ -43,6 +53,9 @@ import foundation.identity.jsonld.ConfigurableDocumentLoader;
 /**
  * Probe for fetching all elements in the graph for Open Badges 2.0 validation
  * Contains the fetch part of "VALIDATE_TYPE_PROPERTY" task in python implementation, as well as the "FLATTEN_EMBEDDED_RESOURCE" task
+ * The graph is fetched breadth-first: the nodes referenced from one level are fetched concurrently, each uri once,
+ * and then parsed and compacted in order. Hosted nodes and their compacted forms are shared across runs through
+ * the {@link JsonLdNodeCache}.
  * @author xaracil
  */
 public class GraphFetcherProbe extends Probe<JsonNode> {
@@ -55,8 +68,40 @@ public class GraphFetcherProbe extends Probe<JsonNode> {
 
     @Override
     public ReportItems run(JsonNode root, RunContext ctx) throws Exception {
-        ReportItems result = new ReportItems();
+        // mount the graph level by level, fetching the nodes referenced from a level concurrently
+        Set<String> seen = new HashSet<>();
+        List<String> level = new ArrayList<>();
+        ReportItems result = scan(assertion, root, ctx, level);
+
+        while (!level.isEmpty()) {
+            List<UriResource> resources = new ArrayList<>();
+            for (String id : level) {
+                UriResource uriResource = ((UriResourceFactory) ctx.get(Key.URI_RESOURCE_FACTORY)).of(id);
+                if (seen.add(uriResource.getID()) && ctx.getGeneratedObject(JsonLDCompactionProbe.getId(uriResource)) == null) {
+                    resources.add(uriResource);
+                }
+            }
+
+            List<Fetched> fetched = fetch(resources);
+            List<String> next = new ArrayList<>();
+            for (int i = 0; i < resources.size(); i++) {
+                JsonLdGeneratedObject compacted = load(resources.get(i), fetched.get(i), ctx);
+                if (compacted != null) {
+                    Assertion fetchedAssertion = (Assertion) ctx.getGeneratedObject(resources.get(i).getID());
+                    scan(fetchedAssertion, compacted.getNode(), ctx, next);
+                }
+            }
+            level = next;
+        }
+
+        return result != null ? result : success("Graph fetch completed successfully", ctx);
+    }
 
+    /**
+     * Flatten the embedded resources of a node and collect the ids of the nodes it references.
+     * @return the outcome if it ends the scan of the node early, otherwise null
+     */
+    private ReportItems scan(Assertion assertion, JsonNode root, RunContext ctx, List<String> references) throws Exception {
         // get validations of IDs and fetch
         List<Validation> validations = assertion.getValidations().stream()
             .filter(validation -> validation.getType() == ValueType.ID && validation.isFetch())
@@ -82,10 +127,10 @@ public class GraphFetcherProbe extends Probe<JsonNode> {
                         // add a new node to the graph
                         UUID newId = UUID.randomUUID();
                         JsonNode merged = createNewJson(ctx, "{\"id\": \"_:" + newId + "\"}");
-                        ctx.addGeneratedObject(new JsonLdGeneratedObject(JsonLDCompactionProbe.getId(newId.toString()), merged.toString()));
+                        ctx.addGeneratedObject(new JsonLdGeneratedObject(JsonLDCompactionProbe.getId(newId.toString()), merged));
 
                         // update existing node with new id
-                        updateNode(validation, idNode, ctx);
+                        updateNode(assertion, validation, idNode, ctx);
 
                         return warning("Node id missing at " + node.toString() + ". A blank node ID has been assigned", ctx);
                     } else if (!idNode.isTextual() || !PrimitiveValueValidator.validateIri(idNode)) {
@@ -97,18 +142,18 @@ public class GraphFetcherProbe extends Probe<JsonNode> {
 
                         // add a new node to the graph
                         JsonNode merged = createNewJson(ctx, node);
-                        ctx.addGeneratedObject(new JsonLdGeneratedObject(JsonLDCompactionProbe.getId(idNode.asText().strip()), merged.toString()));
+                        ctx.addGeneratedObject(new JsonLdGeneratedObject(JsonLDCompactionProbe.getId(idNode.asText().strip()), merged));
 
                         // update existing node with new id
-                        updateNode(validation, idNode, ctx);
+                        updateNode(assertion, validation, idNode, ctx);
 
                     } else {
 
                         // update existing node with new id
-                        updateNode(validation, idNode, ctx);
+                        updateNode(assertion, validation, idNode, ctx);
 
                         // fetch node and add it to the graph
-                        result = fetchNode(ctx, result, idNode);
+                        references.add(idNode.asText().strip());
                     }
                 }
             }
@@ -117,37 +162,69 @@ public class GraphFetcherProbe extends Probe<JsonNode> {
             for (JsonNode childNode : nodeList) {
                 if (shouldFetch(childNode, validation)) {
                     // get node from context
-                    result = fetchNode(ctx, result, childNode);
+                    references.add(childNode.asText().strip());
                 }
             }
 
         }
-        return success("Graph fetch completed successfully", ctx);
+        return null;
     }
 
-    private ReportItems fetchNode(RunContext ctx, ReportItems result, JsonNode idNode)
-            throws URISyntaxException, Exception, JsonProcessingException, JsonMappingException {
-        System.out.println("fetchNode " + idNode.asText().strip());
-        UriResource uriResource = ((UriResourceFactory) ctx.get(Key.URI_RESOURCE_FACTORY)).of(idNode.asText().strip());
-        JsonLdGeneratedObject resolved = (JsonLdGeneratedObject) ctx.getGeneratedObject(JsonLDCompactionProbe.getId(uriResource));
-        if (resolved == null) {
-            System.out.println("parsing and loading " + idNode.asText().strip());
-            result = new ReportItems(List.of(result, new CredentialParseProbe().run(uriResource, ctx)));
-            if (!result.contains(Outcome.FATAL, Outcome.EXCEPTION)) {
-                Assertion fetchedAssertion = (Assertion) ctx.getGeneratedObject(uriResource.getID());
-
-                // compact ld
-                result = new ReportItems(List.of(result, new JsonLDCompactionProbe(fetchedAssertion.getCredentialType().getContextUris().get(0)).run(fetchedAssertion, ctx)));
-                if (!result.contains(Outcome.FATAL, Outcome.EXCEPTION)) {
-                    JsonLdGeneratedObject fetched = (JsonLdGeneratedObject) ctx.getGeneratedObject(JsonLDCompactionProbe.getId(fetchedAssertion));
-                    JsonNode fetchedNode = ((ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER)).readTree(fetched.getJson());
-
-                    // recursive call
-                    result = new ReportItems(List.of(result, new GraphFetcherProbe(fetchedAssertion).run(fetchedNode, ctx)));
+    /**
+     * Read the given resources concurrently. Hosted http(s) nodes of a known type are
+     * read through the {@link JsonLdNodeCache}, other resources of a known type into
+     * memory. The others, and those failing to read, are returned as given, to be read
+     * while parsing.
+     */
+    private List<Fetched> fetch(List<UriResource> resources) throws Exception {
+        List<Callable<Fetched>> reads = new ArrayList<>();
+        for (UriResource uriResource : resources) {
+            reads.add(() -> {
+                if (uriResource.getType() == null || uriResource.getType() == ResourceType.UNKNOWN) {
+                    return new Fetched(uriResource, null);
                 }
+                try {
+                    URI uri = new URI(uriResource.getID());
+                    if ("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme())) {
+                        JsonLdNodeCache.Node node = JsonLdNodeCache.get(uri);
+                        return new Fetched(new StringResource(CharSource.wrap(node.getContent()), uriResource.getID(), uriResource.getType()), node);
+                    }
+                    String content = uriResource.asByteSource().asCharSource(UTF_8).read();
+                    return new Fetched(new StringResource(CharSource.wrap(content), uriResource.getID(), uriResource.getType()), null);
+                } catch (IOException | URISyntaxException e) {
+                    return new Fetched(uriResource, null);
+                }
+            });
+        }
+        return InspectorExecutor.invokeAll(reads, null);
+    }
+
+    /**
+     * Parse and compact a fetched node, reusing the compacted form kept with a cached node.
+     * @return the compacted node, or null if it could not be loaded
+     */
+    private JsonLdGeneratedObject load(UriResource uriResource, Fetched fetched, RunContext ctx) throws Exception {
+        logger.debug("parsing and loading " + uriResource.getID());
+        if (new CredentialParseProbe().run(fetched.resource, ctx).contains(Outcome.FATAL, Outcome.EXCEPTION)) {
+            return null;
+        }
+        Assertion fetchedAssertion = (Assertion) ctx.getGeneratedObject(uriResource.getID());
+
+        // compact ld
+        String context = fetchedAssertion.getCredentialType().getContextUris().get(0);
+        Optional<JsonNode> compacted = fetched.node != null ? fetched.node.getCompacted(context) : Optional.empty();
+        if (compacted.isPresent()) {
+            ctx.addGeneratedObject(new JsonLdGeneratedObject(JsonLDCompactionProbe.getId(fetchedAssertion), compacted.get()));
+        } else {
+            if (new JsonLDCompactionProbe(context).run(fetchedAssertion, ctx).contains(Outcome.FATAL, Outcome.EXCEPTION)) {
+                return null;
+            }
+            if (fetched.node != null) {
+                JsonLdGeneratedObject generated = (JsonLdGeneratedObject) ctx.getGeneratedObject(JsonLDCompactionProbe.getId(fetchedAssertion));
+                fetched.node.putCompacted(context, generated.getNode());
             }
         }
-        return result;
+        return (JsonLdGeneratedObject) ctx.getGeneratedObject(JsonLDCompactionProbe.getId(fetchedAssertion));
     }
 
     /**
@@ -165,15 +242,18 @@ public class GraphFetcherProbe extends Probe<JsonNode> {
             (validation.isAllowDataUri() || ValueType.IRI.getValidationFunction().apply(node));
     }
 
-    private void updateNode(Validation validation, JsonNode idNode, RunContext ctx) throws IOException {
+    private void updateNode(Assertion assertion, Validation validation, JsonNode idNode, RunContext ctx) {
+        // the node may be shared, so update a copy
         JsonLdGeneratedObject jsonLdGeneratedObject = ctx.getGeneratedObject(JsonLDCompactionProbe.getId(assertion));
-        JsonNode merged = createNewJson(ctx, jsonLdGeneratedObject.getJson(), "{\"" + validation.getName() + "\": \"" + idNode.asText().strip() + "\"}");
-        jsonLdGeneratedObject.setJson(merged.toString());
-
+        ObjectNode merged = (ObjectNode) jsonLdGeneratedObject.getNode().deepCopy();
+        merged.put(validation.getName(), idNode.asText().strip());
+        jsonLdGeneratedObject.setNode(merged);
     }
 
     private JsonNode createNewJson(RunContext ctx, JsonNode node) throws IOException {
-        return createNewJson(ctx, Resources.getResource("contexts/ob-v2p0.json"), node.toString());
+        ObjectMapper mapper = (ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER);
+        JsonNode newNode = mapper.readTree(Resources.getResource("contexts/ob-v2p0.json"));
+        return mapper.readerForUpdating(newNode).readValue(node);
     }
 
     private JsonNode createNewJson(RunContext ctx, String additional) throws IOException {
@@ -188,23 +268,26 @@ public class GraphFetcherProbe extends Probe<JsonNode> {
         return merged;
     }
 
-    private JsonNode createNewJson(RunContext ctx, String original, String updating) throws IOException {
-        ObjectMapper mapper = (ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER);
-        JsonNode source = mapper.readTree(original);
-        ObjectReader readerForUpdating = mapper.readerForUpdating(source);
-        JsonNode merged = readerForUpdating.readValue(updating);
-        return merged;
+    private boolean isUrn(JsonNode idNode) {
+        return URN_PATTERN.matcher(idNode.asText()).matches();
     }
 
+    /**
+     * A resource ready to parse, and the cached node it was read from, if any.
+     */
+    private static final class Fetched {
+        final Resource resource;
+        final JsonLdNodeCache.Node node;
 
-    private boolean isUrn(JsonNode idNode) {
-        final Pattern pattern = Pattern.compile(URN_REGEX, Pattern.CASE_INSENSITIVE);
-        final Matcher matcher = pattern.matcher(idNode.asText());
-        return matcher.matches();
+        Fetched(Resource resource, JsonLdNodeCache.Node node) {
+            this.resource = resource;
+            this.node = node;
+        }
     }
 
     public static final String ID = GraphFetcherProbe.class.getSimpleName();
     public static final String TITLE = "Graph fetcher";
-    public static final String URN_REGEX = "^urn:uuid:[0-9a-f]{8}-[0-9a-f]{4}-[1-5][0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}$'";
+    public static final String URN_REGEX = "^urn:uuid:[0-9a-f]{8}-[0-9a-f]{4}-[1-5][0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}$";
+    private static final Pattern URN_PATTERN = Pattern.compile(URN_REGEX, Pattern.CASE_INSENSITIVE);
     protected final static Logger logger = LogManager.getLogger(GraphFetcherProbe.class);
 }
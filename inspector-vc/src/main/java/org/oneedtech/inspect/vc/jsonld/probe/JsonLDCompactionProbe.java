@@ -1,19 +1,19 @@
 package org.oneedtech.inspect.vc.jsonld.probe;
 
-import java.io.StringReader;
-
 import org.oneedtech.inspect.core.probe.Probe;
 import org.oneedtech.inspect.core.probe.RunContext;
 import org.oneedtech.inspect.core.probe.RunContext.Key;
 import org.oneedtech.inspect.core.report.ReportItems;
 import org.oneedtech.inspect.util.resource.Resource;
 import org.oneedtech.inspect.vc.Credential;
+import org.oneedtech.inspect.vc.jsonld.JsonLdContextCache;
 import org.oneedtech.inspect.vc.jsonld.JsonLdGeneratedObject;
+import org.oneedtech.inspect.vc.util.JsonNodeBridge;
 
 import com.apicatalog.jsonld.JsonLd;
-import com.apicatalog.jsonld.JsonLdOptions;
 import com.apicatalog.jsonld.document.JsonDocument;
 import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.json.JsonObject;
 
@@ -34,12 +34,13 @@ public class JsonLDCompactionProbe extends Probe<Credential> {
     public ReportItems run(Credential crd, RunContext ctx) throws Exception {
       try {
           // compact JSON
-          JsonDocument jsonDocument = JsonDocument.of(new StringReader(crd.getJson().toString()));
+          JsonDocument jsonDocument = JsonDocument.of(JsonNodeBridge.asJsonStructure(crd.getJson()));
           JsonObject compactedObject = JsonLd.compact(jsonDocument, context)
-            .options(new JsonLdOptions((DocumentLoader) ctx.get(Key.JSON_DOCUMENT_LOADER)))
+            .options(JsonLdContextCache.options((DocumentLoader) ctx.get(Key.JSON_DOCUMENT_LOADER), crd.getJson().get("@context"), context))
             .get();
 
-          ctx.addGeneratedObject(new JsonLdGeneratedObject(getId(crd), compactedObject.toString()));
+          ObjectMapper mapper = (ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER);
+          ctx.addGeneratedObject(new JsonLdGeneratedObject(getId(crd), JsonNodeBridge.toJsonNode(compactedObject, mapper)));
 
           // Handle mismatch between URL node source and declared ID.
           if (compactedObject.get("id") != null && crd.getResource().getID() != null
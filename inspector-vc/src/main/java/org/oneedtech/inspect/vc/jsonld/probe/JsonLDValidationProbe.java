@@ -1,17 +1,17 @@
 package org.oneedtech.inspect.vc.jsonld.probe;
 
-import java.io.StringReader;
-
 import org.oneedtech.inspect.core.probe.Probe;
 import org.oneedtech.inspect.core.probe.RunContext;
 import org.oneedtech.inspect.core.report.ReportItems;
+import org.oneedtech.inspect.vc.util.JsonNodeBridge;
 
 import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import foundation.identity.jsonld.JsonLDObject;
 import foundation.identity.jsonld.validation.Validation;
 
-public class JsonLDValidationProbe extends Probe<String> {
+public class JsonLDValidationProbe extends Probe<JsonNode> {
 
     DocumentLoader documentLoader;
 
@@ -25,8 +25,8 @@ public class JsonLDValidationProbe extends Probe<String> {
     }
 
     @Override
-    public ReportItems run(String json, RunContext ctx) throws Exception {
-        JsonLDObject jsonLd = JsonLDObject.fromJson(new StringReader(json));
+    public ReportItems run(JsonNode json, RunContext ctx) throws Exception {
+        JsonLDObject jsonLd = JsonLDObject.fromJsonObject(JsonNodeBridge.toMap(json));
         jsonLd.setDocumentLoader(documentLoader);
         try {
             Validation.validate(jsonLd);
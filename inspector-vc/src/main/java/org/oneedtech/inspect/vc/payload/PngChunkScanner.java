@@ -0,0 +1,134 @@
+package org.oneedtech.inspect.vc.payload;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads the text chunks (tEXt, zTXt and iTXt) of a PNG image straight from the chunk stream,
+ * without decoding the image or building a metadata tree. Chunks other than text chunks, image
+ * data included, are skipped over, and only the text of the chunk looked for is decompressed.
+ */
+public final class PngChunkScanner {
+
+	/**
+	 * The largest text read from a chunk, before and after decompression. Baked credentials
+	 * are a few kilobytes, the cap only keeps a crafted chunk length from exhausting memory.
+	 */
+	public static final int MAX_TEXT_LENGTH = 16 * 1024 * 1024;
+
+	private PngChunkScanner() {}
+
+	/**
+	 * Find the text of the first text chunk with the given keyword.
+	 * @param in the PNG image, positioned at its signature
+	 * @param keyword the keyword of the chunk
+	 * @return the text of the chunk, or null if the image has no such chunk
+	 * @throws IllegalArgumentException if the stream is not a PNG image, or the text is larger
+	 * than {@link #MAX_TEXT_LENGTH}
+	 */
+	public static String findText(InputStream in, String keyword) throws IOException {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+		byte[] signature = new byte[PNG_SIGNATURE.length];
+		data.readFully(signature);
+		if (!Arrays.equals(signature, PNG_SIGNATURE)) {
+			throw new IllegalArgumentException("Not a PNG image");
+		}
+
+		byte[] keywordBytes = keyword.getBytes(StandardCharsets.ISO_8859_1);
+		while (true) {
+			int length = data.readInt();
+			int type = data.readInt();
+			if (length < 0) {
+				throw new IllegalArgumentException("Invalid PNG chunk length " + Integer.toUnsignedString(length));
+			}
+			if (type == IEND) {
+				return null;
+			}
+
+			if ((type == TEXT || type == ZTXT || type == ITXT) && length > keywordBytes.length) {
+				// keyword, then a null separator
+				byte[] chunkKeyword = new byte[keywordBytes.length + 1];
+				data.readFully(chunkKeyword);
+				int remaining = length - chunkKeyword.length;
+				if (chunkKeyword[keywordBytes.length] == 0 && Arrays.equals(keywordBytes, 0, keywordBytes.length, chunkKeyword, 0, keywordBytes.length)) {
+					if (remaining > MAX_TEXT_LENGTH) {
+						throw new IllegalArgumentException("PNG text chunk of " + length + " bytes is too large");
+					}
+					// grows with the data actually read rather than trusting the declared length
+					byte[] content = data.readNBytes(remaining);
+					if (content.length < remaining) {
+						throw new EOFException("Truncated PNG text chunk");
+					}
+					return readText(type, content);
+				}
+				data.skipNBytes(remaining);
+			} else {
+				data.skipNBytes(length);
+			}
+			// crc
+			data.skipNBytes(4);
+		}
+	}
+
+	/**
+	 * @param content the data of the chunk following the keyword separator
+	 */
+	private static String readText(int type, byte[] content) throws IOException {
+		if (type == TEXT) {
+			return new String(content, StandardCharsets.ISO_8859_1);
+		}
+		if (type == ZTXT) {
+			checkCompressionMethod(content, 0);
+			return new String(inflate(content, 1), StandardCharsets.ISO_8859_1);
+		}
+
+		// iTXt: compression flag and method, then the null terminated language tag and translated keyword
+		if (content.length < 4) {
+			throw new IllegalArgumentException("Invalid PNG iTXt chunk");
+		}
+		boolean compressed = content[0] == 1;
+		int offset = 2;
+		for (int separators = 0; separators < 2; offset++) {
+			if (offset == content.length) {
+				throw new IllegalArgumentException("Invalid PNG iTXt chunk");
+			}
+			if (content[offset] == 0) {
+				separators++;
+			}
+		}
+		if (compressed) {
+			checkCompressionMethod(content, 1);
+			return new String(inflate(content, offset), StandardCharsets.UTF_8);
+		}
+		return new String(content, offset, content.length - offset, StandardCharsets.UTF_8);
+	}
+
+	private static void checkCompressionMethod(byte[] content, int offset) {
+		if (content.length <= offset || content[offset] != 0) {
+			throw new IllegalArgumentException("Unsupported PNG text compression method");
+		}
+	}
+
+	private static byte[] inflate(byte[] content, int offset) throws IOException {
+		try (InputStream inflater = new InflaterInputStream(new ByteArrayInputStream(content, offset, content.length - offset))) {
+			byte[] inflated = inflater.readNBytes(MAX_TEXT_LENGTH + 1);
+			if (inflated.length > MAX_TEXT_LENGTH) {
+				throw new IllegalArgumentException("Compressed PNG text is too large");
+			}
+			return inflated;
+		}
+	}
+
+	private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+	private static final int IEND = 0x49454e44;
+	private static final int TEXT = 0x74455874;
+	private static final int ZTXT = 0x7a545874;
+	private static final int ITXT = 0x69545874;
+}
@@ -6,16 +6,10 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 
-import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
-import javax.imageio.metadata.IIOMetadata;
-
 import org.oneedtech.inspect.core.probe.RunContext;
 import org.oneedtech.inspect.util.resource.Resource;
 import org.oneedtech.inspect.util.resource.ResourceType;
 import org.oneedtech.inspect.vc.Credential;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
@@ -38,26 +32,11 @@ public final class PngParser extends PayloadParser {
 		try(InputStream is = resource.asByteSource().openStream()) {
 			final Keys credentialKey = (Keys) ctx.get(RunContext.Key.PNG_CREDENTIAL_KEY);
 
-			ImageReader imageReader = ImageIO.getImageReadersByFormatName("png").next();
-			imageReader.setInput(ImageIO.createImageInputStream(is), true);
-			IIOMetadata metadata = imageReader.getImageMetadata(0);
-
-			String vcString = null;
+			//Scan the text chunks for the credential keyword, skipping over the image data
+			String vcString = PngChunkScanner.findText(is, credentialKey.getNodeName());
 			String jwtString = null;
-			String formatSearch = null;
 			JsonNode vcNode = null;
 
-			String[] names = metadata.getMetadataFormatNames();
-			int length = names.length;
-			for (int i = 0; i < length; i++) {
-				//Check all names rather than limiting to PNG format to remain malleable through any library changes.  (Could limit to "javax_imageio_png_1.0")
-				formatSearch = getOpenBadgeCredentialNodeText(metadata.getAsTree(names[i]), credentialKey);
-				if(formatSearch != null) {
-					vcString = formatSearch;
-					break;
-				}
-			}
-
 			if(vcString == null) {
 				throw new IllegalArgumentException("No credential inside PNG");
 			}
@@ -99,32 +78,6 @@ public final class PngParser extends PayloadParser {
 		}
 	}
 
-	private String getOpenBadgeCredentialNodeText(Node node, Keys credentialKey){
-        NamedNodeMap attributes = node.getAttributes();
-
-		//If this node is labeled with the attribute keyword: 'openbadgecredential' it is the right one.
-        Node keyword = attributes.getNamedItem("keyword");
-		if(keyword != null && keyword.getNodeValue().equals(credentialKey.getNodeName())){
-			Node textAttribute = attributes.getNamedItem("text");
-			if(textAttribute != null) {
-				return textAttribute.getNodeValue();
-			}
-		}
-
-		//iterate over all children depth first and search for the credential node.
-		Node child = node.getFirstChild();
-		while (child != null) {
-            String nodeValue = getOpenBadgeCredentialNodeText(child, credentialKey);
-			if(nodeValue != null) {
-				return nodeValue;
-			}
-            child = child.getNextSibling();
-        }
-
-		//Return null if we haven't found anything at this recursive depth.
-		return null;
-	}
-
 	public enum Keys {
 		OB20("openbadges", true),
 		OB30("openbadgecredential", false),
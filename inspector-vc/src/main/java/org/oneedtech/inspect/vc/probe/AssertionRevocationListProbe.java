@@ -1,10 +1,5 @@
 package org.oneedtech.inspect.vc.probe;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.stream.Collectors;
-
 import org.oneedtech.inspect.core.probe.Probe;
 import org.oneedtech.inspect.core.probe.RunContext;
 import org.oneedtech.inspect.core.probe.RunContext.Key;
@@ -16,7 +11,6 @@ import org.oneedtech.inspect.vc.resource.UriResourceFactory;
 import org.oneedtech.inspect.vc.util.JsonNodeUtil;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class AssertionRevocationListProbe extends Probe<JsonLdGeneratedObject> {
     private final String assertionId;
@@ -34,8 +28,7 @@ public class AssertionRevocationListProbe extends Probe<JsonLdGeneratedObject> {
 
     @Override
     public ReportItems run(JsonLdGeneratedObject jsonLdGeneratedObject, RunContext ctx) throws Exception {
-        ObjectMapper mapper = (ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER);
-        JsonNode jsonNode = (mapper).readTree(jsonLdGeneratedObject.getJson());
+        JsonNode jsonNode = jsonLdGeneratedObject.getNode();
         UriResourceFactory uriResourceFactory = (UriResourceFactory) ctx.get(Key.URI_RESOURCE_FACTORY);
 
         // get badge
@@ -44,14 +37,12 @@ public class AssertionRevocationListProbe extends Probe<JsonLdGeneratedObject> {
             JsonLDCompactionProbe.getId(badgeUriResource));
 
         // get issuer from badge
-        JsonNode badgeNode = ((ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER))
-            .readTree(badgeObject.getJson());
+        JsonNode badgeNode = badgeObject.getNode();
 
         UriResource issuerUriResource = uriResourceFactory.of(badgeNode.get("issuer").asText().strip());
         JsonLdGeneratedObject issuerObject = (JsonLdGeneratedObject) ctx.getGeneratedObject(
             JsonLDCompactionProbe.getId(issuerUriResource));
-        JsonNode issuerNode = ((ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER))
-            .readTree(issuerObject.getJson());
+        JsonNode issuerNode = issuerObject.getNode();
 
         JsonNode revocationListIdNode = issuerNode.get("revocationList");
         if (revocationListIdNode == null) {
@@ -62,28 +53,34 @@ public class AssertionRevocationListProbe extends Probe<JsonLdGeneratedObject> {
         UriResource revocationListUriResource = uriResourceFactory.of(revocationListIdNode.asText().strip());
         JsonLdGeneratedObject revocationListObject = (JsonLdGeneratedObject) ctx.getGeneratedObject(
             JsonLDCompactionProbe.getId(revocationListUriResource));
-        JsonNode revocationListNode = ((ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER))
-            .readTree(revocationListObject.getJson());
 
-        List<JsonNode> revocationList = JsonNodeUtil.asNodeList(revocationListNode.get("revokedAssertions"));
-        List<JsonNode> revokedMatches = revocationList.stream().filter(revocation -> {
-            if (revocation.isTextual()) {
-                return assertionId.equals(revocation.asText().strip());
+        // the first reason given by any matching entry is reported
+        boolean revoked = false;
+        JsonNode reasonNode = null;
+        for (JsonNode revocation : JsonNodeUtil.asNodeList(revocationListObject.getNode().get("revokedAssertions"))) {
+            if (isRevocationOf(revocation)) {
+                revoked = true;
+                reasonNode = revocation.get("revocationReason");
+                if (reasonNode != null) {
+                    break;
+                }
             }
-            return revocation.get("id") != null && assertionId.equals(revocation.get("id").asText().strip());
-        }).collect(Collectors.toList());
-
-        if (revokedMatches.size() > 0) {
-            Optional<JsonNode> reasonNode = revokedMatches.stream()
-                .map(node -> node.get("revocationReason"))
-                .filter(Objects::nonNull)
-                .findFirst();
-            String reason = reasonNode.isPresent() ? " with reason " + reasonNode.get().asText().strip() : "";
+        }
+
+        if (revoked) {
+            String reason = reasonNode != null ? " with reason " + reasonNode.asText().strip() : "";
             return error("Assertion " + assertionId + " has been revoked in RevocationList " + revocationListIdNode.asText().strip() + reason, ctx);
         }
         return success("Assertion " + assertionId + " is not revoked", ctx);
     }
 
+    private boolean isRevocationOf(JsonNode revocation) {
+        if (revocation.isTextual()) {
+            return assertionId.equals(revocation.asText().strip());
+        }
+        return revocation.get("id") != null && assertionId.equals(revocation.get("id").asText().strip());
+    }
+
     /**
      * Return the ID of the node with name propertyName
      * @param jsonNode node
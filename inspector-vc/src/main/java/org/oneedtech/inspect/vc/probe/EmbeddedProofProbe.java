@@ -12,6 +12,8 @@ import com.danubetech.dataintegrity.signer.RsaSignature2018LdSigner;
 import com.danubetech.dataintegrity.verifier.LdVerifier;
 import com.danubetech.dataintegrity.verifier.RsaSignature2018LdVerifier;
 
+import foundation.identity.jsonld.JsonLDObject;
+
 import jakarta.json.JsonObject;
 import jakarta.json.JsonStructure;
 import jakarta.json.JsonValue;
@@ -20,6 +22,8 @@ import static java.util.stream.Collectors.joining;
 
 import java.net.URI;
 import java.security.spec.InvalidKeySpecException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,12 +50,24 @@ public class EmbeddedProofProbe extends Probe<VerifiableCredential> {
 
   private static final List<String> ALLOWED_CRYPTOSUITES =
       List.of("eddsa-2022", "eddsa-rdfc-2022", "ecdsa-sd-2023");
+  // shared, so that the document loader cache recognizes repeated loads of a context
+  private static final DocumentLoaderOptions CONTEXT_OPTIONS = new DocumentLoaderOptions();
   private MulticodecDecoder multicodecDecoder;
   private CredentialEnum type;
+  private boolean cacheVerifications;
 
   public EmbeddedProofProbe(CredentialEnum type) {
+    this(type, false);
+  }
+
+  /**
+   * @param cacheVerifications whether to skip verifying credentials whose proof
+   *     has been verified before with the same key, see {@link ProofVerificationCache}
+   */
+  public EmbeddedProofProbe(CredentialEnum type, boolean cacheVerifications) {
     super(ID, TITLE);
     this.type = type;
+    this.cacheVerifications = cacheVerifications;
     this.multicodecDecoder =
         MulticodecDecoder.getInstance(
             KeyCodec.ED25519_PUBLIC_KEY, KeyCodec.P256_PUBLIC_KEY, KeyCodec.P384_PUBLIC_KEY);
@@ -231,6 +247,15 @@ public class EmbeddedProofProbe extends Probe<VerifiableCredential> {
     // Extract the publicKey bytes from the Multicodec
     byte[] publicKey = multicodecDecoder.decode(publicKeyMulticodec);
 
+    // skip canonicalization and signature verification of an unchanged credential
+    String cacheKey = null;
+    if (cacheVerifications) {
+      cacheKey = cacheKey(credentialHolder.getCredential(), crd, proof, publicKeyMulticodec).orElse(null);
+      if (cacheKey != null && ProofVerificationCache.isVerified(cacheKey)) {
+        return success("Embedded proof verification completed successfully", ctx);
+      }
+    }
+
     try {
       // choose verifier
       LdVerifier<?> verifier = getVerifier(proof, publicKey, crd, codec);
@@ -251,9 +276,38 @@ public class EmbeddedProofProbe extends Probe<VerifiableCredential> {
       return fatal("Embedded proof verification failed: " + e.getMessage(), ctx);
     }
 
+    if (cacheKey != null) {
+      ProofVerificationCache.verified(cacheKey);
+    }
     return success("Embedded proof verification completed successfully", ctx);
   }
 
+  /**
+   * The proof verification cache key of a credential, or empty if one of the context documents
+   * of the credential or proof cannot be loaded, in which case the verification is not cached.
+   */
+  private Optional<String> cacheKey(
+      JsonLDObject credential, VerifiableCredential crd, DataIntegrityProof proof, byte[] publicKey) {
+    List<Document> contexts = new ArrayList<>();
+    try {
+      for (JsonLDObject object : List.of(credential, proof)) {
+        Object context = object.getJsonObject().get("@context");
+        List<?> entries = context instanceof List ? (List<?>) context : Collections.singletonList(context);
+        for (Object entry : entries) {
+          // embedded contexts are already part of the credential or proof
+          if (entry instanceof String) {
+            contexts.add(
+                credential.getDocumentLoader().loadDocument(URI.create((String) entry), CONTEXT_OPTIONS));
+          }
+        }
+      }
+    } catch (Exception e) {
+      return Optional.empty();
+    }
+    return ProofVerificationCache.key(
+        crd.getJson().toString(), proof.getJsonObject().toString(), publicKey, contexts);
+  }
+
   private LdVerifier<?> getVerifier(
       DataIntegrityProof proof, byte[] publicKey, VerifiableCredential crd, Multicodec codec)
       throws Throwable, InvalidKeySpecException {
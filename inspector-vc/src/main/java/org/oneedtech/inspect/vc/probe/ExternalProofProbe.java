@@ -5,6 +5,7 @@ import static org.oneedtech.inspect.util.code.Defensives.checkTrue;
 import java.math.BigInteger;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.security.AlgorithmParameters;
 import java.security.KeyFactory;
 import java.security.interfaces.ECPublicKey;
@@ -17,15 +18,10 @@ import java.security.spec.RSAPublicKeySpec;
 import java.util.Base64;
 import java.util.Base64.Decoder;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpStatus;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
 import org.oneedtech.inspect.core.probe.Probe;
 import org.oneedtech.inspect.core.probe.RunContext;
 import org.oneedtech.inspect.core.report.ReportItems;
@@ -34,6 +30,7 @@ import org.oneedtech.inspect.vc.probe.did.DidResolution;
 import org.oneedtech.inspect.vc.probe.did.DidResolutionException;
 import org.oneedtech.inspect.vc.probe.did.DidResolver;
 import org.oneedtech.inspect.vc.util.CachingDocumentLoader;
+import org.oneedtech.inspect.vc.util.HttpClientService;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
@@ -46,6 +43,9 @@ import com.auth0.jwt.interfaces.DecodedJWT;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Splitter;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 /**
  * A Probe that verifies credential external proof (jwt)
@@ -70,6 +70,28 @@ public class ExternalProofProbe extends Probe<VerifiableCredential> {
 		return success("External Proof verification completed successfully", ctx);
 	}
 
+	/**
+	 * Fetch and cache the public key the kid of the jwt refers to, without verifying
+	 * the jwt. Does nothing if the jwt has no kid or the key is already cached.
+	 */
+	public void prefetchKey(VerifiableCredential crd, RunContext ctx) throws Exception {
+		if(crd.getJwt().isEmpty()) return;
+		List<String> parts = Splitter.on('.').splitToList(crd.getJwt().get());
+		if(parts.size() != 3) return;
+
+		ObjectMapper mapper = ((ObjectMapper)ctx.get(RunContext.Key.JACKSON_OBJECTMAPPER));
+		JsonNode kid = mapper.readTree(new String(Base64.getUrlDecoder().decode(parts.get(0)))).get("kid");
+		if(kid == null) return;
+
+		boolean kidAsHint = kidCanBeUsedAsHint(kid.textValue(), crd);
+		String keyId = getKeyId(kid.textValue(), kidAsHint, crd);
+		if(keys.getIfPresent(keyId) == null) {
+			String jwk = fetchJwk(kid.textValue(), kidAsHint, crd, ctx);
+			if(jwk == null) return;
+			keys.put(keyId, VerificationKey.of(mapper.readTree(jwk)));
+		}
+	}
+
 	private void verifySignature(VerifiableCredential crd, RunContext ctx) throws Exception {
 		checkTrue(crd.getJwt().isPresent(), "no jwt supplied");
 		checkTrue(crd.getJwt().get().length() > 0, "no jwt supplied");
@@ -104,6 +126,9 @@ public class ExternalProofProbe extends Probe<VerifiableCredential> {
 		JsonNode kid = headerObj.get("kid");
 
 		if(jwk == null && kid == null) { throw new Exception("Key must present in either jwk or kid value."); }
+
+		// keys are cached by kid, or by the jwk itself when given in the header
+		VerificationKey key;
 		if(kid != null) {
 			// check if kid can be a hint to the jwk in dids as defined in https://www.w3.org/TR/vc-jose-cose/#kid
 			boolean kidAsHint = kidCanBeUsedAsHint(kid.textValue(), crd);
@@ -111,54 +136,32 @@ public class ExternalProofProbe extends Probe<VerifiableCredential> {
 			//Load jwk JsonNode from url and do the rest the same below.
 			//TODO Consider additional testing.
 			String kidUrl = kid.textValue();
+			String keyId;
 			try {
-				String jwkResponse = fetchJwk(kidUrl, kidAsHint, crd, ctx);
-				jwk = mapper.readTree(jwkResponse);
+				keyId = getKeyId(kidUrl, kidAsHint, crd);
+				key = keys.getIfPresent(keyId);
+				if(key == null) {
+					String jwkResponse = fetchJwk(kidUrl, kidAsHint, crd, ctx);
+					jwk = mapper.readTree(jwkResponse);
+				}
 			} catch (Exception e) {
 				throw new Exception("Unable to retrieve jwk value from url specified in kid.", e);
 			}
-		}
-
-		String kty = jwk.get("kty").asText();
-
-		Algorithm algorithm; // Either RSA or ECDSA
-
-		if ("RSA".equalsIgnoreCase(kty)) {
-			// RSA Public Key
-			String modulusString = jwk.get("n").asText();
-			String exponentString = jwk.get("e").asText();
-
-			BigInteger modulus = new BigInteger(1, decoder.decode(modulusString));
-			BigInteger exponent = new BigInteger(1, decoder.decode(exponentString));
-
-			RSAPublicKeySpec pubSpec = new RSAPublicKeySpec(modulus, exponent);
-			KeyFactory factory = KeyFactory.getInstance("RSA");
-			RSAPublicKey pub = (RSAPublicKey) factory.generatePublic(pubSpec);
-
-			algorithm = Algorithm.RSA256(pub, null);
-
-		} else if ("EC".equalsIgnoreCase(kty)) {
-			// ECDSA Public Key
-			String xString = jwk.get("x").asText();
-			String yString = jwk.get("y").asText();
-			String crv = jwk.get("crv").asText(); // Should be P-256
-
-			ECParameterSpec ecSpec = getCurveFromCrv(crv); // helper function below
-
-			ECPoint ecPoint = new ECPoint(
-					new BigInteger(1, decoder.decode(xString)),
-					new BigInteger(1, decoder.decode(yString))
-			);
-
-			ECPublicKeySpec pubSpec = new ECPublicKeySpec(ecPoint, ecSpec);
-			KeyFactory factory = KeyFactory.getInstance("EC");
-			ECPublicKey pub = (ECPublicKey) factory.generatePublic(pubSpec);
-
-			algorithm = Algorithm.ECDSA256(pub, null);
+			if(key == null) {
+				key = VerificationKey.of(jwk);
+				keys.put(keyId, key);
+			}
 		} else {
-			throw new IllegalArgumentException("Unsupported key type: " + kty);
+			String keyId = jwk.toString();
+			key = keys.getIfPresent(keyId);
+			if(key == null) {
+				key = VerificationKey.of(jwk);
+				keys.put(keyId, key);
+			}
 		}
 
+		Algorithm algorithm = key.algorithm; // Either RSA or ECDSA
+
 		JWTVerifier verifier = JWT.require(algorithm).build();
 
 		try {
@@ -191,21 +194,84 @@ public class ExternalProofProbe extends Probe<VerifiableCredential> {
 			DidResolution didResolution = didResolver.resolve(kidUri, new CachingDocumentLoader()); // Not using the default document loader options
 			responseString = didResolution.getPublicKeyJwk();
 		} else {
-			CloseableHttpClient client = HttpClients.createDefault();
-			HttpGet httpGet = new HttpGet(fetchUrl);
-
-			CloseableHttpResponse response = client.execute(httpGet);
-
-			if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-				HttpEntity entity = response.getEntity();
-				responseString = EntityUtils.toString(entity, "UTF-8");
+			try (HttpClientService.Response response = HttpClientService.getDefault().get(kidUri, Map.of())) {
+				if (response.status() == 200) {
+					responseString = new String(response.readAllBytes(), StandardCharsets.UTF_8);
+				}
 			}
-
-			client.close();
 		}
 		return responseString;
     }
 
+	/**
+	 * The cache key of the jwk a kid refers to. A kid used as a hint is relative to the issuer DID.
+	 */
+	private String getKeyId(String kid, boolean kidAsHint, VerifiableCredential crd) throws URISyntaxException {
+		if (kidAsHint && new URI(kid).getScheme() == null) {
+			return getIssuerId(crd) + "#" + kid;
+		}
+		return kid;
+	}
+
+	/**
+	 * Clear the cache of public keys.
+	 */
+	public static void reset() {
+		keys.invalidateAll();
+	}
+
+	/**
+	 * The jwt Algorithm verifying with a public key parsed from a jwk.
+	 */
+	private static final class VerificationKey {
+		final Algorithm algorithm;
+
+		private VerificationKey(Algorithm algorithm) {
+			this.algorithm = algorithm;
+		}
+
+		static VerificationKey of(JsonNode jwk) throws Exception {
+			final Decoder decoder = Base64.getUrlDecoder();
+			String kty = jwk.get("kty").asText();
+
+			if ("RSA".equalsIgnoreCase(kty)) {
+				// RSA Public Key
+				String modulusString = jwk.get("n").asText();
+				String exponentString = jwk.get("e").asText();
+
+				BigInteger modulus = new BigInteger(1, decoder.decode(modulusString));
+				BigInteger exponent = new BigInteger(1, decoder.decode(exponentString));
+
+				RSAPublicKeySpec pubSpec = new RSAPublicKeySpec(modulus, exponent);
+				KeyFactory factory = KeyFactory.getInstance("RSA");
+				RSAPublicKey pub = (RSAPublicKey) factory.generatePublic(pubSpec);
+
+				return new VerificationKey(Algorithm.RSA256(pub, null));
+
+			} else if ("EC".equalsIgnoreCase(kty)) {
+				// ECDSA Public Key
+				String xString = jwk.get("x").asText();
+				String yString = jwk.get("y").asText();
+				String crv = jwk.get("crv").asText(); // Should be P-256
+
+				ECParameterSpec ecSpec = getCurveFromCrv(crv); // helper function below
+
+				ECPoint ecPoint = new ECPoint(
+						new BigInteger(1, decoder.decode(xString)),
+						new BigInteger(1, decoder.decode(yString))
+				);
+
+				ECPublicKeySpec pubSpec = new ECPublicKeySpec(ecPoint, ecSpec);
+				KeyFactory factory = KeyFactory.getInstance("EC");
+				ECPublicKey pub = (ECPublicKey) factory.generatePublic(pubSpec);
+
+				return new VerificationKey(Algorithm.ECDSA256(pub, null));
+			} else {
+				throw new IllegalArgumentException("Unsupported key type: " + kty);
+			}
+		}
+	}
+
 	// Maps curve name from JWK to ECParameterSpec
 	private static ECParameterSpec getCurveFromCrv(String crv) throws Exception {
 		if ("P-256".equals(crv)) {
@@ -216,6 +282,20 @@ public class ExternalProofProbe extends Probe<VerifiableCredential> {
 		throw new IllegalArgumentException("Unsupported curve: " + crv);
 	}
 
+	// replaced by the tests to move time forward
+	static volatile Ticker ticker = Ticker.systemTicker();
+
+	private static final Cache<String, VerificationKey> keys = CacheBuilder.newBuilder()
+			.maximumSize(1024)
+			.expireAfterWrite(1, TimeUnit.HOURS)
+			.ticker(new Ticker() {
+				@Override
+				public long read() {
+					return ticker.read();
+				}
+			})
+			.build();
+
 	public static final String ID = ExternalProofProbe.class.getSimpleName();
 	public static final String TITLE = "Verification of external proof";
 
@@ -0,0 +1,105 @@
+package org.oneedtech.inspect.vc.probe;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import com.apicatalog.jsonld.document.Document;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A threadsafe static cache of successful proof verifications. Entries are keyed
+ * by a SHA-256 digest of the credential, the verified proof, the key it was
+ * verified with and the context documents the credential and proof reference,
+ * so a changed credential, proof, key or referenced context never hits an entry.
+ * Contexts that are in turn imported by those context documents are not part of
+ * the key: a change to them goes unnoticed until the entry expires, so the ttl
+ * should stay short. Failed verifications are not cached.
+ */
+public class ProofVerificationCache {
+  private static final Cache<String, Long> cache = CacheBuilder.newBuilder()
+      .maximumSize(16 * 1024)
+      .build();
+
+  // digests of loaded context documents; weak keys compare by identity, and the document
+  // loader caches keep returning the same instance until the content changes
+  private static final Cache<Document, byte[]> contextDigests = CacheBuilder.newBuilder()
+      .weakKeys()
+      .build();
+
+  private static volatile Duration ttl = Duration.ofHours(1);
+
+  /**
+   * The digest of a credential, one of its proofs, the public key of the proof and
+   * the context documents the credential and proof reference.
+   * @return the digest, or empty if one of the contexts is not a JSON document
+   */
+  public static Optional<String> key(String credential, String proof, byte[] publicKey, List<Document> contexts) {
+    MessageDigest digest = sha256();
+    update(digest, credential.getBytes(StandardCharsets.UTF_8));
+    update(digest, proof.getBytes(StandardCharsets.UTF_8));
+    update(digest, publicKey);
+    for (Document context : contexts) {
+      byte[] contextDigest = contextDigests.getIfPresent(context);
+      if (contextDigest == null) {
+        if (context.getJsonContent().isEmpty()) return Optional.empty();
+        contextDigest = sha256().digest(context.getJsonContent().get().toString().getBytes(StandardCharsets.UTF_8));
+        contextDigests.put(context, contextDigest);
+      }
+      update(digest, contextDigest);
+    }
+    return Optional.of(HexFormat.of().formatHex(digest.digest()));
+  }
+
+  /**
+   * Whether a verification with the given key has succeeded within the ttl.
+   */
+  public static boolean isVerified(String key) {
+    Long expiresAt = cache.getIfPresent(key);
+    if (expiresAt == null) return false;
+    if (expiresAt <= System.currentTimeMillis()) {
+      cache.invalidate(key);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Record a successful verification.
+   */
+  public static void verified(String key) {
+    cache.put(key, System.currentTimeMillis() + ttl.toMillis());
+  }
+
+  /**
+   * Set the time successful verifications are kept for.
+   */
+  public static void setTtl(Duration ttl) {
+    ProofVerificationCache.ttl = ttl;
+  }
+
+  public static void reset() {
+    cache.invalidateAll();
+    contextDigests.invalidateAll();
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void update(MessageDigest digest, byte[] bytes) {
+    // length-prefixed, so that field boundaries cannot shift between inputs
+    int length = bytes.length;
+    digest.update(new byte[] { (byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length });
+    digest.update(bytes);
+  }
+}
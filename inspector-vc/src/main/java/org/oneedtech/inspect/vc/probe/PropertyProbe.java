@@ -28,7 +28,16 @@ public class PropertyProbe extends Probe<JsonNode> {
 
     @Override
     public ReportItems run(JsonNode root, RunContext ctx) throws Exception {
-        JsonNode propertyNode = root.get(propertyName);
+        return run(root, root.get(propertyName), ctx);
+    }
+
+    /**
+     * Run the probe with the value of the property already looked up in the root node.
+     * @param root the node holding the property
+     * @param propertyNode the value of the property, null if not present
+     * @param ctx associated run context
+     */
+    public ReportItems run(JsonNode root, JsonNode propertyNode, RunContext ctx) {
 		if (propertyNode == null) {
 			return reportForNonExistentProperty(root, ctx);
         }
@@ -2,20 +2,21 @@ package org.oneedtech.inspect.vc.probe;
 
 import static org.oneedtech.inspect.core.probe.RunContext.Key.JACKSON_OBJECTMAPPER;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
+import java.io.IOException;
 import java.net.URI;
-import java.net.URL;
-import java.util.List;
+import java.util.Map;
 import org.oneedtech.inspect.core.probe.Probe;
 import org.oneedtech.inspect.core.probe.RunContext;
 import org.oneedtech.inspect.core.report.ReportItems;
 import org.oneedtech.inspect.util.resource.MimeType;
 import org.oneedtech.inspect.vc.Credential;
 import org.oneedtech.inspect.vc.status.bitstring.BitstringStatusListProbe;
-import org.oneedtech.inspect.vc.util.JsonNodeUtil;
+import org.oneedtech.inspect.vc.status.revocation.RevocationListCache;
+import org.oneedtech.inspect.vc.status.revocation.RevocationListSearch;
+import org.oneedtech.inspect.vc.util.HttpClientService;
 
 /**
  * A Probe that verifies a credential's revocation status.
@@ -23,9 +24,19 @@ import org.oneedtech.inspect.vc.util.JsonNodeUtil;
  * @author mgylling
  */
 public class RevocationListProbe extends Probe<Credential> {
+  private final boolean streaming;
 
   public RevocationListProbe() {
+    this(false);
+  }
+
+  /**
+   * @param streaming whether to search 1EdTechRevocationLists while reading the response,
+   *     stopping at the first match, instead of caching an index of each list
+   */
+  public RevocationListProbe(boolean streaming) {
     super(ID, TITLE);
+    this.streaming = streaming;
   }
 
   @Override
@@ -73,32 +84,19 @@ public class RevocationListProbe extends Probe<Credential> {
       JsonNode listID = credentialStatus.get("id");
       if (listID != null) {
         try {
-          URL url = new URI(listID.asText().strip()).toURL();
-          HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-          connection.setRequestProperty("Accept", MimeType.JSON.toString());
-          try (InputStream is = connection.getInputStream()) {
-            JsonNode revocList =
-                ((ObjectMapper) ctx.get(JACKSON_OBJECTMAPPER)).readTree(is.readAllBytes());
+          URI url = new URI(listID.asText().strip());
 
-            /* To check if a credential has been revoked, the verifier issues a GET request
-             * to the URL of the issuer's 1EdTech Revocation List Status Method. If the
-             * credential's id is in the list of revokedCredentials and the value of
-             * revoked is true or ommitted, the issuer has revoked the credential. */
+          /* To check if a credential has been revoked, the verifier issues a GET request
+           * to the URL of the issuer's 1EdTech Revocation List Status Method. If the
+           * credential's id is in the list of revokedCredentials and the value of
+           * revoked is true or ommitted, the issuer has revoked the credential. */
 
-            if (credentialId != null) {
-              List<JsonNode> list = JsonNodeUtil.asNodeList(revocList.get("revokedCredential"));
-              if (list != null) {
-                for (JsonNode item : list) {
-                  String revID = item.get("id").asText();
-                  JsonNode revoked = item.get("revoked");
-                  if (revID != null
-                      && revID.equals(credentialId)
-                      && (revoked == null || revoked.asBoolean())) {
-                    return fatal("Credential has been revoked", ctx);
-                  }
-                }
-              }
-            }
+          boolean revoked =
+              streaming
+                  ? search(url, credentialId, ctx)
+                  : RevocationListCache.get(url).isRevoked(credentialId);
+          if (revoked) {
+            return fatal("Credential has been revoked", ctx);
           }
         } catch (Exception e) {
           return warning("Error when fetching credentialStatus resource " + e.getMessage(), ctx);
@@ -113,6 +111,19 @@ public class RevocationListProbe extends Probe<Credential> {
     return null;
   }
 
+  private boolean search(URI url, String credentialId, RunContext ctx) throws Exception {
+    try (HttpClientService.Response response =
+        HttpClientService.getDefault().get(url, Map.of("Accept", MimeType.JSON.toString()))) {
+      if (response.status() < 200 || response.status() >= 300) {
+        throw new IOException("HTTP " + response.status() + " loading " + url);
+      }
+      try (JsonParser parser =
+          ((ObjectMapper) ctx.get(JACKSON_OBJECTMAPPER)).createParser(response.body())) {
+        return RevocationListSearch.isRevoked(parser, credentialId);
+      }
+    }
+  }
+
   public static final String ID = RevocationListProbe.class.getSimpleName();
   public static final String TITLE = "Revocation List Validation";
 }
@@ -42,7 +42,7 @@ public class VerificationDependenciesProbe extends Probe<JsonLdGeneratedObject>
     @Override
     public ReportItems run(JsonLdGeneratedObject jsonLdGeneratedObject, RunContext ctx) throws Exception {
         ObjectMapper mapper = (ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER);
-        JsonNode jsonNode = (mapper).readTree(jsonLdGeneratedObject.getJson());
+        JsonNode jsonNode = jsonLdGeneratedObject.getNode();
         UriResourceFactory uriResourceFactory = (UriResourceFactory) ctx.get(Key.URI_RESOURCE_FACTORY);
 
         JsonNode verificationNode = jsonNode.get("verification");
@@ -53,8 +53,7 @@ public class VerificationDependenciesProbe extends Probe<JsonLdGeneratedObject>
             UriResource verificationUriResource = uriResourceFactory.of(verificationNode.asText().strip());
             JsonLdGeneratedObject verificationObject = (JsonLdGeneratedObject) ctx.getGeneratedObject(
                 JsonLDCompactionProbe.getId(verificationUriResource));
-            JsonNode verificationRootNode = ((ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER))
-                .readTree(verificationObject.getJson());
+            JsonNode verificationRootNode = verificationObject.getNode();
             type = verificationRootNode.get("type").asText().strip();
         } else {
             type = verificationNode.get("type").asText().strip();
@@ -65,16 +64,14 @@ public class VerificationDependenciesProbe extends Probe<JsonLdGeneratedObject>
             UriResource badgeUriResource = uriResourceFactory.of(getBadgeClaimId(jsonNode));
             JsonLdGeneratedObject badgeObject = (JsonLdGeneratedObject) ctx.getGeneratedObject(
                 JsonLDCompactionProbe.getId(badgeUriResource));
-            JsonNode badgeNode = ((ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER))
-                .readTree(badgeObject.getJson());
+            JsonNode badgeNode = badgeObject.getNode();
 
             // get issuer from badge
             UriResource issuerUriResource = uriResourceFactory.of(badgeNode.get("issuer").asText().strip());
 
             JsonLdGeneratedObject issuerObject = (JsonLdGeneratedObject) ctx.getGeneratedObject(
                 JsonLDCompactionProbe.getId(issuerUriResource));
-            JsonNode issuerNode = ((ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER))
-                .readTree(issuerObject.getJson());
+            JsonNode issuerNode = issuerObject.getNode();
 
             // verify issuer
             JsonNode verificationPolicy = issuerNode.get("verification");
@@ -84,8 +81,7 @@ public class VerificationDependenciesProbe extends Probe<JsonLdGeneratedObject>
                     // get verification node
                     JsonLdGeneratedObject verificationPolicyObject = (JsonLdGeneratedObject) ctx.getGeneratedObject(
                         JsonLDCompactionProbe.getId(verificationPolicy.asText().strip()));
-                        verificationPolicy = ((ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER))
-                            .readTree(verificationPolicyObject.getJson());
+                        verificationPolicy = verificationPolicyObject.getNode();
                 }
             } catch (Throwable t) {
                 verificationPolicy = getDefaultVerificationPolicy(issuerNode, mapper);
@@ -17,7 +17,6 @@ import org.oneedtech.inspect.vc.resource.UriResourceFactory;
 import org.oneedtech.inspect.vc.util.JsonNodeUtil;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSObject;
 import com.nimbusds.jose.JWSVerifier;
@@ -38,24 +37,21 @@ public class VerificationJWTProbe extends Probe<JsonLdGeneratedObject> {
 
     @Override
     public ReportItems run(JsonLdGeneratedObject assertion, RunContext ctx) throws Exception {
-        ObjectMapper mapper = (ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER);
-        JsonNode assertionNode = (mapper).readTree(assertion.getJson());
+        JsonNode assertionNode = assertion.getNode();
         UriResourceFactory uriResourceFactory = (UriResourceFactory) ctx.get(Key.URI_RESOURCE_FACTORY);
 
         // get badge from assertion
         UriResource badgeUriResource = uriResourceFactory.of(assertionNode.get("badge").asText().strip());
         JsonLdGeneratedObject badgeObject = (JsonLdGeneratedObject) ctx.getGeneratedObject(
             JsonLDCompactionProbe.getId(badgeUriResource));
-        JsonNode badgeNode = ((ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER))
-            .readTree(badgeObject.getJson());
+        JsonNode badgeNode = badgeObject.getNode();
 
         // get issuer from badge
         UriResource issuerUriResource = uriResourceFactory.of(badgeNode.get("issuer").asText().strip());
 
         JsonLdGeneratedObject issuerObject = (JsonLdGeneratedObject) ctx.getGeneratedObject(
             JsonLDCompactionProbe.getId(issuerUriResource));
-        JsonNode issuerNode = ((ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER))
-            .readTree(issuerObject.getJson());
+        JsonNode issuerNode = issuerObject.getNode();
 
         // get verification from assertion
         JsonNode creatorIdNode = assertionNode.get("verification").get("creator");
@@ -71,8 +67,7 @@ public class VerificationJWTProbe extends Probe<JsonLdGeneratedObject> {
         UriResource creatorUriResource = uriResourceFactory.of(creatorId);
         JsonLdGeneratedObject creatorObject = (JsonLdGeneratedObject) ctx.getGeneratedObject(
             JsonLDCompactionProbe.getId(creatorUriResource));
-        JsonNode creatorNode = ((ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER))
-            .readTree(creatorObject.getJson());
+        JsonNode creatorNode = creatorObject.getNode();
 
         // verify key ownership
         String keyId = creatorNode.get("id").asText().strip();
@@ -8,7 +8,6 @@ import org.bouncycastle.crypto.digests.SHA256Digest;
 import org.bouncycastle.util.encoders.Hex;
 import org.oneedtech.inspect.core.probe.Probe;
 import org.oneedtech.inspect.core.probe.RunContext;
-import org.oneedtech.inspect.core.probe.RunContext.Key;
 import org.oneedtech.inspect.core.report.ReportItems;
 import org.oneedtech.inspect.vc.Assertion;
 import org.oneedtech.inspect.vc.jsonld.JsonLdGeneratedObject;
@@ -16,7 +15,6 @@ import org.oneedtech.inspect.vc.jsonld.probe.JsonLDCompactionProbe;
 import org.oneedtech.inspect.vc.util.JsonNodeUtil;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Recipient Verification probe for Open Badges 2.0
@@ -37,7 +35,7 @@ public class VerificationRecipientProbe extends Probe<Assertion> {
         JsonNode recipientNode = assertion.getJson().get("recipient");
 
         JsonLdGeneratedObject profileObject = (JsonLdGeneratedObject) ctx.getGeneratedObject(JsonLDCompactionProbe.getId(profileId));
-        JsonNode profileNode = ((ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER)).readTree(profileObject.getJson());
+        JsonNode profileNode = profileObject.getNode();
 
         String type = recipientNode.get("type").asText().strip();
         if (!allowedTypes.contains(type)) {
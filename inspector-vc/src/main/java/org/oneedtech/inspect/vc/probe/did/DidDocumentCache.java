@@ -0,0 +1,159 @@
+package org.oneedtech.inspect.vc.probe.did;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import jakarta.json.JsonObject;
+
+/**
+ * A threadsafe static cache of resolved DID documents, keyed by DID (a DID URL
+ * without its fragment) and the scope of the resolution, that is the part of the
+ * resolver configuration the document depends on. Definitive failures, such as a missing or invalid
+ * document, are cached too, for a shorter time, but transient ones, such as
+ * network errors and timeouts, are not, see
+ * {@link DidResolutionException#isDefinitive()}. Concurrent resolutions of the
+ * same DID share a single lookup.
+ */
+public class DidDocumentCache {
+  private static final Cache<Key, Entry> cache = CacheBuilder.newBuilder()
+      .maximumSize(4096)
+      .build();
+  private static final Map<Key, CompletableFuture<Entry>> inflight = new ConcurrentHashMap<>();
+
+  private static volatile Duration ttl = Duration.ofHours(1);
+  private static volatile Duration negativeTtl = Duration.ofMinutes(1);
+
+  /**
+   * Get the DID document of the given DID, resolving it with the given loader
+   * unless a resolution, successful or definitively failed, is cached. Use
+   * {@link #get(URI, Object, Loader)} when the loader depends on a configuration.
+   */
+  public static JsonObject get(URI did, Loader loader) throws DidResolutionException {
+    return get(did, null, loader);
+  }
+
+  /**
+   * Get the DID document of the given DID, resolving it with the given loader
+   * unless a resolution in the same scope is cached.
+   * @param scope the configuration the loader depends on, such as a resolver url or
+   * local domains, compared by equals. May be null.
+   */
+  public static JsonObject get(URI did, Object scope, Loader loader) throws DidResolutionException {
+    Key key = new Key(withoutFragment(did), scope);
+    Entry entry = cache.getIfPresent(key);
+    if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+      return entry.get();
+    }
+
+    CompletableFuture<Entry> pending = new CompletableFuture<>();
+    CompletableFuture<Entry> existing = inflight.putIfAbsent(key, pending);
+    if (existing != null) {
+      try {
+        return existing.join().get();
+      } catch (CompletionException e) {
+        throw new DidResolutionException("Error resolving did: " + did, e.getCause());
+      }
+    }
+    try {
+      long now = System.currentTimeMillis();
+      try {
+        entry = new Entry(loader.load(), null, now + ttl.toMillis());
+      } catch (DidResolutionException e) {
+        entry = new Entry(null, e, e.isDefinitive() ? now + negativeTtl.toMillis() : now);
+      }
+      if (entry.expiresAt > now) {
+        cache.put(key, entry);
+      }
+      pending.complete(entry);
+      return entry.get();
+    } catch (RuntimeException e) {
+      pending.completeExceptionally(e);
+      throw e;
+    } finally {
+      inflight.remove(key, pending);
+    }
+  }
+
+  /**
+   * Set how long resolved DID documents are kept for. A zero duration disables caching.
+   */
+  public static void setTtl(Duration ttl) {
+    DidDocumentCache.ttl = ttl;
+  }
+
+  /**
+   * Set how long definitively failed resolutions are kept for. A zero duration disables
+   * negative caching.
+   */
+  public static void setNegativeTtl(Duration negativeTtl) {
+    DidDocumentCache.negativeTtl = negativeTtl;
+  }
+
+  public static void reset() {
+    cache.invalidateAll();
+  }
+
+  static String withoutFragment(URI did) {
+    String value = did.toString();
+    int fragment = value.indexOf('#');
+    return fragment < 0 ? value : value.substring(0, fragment);
+  }
+
+  /**
+   * Resolves a DID document.
+   */
+  @FunctionalInterface
+  public interface Loader {
+    JsonObject load() throws DidResolutionException;
+  }
+
+  private static final class Key {
+    final String did;
+    final Object scope;
+
+    Key(String did, Object scope) {
+      this.did = did;
+      this.scope = scope;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) return true;
+      if (!(obj instanceof Key)) return false;
+      Key other = (Key) obj;
+      return did.equals(other.did) && Objects.equals(scope, other.scope);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(did, scope);
+    }
+  }
+
+  private static final class Entry {
+    final JsonObject document;
+    final DidResolutionException failure;
+    final long expiresAt;
+
+    Entry(JsonObject document, DidResolutionException failure, long expiresAt) {
+      this.document = document;
+      this.failure = failure;
+      this.expiresAt = expiresAt;
+    }
+
+    JsonObject get() throws DidResolutionException {
+      if (failure != null) {
+        throw new DidResolutionException(failure.getMessage(), failure, failure.isDefinitive());
+      }
+      return document;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package org.oneedtech.inspect.vc.probe.did;
+
+import java.net.URI;
+import java.util.Base64;
+import java.util.Optional;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+
+/**
+ * Reads keys from DIDs and DID documents, shared by the DidResolver implementations.
+ */
+final class DidDocuments {
+
+  private DidDocuments() {}
+
+  /**
+   * Read the key of DID methods that carry it in the DID itself (did:key and did:jwk).
+   *
+   * @return false if the DID needs a DID document to be resolved
+   */
+  static boolean resolveInline(URI did, DidResolution.Builder builder) {
+    if (did.getSchemeSpecificPart().startsWith("key:")) {
+      builder.publicKeyMultibase(did.getSchemeSpecificPart().substring("key:".length()));
+      return true;
+    } else if (did.getSchemeSpecificPart().startsWith("jwk:")) {
+      byte[] decodedJwk = Base64.getUrlDecoder().decode(did.getSchemeSpecificPart().substring("jwk:".length()));
+      builder.publicKeyJwk(new String(decodedJwk));
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Extract the key of the verification method the given DID URL refers to, which must also be
+   * an assertion method.
+   */
+  static void extractFromVerificationMethod(URI did, JsonObject didDocument, DidResolution.Builder builder) throws DidResolutionException {
+    JsonArray assertionMethod = didDocument.getJsonArray("assertionMethod");
+
+    if (assertionMethod == null) {
+      throw new DidResolutionException(
+        "Did Document from " + did + " doesn't have a list of assertion methods");
+    } else {
+      Boolean anyMatch = false;
+      for (int i = 0; i < assertionMethod.size(); i++) {
+        String assertionMethodValue = assertionMethod.getString(i);
+        if (assertionMethodValue.equals(did.toString())) {
+          anyMatch = true;
+          break;
+        }
+      }
+      if (!anyMatch) {
+        throw new DidResolutionException(
+            "Assertion method " + did + " not found in DID document.");
+      }
+    }
+
+    // get keys from "verificationMethod"
+    JsonArray keyVerificationMethod =
+        didDocument.getJsonArray("verificationMethod");
+    if (keyVerificationMethod == null) {
+      throw new DidResolutionException(
+        "Did Document from " + did + " doesn't have a list of verification methods");
+    }
+    Optional<JsonValue> verificationMethodMaybe =
+        keyVerificationMethod.stream()
+            .filter(n -> n.asJsonObject().getString("id").equals(did.toString()))
+            .findFirst();
+    if (verificationMethodMaybe.isEmpty()) {
+      throw new DidResolutionException(
+          "Verification method " + did + " not found in DID document.");
+    }
+    JsonObject verificationMethod = verificationMethodMaybe.get().asJsonObject();
+    // assuming a Ed25519VerificationKey2020 document
+    builder
+            .controller(verificationMethod.getString("controller"));
+    // check JWK
+    if (verificationMethod.containsKey("publicKeyJwk"))
+      builder.publicKeyJwk(verificationMethod.getJsonObject("publicKeyJwk").toString());
+    // check Multibase
+    if (verificationMethod.containsKey("publicKeyMultibase"))
+      builder.publicKeyMultibase(verificationMethod.getString("publicKeyMultibase"));
+
+  }
+}
@@ -4,12 +4,31 @@ public class DidResolutionException extends Exception {
 
   private static final long serialVersionUID = 1L;
 
+  private final boolean definitive;
+
   public DidResolutionException(String message) {
-    super(message);
+    this(message, null, false);
   }
 
   public DidResolutionException(String message, Throwable cause) {
+    this(message, cause, false);
+  }
+
+  /**
+   * @param definitive whether resolving again would fail the same way, as when the DID
+   *     document does not exist or is invalid, rather than because of a transient failure
+   *     such as a network error or a timeout
+   */
+  public DidResolutionException(String message, Throwable cause, boolean definitive) {
     super(message, cause);
+    this.definitive = definitive;
+  }
+
+  /**
+   * Whether resolving again would fail the same way. Only definitive failures are cached.
+   */
+  public boolean isDefinitive() {
+    return definitive;
   }
 
 }
@@ -0,0 +1,223 @@
+package org.oneedtech.inspect.vc.probe.did;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import jakarta.json.Json;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+
+/**
+ * DID documents of known issuers, read from a local directory or bundle file,
+ * keyed by DID. A directory is searched recursively for .json and .jsonld files.
+ * Each file holds a DID document, an array of DID documents, or an object whose
+ * values are DID documents. The documents can be reloaded on a schedule.
+ */
+public class LocalDidDocuments implements Closeable {
+  private static final Map<SharedKey, LocalDidDocuments> shared = new ConcurrentHashMap<>();
+
+  private final Path source;
+  private final boolean isShared;
+  private volatile Map<String, JsonObject> documents = Collections.emptyMap();
+  private ScheduledFuture<?> refresh;
+
+  private LocalDidDocuments(Path source, boolean isShared) {
+    this.source = source;
+    this.isShared = isShared;
+  }
+
+  /**
+   * Load the DID documents of the given directory or bundle file.
+   */
+  public static LocalDidDocuments load(Path source) throws IOException {
+    LocalDidDocuments documents = new LocalDidDocuments(source, false);
+    documents.reload();
+    return documents;
+  }
+
+  /**
+   * Get the documents of the given directory or bundle file, loading them on first
+   * use. Documents are shared by all callers of the same source and refresh interval.
+   * Closing shared documents has no effect.
+   *
+   * @param refreshInterval how often to reload the documents, or null to never reload them
+   */
+  public static LocalDidDocuments shared(Path source, Duration refreshInterval) {
+    SharedKey key = new SharedKey(source.toAbsolutePath().normalize(), refreshInterval);
+    return shared.computeIfAbsent(key, k -> {
+      try {
+        LocalDidDocuments documents = new LocalDidDocuments(k.source, true);
+        documents.reload();
+        if (refreshInterval != null) {
+          documents.schedule(refreshInterval);
+        }
+        return documents;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  /**
+   * Get the DID document of the given DID or DID URL, if known.
+   */
+  public Optional<JsonObject> get(URI did) {
+    return Optional.ofNullable(documents.get(DidDocumentCache.withoutFragment(did)));
+  }
+
+  /**
+   * The number of known DID documents.
+   */
+  public int size() {
+    return documents.size();
+  }
+
+  public Path getSource() {
+    return source;
+  }
+
+  /**
+   * Read the documents again. The previous documents are kept if reading fails.
+   */
+  public void reload() throws IOException {
+    Map<String, JsonObject> loaded = new HashMap<>();
+    if (Files.isDirectory(source)) {
+      List<Path> files;
+      try (Stream<Path> walk = Files.walk(source)) {
+        files = walk
+            .filter(Files::isRegularFile)
+            .filter(file -> file.toString().endsWith(".json") || file.toString().endsWith(".jsonld"))
+            .sorted()
+            .collect(Collectors.toCollection(ArrayList::new));
+      }
+      for (Path file : files) {
+        read(file, loaded);
+      }
+    } else {
+      read(source, loaded);
+    }
+    documents = Collections.unmodifiableMap(loaded);
+    logger.info("Loaded {} DID documents from {}", loaded.size(), source);
+  }
+
+  /**
+   * Reload the documents at the given interval, replacing any previous schedule.
+   *
+   * @throws IllegalStateException if the documents are shared, and so refreshed at the
+   *     interval they are shared with
+   */
+  public synchronized void scheduleRefresh(Duration interval) {
+    if (isShared) {
+      throw new IllegalStateException("The refresh interval of shared DID documents is fixed");
+    }
+    schedule(interval);
+  }
+
+  private synchronized void schedule(Duration interval) {
+    if (refresh != null) {
+      refresh.cancel(false);
+    }
+    refresh = scheduler.scheduleWithFixedDelay(() -> {
+      try {
+        reload();
+      } catch (Exception e) {
+        logger.warn("Could not reload DID documents from {}: {}", source, e.getMessage());
+      }
+    }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stop refreshing the documents. Shared documents are left refreshing, since other
+   * callers may still use them.
+   */
+  @Override
+  public synchronized void close() {
+    if (!isShared && refresh != null) {
+      refresh.cancel(false);
+      refresh = null;
+    }
+  }
+
+  private static void read(Path file, Map<String, JsonObject> loaded) throws IOException {
+    try (Reader in = Files.newBufferedReader(file); JsonReader reader = Json.createReader(in)) {
+      add(reader.readValue(), loaded);
+    } catch (JsonException e) {
+      throw new IOException("Invalid DID document file " + file + ": " + e.getMessage(), e);
+    }
+  }
+
+  private static void add(JsonValue value, Map<String, JsonObject> loaded) {
+    if (value.getValueType() == JsonValue.ValueType.ARRAY) {
+      for (JsonValue item : value.asJsonArray()) {
+        add(item, loaded);
+      }
+    } else if (value.getValueType() == JsonValue.ValueType.OBJECT) {
+      JsonObject object = value.asJsonObject();
+      JsonValue id = object.get("id");
+      if (id != null && id.getValueType() == JsonValue.ValueType.STRING) {
+        loaded.put(((JsonString) id).getString(), object);
+      } else {
+        for (JsonValue item : object.values()) {
+          add(item, loaded);
+        }
+      }
+    }
+  }
+
+  /**
+   * The source and refresh interval documents are shared by.
+   */
+  private static final class SharedKey {
+    final Path source;
+    final Duration refreshInterval;
+
+    SharedKey(Path source, Duration refreshInterval) {
+      this.source = source;
+      this.refreshInterval = refreshInterval;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof SharedKey)) return false;
+      SharedKey key = (SharedKey) other;
+      return source.equals(key.source) && Objects.equals(refreshInterval, key.refreshInterval);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(source, refreshInterval);
+    }
+  }
+
+  private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("did-documents-refresh-%d").build());
+  private static final Logger logger = LogManager.getLogger();
+}
@@ -0,0 +1,49 @@
+package org.oneedtech.inspect.vc.probe.did;
+
+import java.net.URI;
+import java.util.Optional;
+
+import com.apicatalog.jsonld.loader.DocumentLoader;
+
+import jakarta.json.JsonObject;
+
+/**
+ * A DidResolver that resolves DIDs from {@link LocalDidDocuments}, without
+ * network access, and passes unknown DIDs on to a fallback resolver.
+ */
+public class LocalDidResolver implements DidResolver {
+  private final LocalDidDocuments documents;
+  private final DidResolver fallback;
+
+  /**
+   * @param fallback the resolver of DIDs without a local document, or null to fail on those
+   */
+  public LocalDidResolver(LocalDidDocuments documents, DidResolver fallback) {
+    this.documents = documents;
+    this.fallback = fallback;
+  }
+
+  /**
+   * Chain the given local documents, if any, in front of the given resolver.
+   */
+  public static DidResolver wrap(LocalDidDocuments documents, DidResolver fallback) {
+    return documents == null ? fallback : new LocalDidResolver(documents, fallback);
+  }
+
+  @Override
+  public DidResolution resolve(URI did, DocumentLoader documentLoader) throws DidResolutionException {
+    DidResolution.Builder builder = DidResolution.builder();
+    if (DidDocuments.resolveInline(did, builder)) {
+      return builder.build();
+    }
+    Optional<JsonObject> didDocument = documents.get(did);
+    if (didDocument.isPresent()) {
+      DidDocuments.extractFromVerificationMethod(did, didDocument.get(), builder);
+      return builder.build();
+    }
+    if (fallback == null) {
+      throw new DidResolutionException("No local DID document found for did: " + did);
+    }
+    return fallback.resolve(did, documentLoader);
+  }
+}
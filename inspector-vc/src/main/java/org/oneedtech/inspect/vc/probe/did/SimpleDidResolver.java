@@ -5,11 +5,11 @@ import com.apicatalog.jsonld.loader.DocumentLoader;
 import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
 
 import jakarta.json.Json;
-import jakarta.json.JsonArray;
+import jakarta.json.JsonException;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonReader;
 import jakarta.json.JsonStructure;
-import jakarta.json.JsonValue;
+import org.oneedtech.inspect.vc.util.CachingDocumentLoader;
 import org.velocitynetwork.contracts.VelocityNetworkDidResolver;
 import uniresolver.client.ClientUniResolver;
 import uniresolver.result.ResolveRepresentationResult;
@@ -20,16 +20,14 @@ import java.net.URISyntaxException;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
-import org.oneedtech.inspect.vc.probe.did.DidResolution.Builder;
-
 public class SimpleDidResolver implements DidResolver {
 
   private final ClientUniResolver uniResolver;
+  private final String uniResolverUrl;
   private final VelocityNetworkDidResolver velocityNetworkDidResolver;
 
 
@@ -37,6 +35,9 @@ public class SimpleDidResolver implements DidResolver {
     this.uniResolver = new ClientUniResolver();
     if (uniResolverUrl != null && !uniResolverUrl.isEmpty()) {
       this.uniResolver.setResolveUri(uniResolverUrl);
+      this.uniResolverUrl = uniResolverUrl;
+    } else {
+      this.uniResolverUrl = null;
     }
     this.velocityNetworkDidResolver = velocityNetworkDidResolver;
   }
@@ -45,13 +46,45 @@ public class SimpleDidResolver implements DidResolver {
   public DidResolution resolve(URI did, DocumentLoader documentLoader)
       throws DidResolutionException {
     DidResolution.Builder builder = DidResolution.builder();
-    // resolve did using universal did resolver
-    if (did.getSchemeSpecificPart().startsWith("key:")) {
-      builder.publicKeyMultibase(did.getSchemeSpecificPart().substring("key:".length()));
-    } else if (did.getSchemeSpecificPart().startsWith("jwk:")) {
-      byte[] decodedJwk = Base64.getUrlDecoder().decode(did.getSchemeSpecificPart().substring("jwk:".length()));
-      builder.publicKeyJwk(new String(decodedJwk));
-    } else if (did.getSchemeSpecificPart().startsWith("web:")) {
+    if (!DidDocuments.resolveInline(did, builder)) {
+      JsonObject didDocument = resolveDocument(did, documentLoader);
+      DidDocuments.extractFromVerificationMethod(did, didDocument, builder);
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * Resolve the DID document of the given DID, or DID URL. Documents are shared
+   * through the {@link DidDocumentCache} with the resolutions made with the same
+   * configuration.
+   */
+  public JsonObject resolveDocument(URI did, DocumentLoader documentLoader)
+      throws DidResolutionException {
+    return DidDocumentCache.get(did, scope(did, documentLoader), () -> loadDocument(did, documentLoader));
+  }
+
+  /**
+   * The configuration the document of the given DID depends on: the local domains of
+   * the document loader for did:web, the velocity resolver for did:velocity, and the
+   * universal resolver url otherwise.
+   */
+  private Object scope(URI did, DocumentLoader documentLoader) {
+    if (did.getSchemeSpecificPart().startsWith("web:")) {
+      // loaders are created per run, so only the local domains of ours identify them
+      return documentLoader instanceof CachingDocumentLoader
+          ? ((CachingDocumentLoader) documentLoader).getLocalDomains()
+          : documentLoader;
+    }
+    if (did.getSchemeSpecificPart().startsWith("velocity:")) {
+      return velocityNetworkDidResolver;
+    }
+    return uniResolverUrl;
+  }
+
+  private JsonObject loadDocument(URI did, DocumentLoader documentLoader)
+      throws DidResolutionException {
+    if (did.getSchemeSpecificPart().startsWith("web:")) {
       String methodSpecificId = did.getRawSchemeSpecificPart().substring("web:".length());
 
       // read algorithm at https://w3c-ccg.github.io/did-method-web/#read-resolve.
@@ -74,7 +107,7 @@ public class SimpleDidResolver implements DidResolver {
       try {
         uri = new URI("https://" + methodSpecificId);
       } catch (URISyntaxException e) {
-        throw new DidResolutionException("Invalid URI: " + methodSpecificId);
+        throw new DidResolutionException("Invalid URI: " + methodSpecificId, e, true);
       }
 
       // 4. If no path has been specified in the URL, append /.well-known.
@@ -96,6 +129,7 @@ public class SimpleDidResolver implements DidResolver {
         Document keyDocument = documentLoader.loadDocument(uri, new DocumentLoaderOptions());
         keyStructure = keyDocument.getJsonContent();
       } catch (Exception e) {
+        // not cached, as the document loader does not tell a missing document from a network error
         throw new DidResolutionException(
             "Key document not found at "
                 + did
@@ -111,91 +145,43 @@ public class SimpleDidResolver implements DidResolver {
                 + did
                 + ". URI: "
                 + uri
-                + " doesn't return a valid document. Reason: The document is empty.");
+                + " doesn't return a valid document. Reason: The document is empty.",
+            null, true);
       }
 
-      JsonObject didDocument = keyStructure.get().asJsonObject();
-      this.extractFromVerificationMethod(did, didDocument, builder);
-
+      return keyStructure.get().asJsonObject();
     }
     else if (did.getSchemeSpecificPart().startsWith("velocity:")) {
       try {
-        JsonObject didDocument = velocityNetworkDidResolver.resolveDid(did.toString());
-        this.extractFromVerificationMethod(did, didDocument, builder);
+        return velocityNetworkDidResolver.resolveDid(did.toString());
       } catch (Exception e) {
         throw new DidResolutionException("Error resolving did: " + did + ": " + e.getLocalizedMessage(), e);
       }
     }
     else {
+      // resolve did using universal did resolver
       try {
         Map<String, Object> resolveOptions = new HashMap<>();
         resolveOptions.put("accept", "application/did+ld+json");
 
-        ResolveRepresentationResult resolveRepresentationResult = uniResolver.resolveRepresentation(did.toString(), resolveOptions);
+        ResolveRepresentationResult resolveRepresentationResult =
+            uniResolver.resolveRepresentation(DidDocumentCache.withoutFragment(did), resolveOptions);
         if (resolveRepresentationResult.getDidDocumentStream() == null) {
-          throw new DidResolutionException("No did document found for did: " + did);
+          throw new DidResolutionException("No did document found for did: " + did, null, true);
         }
 
         // read resolveRepresentationResult.getDidDocumentStreamAsString() as JSON Object
         JsonReader jsonReader = Json.createReader(new StringReader(new String(resolveRepresentationResult.getDidDocumentStream(), StandardCharsets.UTF_8)));
-        JsonObject didDocument = jsonReader.readObject();
-
-        this.extractFromVerificationMethod(did, didDocument, builder);
-
+        try {
+          return jsonReader.readObject();
+        } catch (JsonException e) {
+          throw new DidResolutionException("Invalid did document for did: " + did, e, true);
+        }
+      } catch (DidResolutionException e) {
+        throw e;
       } catch (Exception e) {
         throw new DidResolutionException("Error solvig did: " + did, e);
       }
     }
-
-    return builder.build();
-  }
-
-  private void extractFromVerificationMethod(URI did, JsonObject didDocument, Builder builder) throws DidResolutionException {
-    JsonArray assertionMethod = didDocument.getJsonArray("assertionMethod");
-
-    if (assertionMethod == null) {
-      throw new DidResolutionException(
-        "Did Document from " + did + " doesn't have a list of assertion methods");
-    } else {
-      Boolean anyMatch = false;
-      for (int i = 0; i < assertionMethod.size(); i++) {
-        String assertionMethodValue = assertionMethod.getString(i);
-        if (assertionMethodValue.equals(did.toString())) {
-          anyMatch = true;
-          break;
-        }
-      }
-      if (!anyMatch) {
-        throw new DidResolutionException(
-            "Assertion method " + did + " not found in DID document.");
-      }
-    }
-
-    // get keys from "verificationMethod"
-    JsonArray keyVerificationMethod =
-        didDocument.getJsonArray("verificationMethod");
-    if (keyVerificationMethod == null) {
-      throw new DidResolutionException(
-        "Did Document from " + did + " doesn't have a list of verification methods");
-    }
-    Optional<JsonValue> verificationMethodMaybe =
-        keyVerificationMethod.stream()
-            .filter(n -> n.asJsonObject().getString("id").equals(did.toString()))
-            .findFirst();
-    if (verificationMethodMaybe.isEmpty()) {
-      throw new DidResolutionException(
-          "Verification method " + did + " not found in DID document.");
-    }
-    JsonObject verificationMethod = verificationMethodMaybe.get().asJsonObject();
-    // assuming a Ed25519VerificationKey2020 document
-    builder
-            .controller(verificationMethod.getString("controller"));
-    // check JWK
-    if (verificationMethod.containsKey("publicKeyJwk"))
-      builder.publicKeyJwk(verificationMethod.getJsonObject("publicKeyJwk").toString());
-    // check Multibase
-    if (verificationMethod.containsKey("publicKeyMultibase"))
-      builder.publicKeyMultibase(verificationMethod.getString("publicKeyMultibase"));
-
   }
 }
@@ -48,8 +48,7 @@ public class ValidationImagePropertyProbe extends ValidationPropertyProbe {
             }
 
             // check mime types
-            final Pattern pattern = Pattern.compile("(^data):([^,]{0,}?)?(base64)?,(.*$)");
-            final Matcher matcher = pattern.matcher(url);
+            final Matcher matcher = DATA_URI.matcher(url);
             if (matcher.matches()) {
                 MimeType mimeType = new MimeType(matcher.toMatchResult().group(2));
                 if (!allowedMimeTypes.contains(mimeType)) {
@@ -69,6 +68,7 @@ public class ValidationImagePropertyProbe extends ValidationPropertyProbe {
         return success("Image in node " + node + " is valid.", ctx);
     }
 
+    private static final Pattern DATA_URI = Pattern.compile("(^data):([^,]{0,}?)?(base64)?,(.*$)");
     private static final List<MimeType> allowedMimeTypes = List.of(MimeType.IMAGE_PNG, MimeType.IMAGE_SVG);
     public static final String ID = ValidationImagePropertyProbe.class.getSimpleName();
     public static final String TITLE = "Image Property Validation";
@@ -26,7 +26,7 @@ public class ValidationIssuerPropertyProbe extends ValidationPropertyProbe {
 
     @Override
     protected ReportItems validate(JsonNode node, RunContext ctx) {
-        if (!Pattern.compile("^http(s)?://.+", Pattern.CASE_INSENSITIVE).matcher(node.asText()).matches()) {
+        if (!HTTP_ID.matcher(node.asText()).matches()) {
             return buildResponse("Issuer Profile " + node.toString() + " not hosted with HTTP-based identifier."  +
                 "Many platforms can only handle HTTP(s)-hosted issuers.", ctx);
         }
@@ -40,6 +40,7 @@ public class ValidationIssuerPropertyProbe extends ValidationPropertyProbe {
         return error(msg, ctx);
     }
 
+    private static final Pattern HTTP_ID = Pattern.compile("^http(s)?://.+", Pattern.CASE_INSENSITIVE);
     public static final String ID = ValidationIssuerPropertyProbe.class.getSimpleName();
     public static final String TITLE = "Issuer Property Validation";
 
@@ -0,0 +1,106 @@
+package org.oneedtech.inspect.vc.probe.validation;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.oneedtech.inspect.core.probe.RunContext;
+import org.oneedtech.inspect.core.report.ReportItems;
+import org.oneedtech.inspect.vc.Assertion;
+import org.oneedtech.inspect.vc.Validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A table of Open Badges 2.0 validations compiled into their probes. The plan is immutable and
+ * may be shared by concurrent runs: the probes of each credential type are created once, and the
+ * properties of the validated node are looked up in a single pass over its fields.
+ */
+public final class ValidationPlan {
+    private final List<ValidationPropertyProbe> probes;
+    private final Map<String, Integer> slots;
+    private final int[] probeSlots;
+
+    private ValidationPlan(String type, String title, List<Validation> validations, boolean fullValidate) {
+        List<ValidationPropertyProbe> probes = new ArrayList<>(validations.size());
+        Map<String, Integer> slots = new HashMap<>();
+        this.probeSlots = new int[validations.size()];
+        for (int i = 0; i < validations.size(); i++) {
+            Validation validation = validations.get(i);
+            probes.add(ValidationPropertyProbeFactory.of(type, title, validation, fullValidate));
+            probeSlots[i] = slots.computeIfAbsent(validation.getName(), name -> slots.size());
+        }
+        this.probes = List.copyOf(probes);
+        this.slots = Map.copyOf(slots);
+    }
+
+    /**
+     * Compile the given validations.
+     * @param type credential type name the probes report for
+     * @param title title of the probes, where their type has no title of its own
+     * @param validations the validations, in the order their probes run
+     * @param fullValidate whether absent optional properties are checked
+     */
+    public static ValidationPlan of(String type, String title, List<Validation> validations, boolean fullValidate) {
+        return new ValidationPlan(type, title, validations, fullValidate);
+    }
+
+    /**
+     * The compiled validations of the given credential type.
+     */
+    public static ValidationPlan of(Assertion.Type type) {
+        return plans.get(type);
+    }
+
+    public List<ValidationPropertyProbe> getProbes() {
+        return probes;
+    }
+
+    /**
+     * Validate the properties of a node. The probes run lazily, in order, as the results are iterated,
+     * so callers may stop at the first broken result.
+     * @param node node holding the properties
+     * @param ctx associated run context
+     */
+    public Iterable<ReportItems> run(JsonNode node, RunContext ctx) {
+        JsonNode[] values = new JsonNode[slots.size()];
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                Integer slot = slots.get(field.getKey());
+                if (slot != null) {
+                    values[slot] = field.getValue();
+                }
+            }
+        }
+
+        return () -> new Iterator<ReportItems>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < probes.size();
+            }
+
+            @Override
+            public ReportItems next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int i = next++;
+                return probes.get(i).run(node, values[probeSlots[i]], ctx);
+            }
+        };
+    }
+
+    private static final Map<Assertion.Type, ValidationPlan> plans = new EnumMap<>(Assertion.Type.class);
+    static {
+        Assertion.validationMap.forEach((type, validations) ->
+            plans.put(type, of(type.toString(), "Properties Validation", validations, true)));
+    }
+}
@@ -4,6 +4,8 @@ import static org.oneedtech.inspect.vc.Assertion.ValueType.DATA_URI;
 import static org.oneedtech.inspect.vc.Assertion.ValueType.DATA_URI_OR_URL;
 import static org.oneedtech.inspect.vc.Assertion.ValueType.URL;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -24,7 +26,6 @@ import org.oneedtech.inspect.vc.resource.UriResourceFactory;
 import org.oneedtech.inspect.vc.util.JsonNodeUtil;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Validator for properties of type other than ValueType.RDF_TYPE in Open Badges 2.0 types
@@ -34,6 +35,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class ValidationPropertyProbe extends PropertyProbe {
     protected final Validation validation;
     protected final boolean fullValidate;
+    // compiled on first use, as expected types may refer back to the type being validated
+    private volatile ValidationPlan prerequisitesPlan;
+    private volatile ValidationPlan expectedTypesPlan;
 
     public ValidationPropertyProbe(String title, String credentialType, Validation validation) {
         this(ID, title, credentialType, validation, true);
@@ -134,8 +138,7 @@ public class ValidationPropertyProbe extends PropertyProbe {
                         }
                         return error("Node " + node.toString() + " has " + validation.getName() +" property value `" + childNode.toString() + "` that appears not to be in URI format", ctx);
                     } else {
-                        ObjectMapper mapper = (ObjectMapper) ctx.get(Key.JACKSON_OBJECTMAPPER);
-                        JsonNode resolvedNode = mapper.readTree(resolved.getJson());
+                        JsonNode resolvedNode = resolved.getNode();
 
                         // validate expected node class
                         result = new ReportItems(List.of(result, validateExpectedTypes(resolvedNode, ctx)));
@@ -150,32 +153,34 @@ public class ValidationPropertyProbe extends PropertyProbe {
     }
 
     private ReportItems validatePrerequisites(JsonNode node, RunContext ctx) {
-        List<ReportItems> results = validation.getPrerequisites().stream()
-        .map(v -> ValidationPropertyProbeFactory.of(validation.getName(), TITLE, v, validation.isFullValidate()))
-        .map(probe -> {
-            try {
-                return probe.run(node, ctx);
-            } catch (Exception e) {
-                return ReportUtil.onProbeException(Probe.ID.NO_UNCAUGHT_EXCEPTIONS, null, "ValidationPropertyProbe validation", e);
-            }
-        })
-        .collect(Collectors.toList());
-
-        return new ReportItems(results);
+        ValidationPlan plan = prerequisitesPlan;
+        if (plan == null) {
+            prerequisitesPlan = plan = ValidationPlan.of(validation.getName(), TITLE, validation.getPrerequisites(), validation.isFullValidate());
+        }
+        return runPlan(plan, node, ctx);
     }
 
     private ReportItems validateExpectedTypes(JsonNode node, RunContext ctx) {
-        List<ReportItems> results = validation.getExpectedTypes().stream()
-        .flatMap(type -> type.getValidations().stream())
-        .map(v -> ValidationPropertyProbeFactory.of(validation.getName(), TITLE, v, validation.isFullValidate()))
-        .map(probe -> {
+        ValidationPlan plan = expectedTypesPlan;
+        if (plan == null) {
+            List<Validation> validations = validation.getExpectedTypes().stream()
+                .flatMap(type -> type.getValidations().stream())
+                .collect(Collectors.toList());
+            expectedTypesPlan = plan = ValidationPlan.of(validation.getName(), TITLE, validations, validation.isFullValidate());
+        }
+        return runPlan(plan, node, ctx);
+    }
+
+    private static ReportItems runPlan(ValidationPlan plan, JsonNode node, RunContext ctx) {
+        List<ReportItems> results = new ArrayList<>();
+        Iterator<ReportItems> iterator = plan.run(node, ctx).iterator();
+        while (iterator.hasNext()) {
             try {
-                return probe.run(node, ctx);
+                results.add(iterator.next());
             } catch (Exception e) {
-                return ReportUtil.onProbeException(Probe.ID.NO_UNCAUGHT_EXCEPTIONS, null, "ValidationPropertyProbe validation", e);
+                results.add(ReportUtil.onProbeException(Probe.ID.NO_UNCAUGHT_EXCEPTIONS, null, "ValidationPropertyProbe validation", e));
             }
-        })
-        .collect(Collectors.toList());
+        }
         return new ReportItems(results);
     }
 
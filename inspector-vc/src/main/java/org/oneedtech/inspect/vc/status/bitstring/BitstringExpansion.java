@@ -0,0 +1,201 @@
+package org.oneedtech.inspect.vc.status.bitstring;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import com.apicatalog.multibase.MultibaseDecoder;
+
+/**
+ * The Bitstring Expansion Algorithm (multibase-decode, then GZIP-decompress) of
+ * https://w3c.github.io/vc-bitstring-status-list/#bitstring-expansion-algorithm,
+ * with a cursor that stops inflating once the requested bytes have been
+ * produced. The uncompressed length is read from the GZIP trailer (ISIZE), so
+ * length checks do not need the expanded list. ISIZE is untrusted: full expansion
+ * grows its buffer with the output, up to ISIZE, and fails on any other length.
+ */
+public final class BitstringExpansion {
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int CURSOR_BUFFER_SIZE = 16 * 1024;
+  private static final int INITIAL_SIZE = 256 * 1024;
+
+  /**
+   * The largest expanded bitstring, 512M entries of one bit.
+   */
+  public static final int MAX_EXPANDED_SIZE = 64 * 1024 * 1024;
+
+  // GZIP header flags, see RFC 1952
+  private static final int FHCRC = 2;
+  private static final int FEXTRA = 4;
+  private static final int FNAME = 8;
+  private static final int FCOMMENT = 16;
+
+  private BitstringExpansion() {}
+
+  /**
+   * Multibase-decode an encodedList into its GZIP-compressed bitstring.
+   */
+  public static byte[] decode(String encodedList) {
+    return MultibaseDecoder.getInstance().decode(encodedList);
+  }
+
+  /**
+   * The length in bytes of the uncompressed bitstring, as recorded in the GZIP trailer.
+   */
+  public static long uncompressedSize(byte[] compressed) throws IOException {
+    headerLength(compressed);
+    int n = compressed.length;
+    return (compressed[n - 4] & 0xffL)
+        | (compressed[n - 3] & 0xffL) << 8
+        | (compressed[n - 2] & 0xffL) << 16
+        | (compressed[n - 1] & 0xffL) << 24;
+  }
+
+  /**
+   * Expand the whole compressed bitstring.
+   * @throws ZipException if the expanded bitstring is larger than {@link #MAX_EXPANDED_SIZE}
+   * or its length is not the one recorded in the GZIP trailer
+   */
+  public static byte[] expand(byte[] compressed) throws IOException {
+    long size = uncompressedSize(compressed);
+    if (size > MAX_EXPANDED_SIZE) {
+      throw new ZipException("Expanded bitstring of " + size + " bytes is too large");
+    }
+    byte[] out = new byte[(int) Math.min(size, INITIAL_SIZE)];
+    byte[] overflow = new byte[1];
+    int length = 0;
+    Inflater inflater = inflater(compressed);
+    try {
+      while (!inflater.finished()) {
+        int n;
+        if (length < out.length) {
+          n = inflater.inflate(out, length, out.length - length);
+          length += n;
+        } else if (length < size) {
+          out = Arrays.copyOf(out, (int) Math.min(2L * out.length, size));
+          continue;
+        } else if ((n = inflater.inflate(overflow)) > 0) {
+          throw new ZipException("Expanded bitstring is longer than its GZIP trailer records");
+        }
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new EOFException("Unexpected end of GZIP stream");
+        }
+      }
+    } catch (DataFormatException e) {
+      throw new ZipException(e.getMessage());
+    } finally {
+      inflater.end();
+    }
+    if (length != size) {
+      throw new ZipException("Expanded bitstring is shorter than its GZIP trailer records");
+    }
+
+    CRC32 crc = new CRC32();
+    crc.update(out, 0, length);
+    int n = compressed.length;
+    long expected = (compressed[n - 8] & 0xffL)
+        | (compressed[n - 7] & 0xffL) << 8
+        | (compressed[n - 6] & 0xffL) << 16
+        | (compressed[n - 5] & 0xffL) << 24;
+    if (crc.getValue() != expected) {
+      throw new ZipException("Corrupt GZIP trailer");
+    }
+    return out;
+  }
+
+  /**
+   * Open a cursor over the expanded bitstring, for reading bytes at
+   * nondecreasing offsets in a single pass.
+   */
+  public static Cursor cursor(byte[] compressed) throws IOException {
+    return new Cursor(inflater(compressed));
+  }
+
+  /**
+   * Reads an expanded bitstring at nondecreasing byte offsets, inflating no
+   * further than the last byte read.
+   */
+  public static final class Cursor implements AutoCloseable {
+    private final Inflater inflater;
+    private final byte[] buffer = new byte[CURSOR_BUFFER_SIZE];
+    private long start;
+    private int length;
+
+    private Cursor(Inflater inflater) {
+      this.inflater = inflater;
+    }
+
+    public int byteAt(long offset) throws IOException {
+      if (offset < start) {
+        throw new IllegalArgumentException("Cursor offsets must not decrease");
+      }
+      try {
+        while (offset >= start + length) {
+          start += length;
+          length = inflater.inflate(buffer);
+          if (length == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+            throw new EOFException("Unexpected end of GZIP stream");
+          }
+        }
+      } catch (DataFormatException e) {
+        throw new ZipException(e.getMessage());
+      }
+      return buffer[(int) (offset - start)] & 0xff;
+    }
+
+    @Override
+    public void close() {
+      inflater.end();
+    }
+  }
+
+  private static Inflater inflater(byte[] compressed) throws IOException {
+    int header = headerLength(compressed);
+    Inflater inflater = new Inflater(true);
+    inflater.setInput(compressed, header, compressed.length - header);
+    return inflater;
+  }
+
+  private static int headerLength(byte[] compressed) throws IOException {
+    if (compressed.length < 18
+        || (compressed[0] & 0xff) != 0x1f
+        || (compressed[1] & 0xff) != 0x8b) {
+      throw new ZipException("Not in GZIP format");
+    }
+    if (compressed[2] != 8) {
+      throw new ZipException("Unsupported compression method");
+    }
+    int flags = compressed[3] & 0xff;
+    int position = 10;
+    if ((flags & FEXTRA) != 0) {
+      position += 2 + ((compressed[position] & 0xff) | (compressed[position + 1] & 0xff) << 8);
+    }
+    if ((flags & FNAME) != 0) {
+      position = skipZeroTerminated(compressed, position);
+    }
+    if ((flags & FCOMMENT) != 0) {
+      position = skipZeroTerminated(compressed, position);
+    }
+    if ((flags & FHCRC) != 0) {
+      position += 2;
+    }
+    if (position > compressed.length - 8) {
+      throw new EOFException("Unexpected end of GZIP header");
+    }
+    return position;
+  }
+
+  private static int skipZeroTerminated(byte[] compressed, int position) throws IOException {
+    while (position < compressed.length && compressed[position] != 0) {
+      position++;
+    }
+    if (position >= compressed.length) {
+      throw new EOFException("Unexpected end of GZIP header");
+    }
+    return position + 1;
+  }
+}
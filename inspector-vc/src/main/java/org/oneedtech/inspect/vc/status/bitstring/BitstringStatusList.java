@@ -0,0 +1,109 @@
+package org.oneedtech.inspect.vc.status.bitstring;
+
+import java.io.IOException;
+
+/**
+ * An expanded bitstring status list. Entries are statusSize bits wide and read
+ * left to right, the most significant bit of the first byte being bit 0, as in
+ * https://w3c.github.io/vc-bitstring-status-list/#bitstring-encoding.
+ */
+public class BitstringStatusList {
+  private final byte[] bitstring;
+
+  public BitstringStatusList(byte[] bitstring) {
+    this.bitstring = bitstring;
+  }
+
+  /**
+   * Multibase-decode and expand an encodedList.
+   */
+  public static BitstringStatusList decode(String encodedList) throws IOException {
+    return new BitstringStatusList(BitstringExpansion.expand(BitstringExpansion.decode(encodedList)));
+  }
+
+  /**
+   * The length of the bitstring in bytes.
+   */
+  public int length() {
+    return bitstring.length;
+  }
+
+  /**
+   * The number of entries of the given size the list holds.
+   */
+  public long size(int statusSize) {
+    return bitstring.length * 8L / statusSize;
+  }
+
+  /**
+   * Get the statusSize-bit value of the entry at the given index.
+   *
+   * @throws IndexOutOfBoundsException if the entry lies outside of the bitstring
+   */
+  public int get(long index, int statusSize) {
+    checkStatusSize(statusSize);
+    long offset = index * statusSize;
+    if (index < 0 || offset + statusSize > bitstring.length * 8L) {
+      throw new IndexOutOfBoundsException("Status list index " + index + " out of range");
+    }
+    int value = 0;
+    for (long bit = offset; bit < offset + statusSize; bit++) {
+      value = (value << 1) | ((bitstring[(int) (bit >>> 3)] >> (7 - (int) (bit & 7))) & 1);
+    }
+    return value;
+  }
+
+  /**
+   * Get the statusSize-bit values of the entries at the given ascending indices.
+   */
+  public int[] get(long[] sortedIndices, int statusSize) {
+    checkSorted(sortedIndices);
+    int[] values = new int[sortedIndices.length];
+    for (int i = 0; i < sortedIndices.length; i++) {
+      values[i] = get(sortedIndices[i], statusSize);
+    }
+    return values;
+  }
+
+  /**
+   * Get the statusSize-bit values of the entries at the given ascending indices
+   * directly from a compressed bitstring, in a single sequential pass that stops
+   * inflating after the last requested entry.
+   *
+   * @throws IndexOutOfBoundsException if an entry lies outside of the bitstring
+   */
+  public static int[] get(byte[] compressed, long[] sortedIndices, int statusSize) throws IOException {
+    checkStatusSize(statusSize);
+    checkSorted(sortedIndices);
+    long length = BitstringExpansion.uncompressedSize(compressed) * 8L;
+    int[] values = new int[sortedIndices.length];
+    try (BitstringExpansion.Cursor cursor = BitstringExpansion.cursor(compressed)) {
+      for (int i = 0; i < sortedIndices.length; i++) {
+        long offset = sortedIndices[i] * statusSize;
+        if (sortedIndices[i] < 0 || offset + statusSize > length) {
+          throw new IndexOutOfBoundsException("Status list index " + sortedIndices[i] + " out of range");
+        }
+        int value = 0;
+        for (long bit = offset; bit < offset + statusSize; bit++) {
+          value = (value << 1) | ((cursor.byteAt(bit >>> 3) >> (7 - (int) (bit & 7))) & 1);
+        }
+        values[i] = value;
+      }
+    }
+    return values;
+  }
+
+  private static void checkStatusSize(int statusSize) {
+    if (statusSize < 1 || statusSize > 31) {
+      throw new IllegalArgumentException("Unsupported statusSize " + statusSize);
+    }
+  }
+
+  private static void checkSorted(long[] indices) {
+    for (int i = 1; i < indices.length; i++) {
+      if (indices[i] < indices[i - 1]) {
+        throw new IllegalArgumentException("Status list indices must be sorted");
+      }
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package org.oneedtech.inspect.vc.status.bitstring;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+import org.oneedtech.inspect.vc.Credential;
+import org.oneedtech.inspect.vc.util.HttpCache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A threadsafe static cache of verified and expanded bitstring status lists,
+ * keyed by statusListCredential url. An entry expires at the validUntil (or
+ * expirationDate) of the status list credential, or after its ttl, whichever
+ * comes first. Lists without a ttl are kept for the default ttl.
+ *
+ * <p>The status list credentials themselves are kept as served, following their
+ * HTTP caching headers, so that a prefetch and the probe reading a list share
+ * one request.</p>
+ */
+public class BitstringStatusListCache {
+  private static final Cache<String, Entry> cache = CacheBuilder.newBuilder()
+      .maximumWeight(64L * 1024 * 1024)
+      .weigher((String url, Entry entry) -> entry.getStatusList().length())
+      .build();
+
+  private static final HttpCache<byte[]> credentials = new HttpCache<>(content -> content,
+      "application/ld+json, application/json;q=0.9, */*;q=0.1",
+      256, Duration.ofMinutes(1));
+
+  private static volatile Duration defaultTtl = Duration.ofMinutes(5);
+
+  // replaced by the tests to move time forward
+  static volatile Clock clock = Clock.systemUTC();
+
+  /**
+   * Get the status list cached for the given statusListCredential url, if present and not expired.
+   */
+  public static Optional<Entry> get(String url) {
+    Entry entry = cache.getIfPresent(url);
+    if (entry == null) return Optional.empty();
+    if (entry.getExpiresAt() <= clock.millis()) {
+      cache.invalidate(url);
+      return Optional.empty();
+    }
+    return Optional.of(entry);
+  }
+
+  /**
+   * Cache the expanded bitstring of a verified status list credential.
+   */
+  public static Entry put(String url, Credential statusListCredential, String statusPurpose, BitstringStatusList statusList) {
+    long now = clock.millis();
+    Entry entry = new Entry(statusPurpose, statusList, expiresAt(statusListCredential, now));
+    if (entry.getExpiresAt() > now) {
+      cache.put(url, entry);
+    }
+    return entry;
+  }
+
+  /**
+   * Get the status list credential at the given http or https url as served, fetching or
+   * revalidating it if necessary. The credential is not verified.
+   */
+  public static byte[] getCredential(URI url) throws IOException {
+    return credentials.get(url);
+  }
+
+  /**
+   * Whether the given verified status list credential may be cached at all.
+   */
+  public static boolean isCacheable(Credential statusListCredential) {
+    long now = clock.millis();
+    return expiresAt(statusListCredential, now) > now;
+  }
+
+  /**
+   * Set the time lists without a ttl are kept for. A zero duration disables caching of such lists.
+   */
+  public static void setDefaultTtl(Duration ttl) {
+    defaultTtl = ttl;
+  }
+
+  public static void reset() {
+    cache.invalidateAll();
+    credentials.invalidateAll();
+  }
+
+  static long expiresAt(Credential statusListCredential, long now) {
+    JsonNode json = statusListCredential.getJson();
+    long expiresAt = now + defaultTtl.toMillis();
+
+    // ttl is the number of milliseconds a status list may be cached for
+    JsonNode ttl = json.path("credentialSubject").get("ttl");
+    if (ttl != null && ttl.canConvertToLong()) {
+      expiresAt = now + ttl.asLong();
+    }
+
+    JsonNode validUntil = json.get(statusListCredential.getExpiresAtPropertyName());
+    if (validUntil != null && validUntil.isTextual()) {
+      try {
+        expiresAt = Math.min(expiresAt, ZonedDateTime.parse(validUntil.textValue()).toInstant().toEpochMilli());
+      } catch (Exception e) {
+        // do not cache lists with an unreadable expiration date
+        return now;
+      }
+    }
+    return expiresAt;
+  }
+
+  /**
+   * A verified status list: the statusPurpose of its credentialSubject and the expanded list.
+   */
+  public static class Entry {
+    private final String statusPurpose;
+    private final BitstringStatusList statusList;
+    private final long expiresAt;
+
+    Entry(String statusPurpose, BitstringStatusList statusList, long expiresAt) {
+      this.statusPurpose = statusPurpose;
+      this.statusList = statusList;
+      this.expiresAt = expiresAt;
+    }
+
+    public String getStatusPurpose() {
+      return statusPurpose;
+    }
+
+    public BitstringStatusList getStatusList() {
+      return statusList;
+    }
+
+    public long getExpiresAt() {
+      return expiresAt;
+    }
+  }
+}
@@ -1,26 +1,27 @@
 package org.oneedtech.inspect.vc.status.bitstring;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 import java.util.Optional;
-import java.util.zip.GZIPInputStream;
 
 import org.oneedtech.inspect.core.probe.Outcome;
 import org.oneedtech.inspect.core.probe.Probe;
 import org.oneedtech.inspect.core.probe.RunContext;
 import org.oneedtech.inspect.core.report.Report;
 import org.oneedtech.inspect.core.report.ReportItems;
+import org.oneedtech.inspect.util.resource.Resource;
 import org.oneedtech.inspect.util.resource.ResourceType;
+import org.oneedtech.inspect.util.resource.StringResource;
 import org.oneedtech.inspect.util.resource.UriResource;
 import org.oneedtech.inspect.vc.BitstringStatusListCredentialInspector;
 import org.oneedtech.inspect.vc.VerifiableCredential;
 import org.oneedtech.inspect.vc.probe.RunContextKey;
 
-import com.apicatalog.multibase.MultibaseDecoder;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.io.CharSource;
 
 /**
  * Follows algorithm defined at https://w3c.github.io/vc-bitstring-status-list/#validate-algorithm
@@ -45,8 +46,11 @@ public class BitstringStatusListProbe extends Probe<JsonNode> {
         credentialStatus.hasNonNull("statusSize")
             ? credentialStatus.get("statusSize").asInt()
             : 1; // indicates the size of the status entry in bits
-    if (statusSize < 0) {
-      return error("statusSize must be a non-negative integer", ctx);
+    if (statusSize < 1) {
+      return error("statusSize must be a positive integer", ctx);
+    }
+    if (statusSize > 31) {
+      return error("statusSize " + statusSize + " is not supported", ctx);
     }
 
     // 4. Dereference the statusListCredential URL, and ensure that all proofs verify successfully
@@ -56,122 +60,173 @@ public class BitstringStatusListProbe extends Probe<JsonNode> {
     } catch (Exception e) {
       return error("statusListCredential is not a valid URI", ctx);
     }
-    UriResource uriResource =
-        new UriResource(statusListCredentialUrl, null, List.of(ResourceType.JSON,
-						ResourceType.JSON_LD, ResourceType.JWT, ResourceType.VC_JSON_LD, ResourceType.VC_JWT));
-
-    BitstringStatusListCredentialInspector inspector =
-        new BitstringStatusListCredentialInspector.Builder()
-            .inject(RunContextKey.DID_RESOLVER, ctx.get(RunContextKey.DID_RESOLVER))
-            .build();
-
-    Report report = inspector.run(uriResource);
-    if (report.getOutcome() != Outcome.VALID) {
-      // the credential is not valid, return inspector report
-      return new ReportItems(report);
-    }
+    String url = statusListCredentialUrl.toString();
+    Optional<BitstringStatusListCache.Entry> cached = BitstringStatusListCache.get(url);
+    BitstringStatusList statusList; // the expanded list, if it is cached
+    byte[] compressed; // the compressed bitstring, if the list cannot be cached
+    long bitstringLength;
+    if (cached.isPresent()) {
+      // 5. Verify that the status purpose is equal to a statusPurpose value in the
+      // statusListCredential.
+      if (!cached.get().getStatusPurpose().equals(statusPurpose)) {
+        return statusPurposeMismatch(statusPurpose, cached.get().getStatusPurpose(), ctx);
+      }
+      statusList = cached.get().getStatusList();
+      compressed = null;
+      bitstringLength = statusList.length();
+    } else {
+      Resource resource = statusListResource(statusListCredentialUrl);
+
+      BitstringStatusListCredentialInspector inspector =
+          new BitstringStatusListCredentialInspector.Builder()
+              .inject(RunContextKey.DID_RESOLVER, ctx.get(RunContextKey.DID_RESOLVER))
+              .build();
+
+      Report report = inspector.run(resource);
+      if (report.getOutcome() != Outcome.VALID) {
+        // the credential is not valid, return inspector report
+        return new ReportItems(report);
+      }
 
-    Optional<VerifiableCredential> statusListCredentialMaybe =
-        report.getGeneratedObject(VerifiableCredential.ID);
-    if (statusListCredentialMaybe.isEmpty()) {
-      return exception("BitstringStatusListCredential not found in report", uriResource);
-    }
-    VerifiableCredential statusListCredential = statusListCredentialMaybe.get();
+      Optional<VerifiableCredential> statusListCredentialMaybe =
+          report.getGeneratedObject(VerifiableCredential.ID);
+      if (statusListCredentialMaybe.isEmpty()) {
+        return exception("BitstringStatusListCredential not found in report", resource);
+      }
+      VerifiableCredential statusListCredential = statusListCredentialMaybe.get();
+
+      // 5. Verify that the status purpose is equal to a statusPurpose value in the
+      // statusListCredential.
+      JsonNode credentialSubject = statusListCredential.getJson().get("credentialSubject");
+      String listStatusPurpose = credentialSubject.get("statusPurpose").asText().strip();
+      if (!listStatusPurpose.equals(statusPurpose)) {
+        return statusPurposeMismatch(statusPurpose, listStatusPurpose, ctx);
+      }
 
-    // 5. Verify that the status purpose is equal to a statusPurpose value in the
-    // statusListCredential.
-    JsonNode credentialSubject = statusListCredential.getJson().get("credentialSubject");
-    if (!credentialSubject.get("statusPurpose").asText().strip().equals(statusPurpose)) {
-      return error(
-          "statusPurpose mismatch (credential: "
-              + statusPurpose
-              + ", bitstringStatusListCredential: "
-              + credentialSubject.get("statusPurpose").asText().strip(),
-          ctx);
-    }
+      // 6. Let compressed bitstring be the value of the encodedList property of the
+      // BitstringStatusListCredential.
+      String encodedList = credentialSubject.get("encodedList").asText();
+      if (encodedList == null || encodedList.isEmpty()) {
+        return error("encodedList is empty", ctx);
+      }
 
-    // 6. Let compressed bitstring be the value of the encodedList property of the
-    // BitstringStatusListCredential.
-    String encodedList = credentialSubject.get("encodedList").asText();
-    if (encodedList == null || encodedList.isEmpty()) {
-      return error("encodedList is empty", ctx);
+      // 8. Generate a revocation bitstring by passing compressed bitstring to the Bitstring Expansion
+      // Algorithm. A list that cannot be cached is only expanded up to the status of the credential.
+      try {
+        compressed = BitstringExpansion.decode(encodedList);
+        if (BitstringStatusListCache.isCacheable(statusListCredential)) {
+          statusList = new BitstringStatusList(BitstringExpansion.expand(compressed));
+          BitstringStatusListCache.put(url, statusListCredential, listStatusPurpose, statusList);
+          compressed = null;
+          bitstringLength = statusList.length();
+        } else {
+          statusList = null;
+          bitstringLength = BitstringExpansion.uncompressedSize(compressed);
+        }
+      } catch (IOException e) {
+        return fatal("Error expanding bitstring:" + e.getLocalizedMessage(), ctx);
+      }
     }
 
     // 7. Let credentialIndex be the value of the statusListIndex property of the
     // BitstringStatusListEntry.
     int credentialIndex = credentialStatus.get("statusListIndex").asInt();
 
-    // 8. Generate a revocation bitstring by passing compressed bitstring to the Bitstring Expansion
-    // Algorithm.
-    try {
-      byte[] revocationBitString = expand(encodedList);
+    // 9. If the length of the revocation bitstring divided by statusSize is less than
+    // minimumNumberOfEntries, raise a STATUS_LIST_LENGTH_ERROR.
+    if ((bitstringLength * 8 / statusSize) < minimumNumberOfEntries) {
+      return error("revocation bitstring length is less than minimumNumberOfEntries", ctx);
+    }
 
-      // 9. If the length of the revocation bitstring divided by statusSize is less than
-      // minimumNumberOfEntries, raise a STATUS_LIST_LENGTH_ERROR.
-      if ((revocationBitString.length * 8 / statusSize) < minimumNumberOfEntries) {
-        return error("revocation bitstring length is less than minimumNumberOfEntries", ctx);
+    // 10. Let status be the value in the bitstring at the position indicated by the
+    // credentialIndex
+    // multiplied by the size. If the credentialIndex multiplied by the size is a value outside of
+    // the range of the bitstring, a RANGE_ERROR MUST be raised.
+    long index = (long) credentialIndex * statusSize;
+    if (credentialIndex < 0 || index + statusSize > bitstringLength * 8L) {
+      return error(
+          "credentialIndex multiplied by the size is a value outside of the range of the"
+              + " bitstring",
+          ctx);
+    }
+
+    // the statusSize bits of the entry, read left to right (MSB is 0th bit)
+    int status;
+    if (statusList != null) {
+      status = statusList.get(credentialIndex, statusSize);
+    } else {
+      try {
+        status = BitstringStatusList.get(compressed, new long[] { credentialIndex }, statusSize)[0];
+      } catch (IOException e) {
+        return fatal("Error expanding bitstring:" + e.getLocalizedMessage(), ctx);
       }
+    }
 
-      // 10. Let status be the value in the bitstring at the position indicated by the
-      // credentialIndex
-      // multiplied by the size. If the credentialIndex multiplied by the size is a value outside of
-      // the range of the bitstring, a RANGE_ERROR MUST be raised.
-      int index = credentialIndex * statusSize;
-      if (index >= revocationBitString.length * 8L) {
-        return error(
-            "credentialIndex multiplied by the size is a value outside of the range of the"
-                + " bitstring",
-            ctx);
+    if (statusSize > 1) {
+      // a multi-bit status is a value to look up in statusMessage, not a revocation flag
+      String description = describeStatus(credentialStatus, status);
+      if (status != 0 && isRevocationPurpose(statusPurpose)) {
+        return fatal(description, ctx);
       }
-      int byteIndex = index / 8; // Find the byte index
-      int bitPosition = index % 8; // Find the bit within the byte
-      byte byteValue = revocationBitString[byteIndex];
-
-      // printl bytevalue in hexadecimal
-      System.out.println("Byte value in hexadecimal: " + Integer.toHexString(byteValue));
-      // find the position in revocationBitString where its value is different than zero and print
-      // it
-      for (int i = 0; i < revocationBitString.length; i++) {
-        if (revocationBitString[i] != 0) {
-          System.out.println(
-              "Position in revocationBitString where its value is different than zero: "
-                  + i
-                  + " = "
-                  + revocationBitString[i]);
-          break;
+      return success(description, ctx);
+    }
+    if (status != 0) {
+      return fatal("Credential has been revoked", ctx);
+    }
+    return success("Credential is not revoked.", ctx);
+  }
+
+  private static boolean isRevocationPurpose(String statusPurpose) {
+    return "revocation".equals(statusPurpose) || "suspension".equals(statusPurpose);
+  }
+
+  /**
+   * The status value of an entry, with its message from the statusMessage property of the
+   * entry if it has one.
+   */
+  static String describeStatus(JsonNode credentialStatus, int status) {
+    String value = "0x" + Integer.toHexString(status);
+    for (JsonNode statusMessage : credentialStatus.path("statusMessage")) {
+      String messageStatus = statusMessage.path("status").asText();
+      if (statusMessage.hasNonNull("message") && messageStatus.regionMatches(true, 0, "0x", 0, 2)) {
+        try {
+          if (Integer.parseInt(messageStatus.substring(2), 16) == status) {
+            return "Credential status is " + value + ": " + statusMessage.get("message").asText();
+          }
+        } catch (NumberFormatException e) {
+          // not a status value, the entry cannot match
         }
       }
+    }
+    return "Credential status is " + value;
+  }
 
-      // Calculate the mask for the bit we are interested in
-      int bitMask = 1 << (7 - bitPosition); // Left-to-right indexing (MSB is 0th bit)
-      // Check if the bit is set (non-zero value)
-      if ((byteValue & bitMask) != 0) {
-        return fatal("Credential has been revoked", ctx);
+  /**
+   * The status list credential at the given url. Hosted credentials are read through the
+   * {@link BitstringStatusListCache}, where a prefetch may already have put them. Others, and
+   * those failing to load, are left to the inspector to read and report.
+   */
+  private static Resource statusListResource(URI url) {
+    if ("http".equalsIgnoreCase(url.getScheme()) || "https".equalsIgnoreCase(url.getScheme())) {
+      try {
+        String content = new String(BitstringStatusListCache.getCredential(url), UTF_8);
+        ResourceType type = content.strip().startsWith("{") ? ResourceType.JSON : ResourceType.JWT;
+        return new StringResource(CharSource.wrap(content), url.toString(), type);
+      } catch (IOException e) {
+        // read again by the inspector, which reports the failure
       }
-      return success("Credential is not revoked.", ctx);
-
-    } catch (IOException e) {
-      return fatal("Error expanding bitstring:" + e.getLocalizedMessage(), ctx);
     }
+    return new UriResource(url, null, List.of(ResourceType.JSON,
+        ResourceType.JSON_LD, ResourceType.JWT, ResourceType.VC_JSON_LD, ResourceType.VC_JWT));
   }
 
-  private byte[] expand(String encodedList) throws IOException {
-
-    // 2. Generate an uncompressed bitstring by using the Multibase-decode algorithm on the
-    // compressed bitstring and
-    // then expanding the output using the GZIP decompression algorithm [RFC1952].
-    byte[] decodedBitstring = MultibaseDecoder.getInstance().decode(encodedList);
-
-    // ungzip decodedBitstring
-    ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(decodedBitstring);
-    GZIPInputStream gzipInputStream = new GZIPInputStream(byteArrayInputStream);
-    byte[] buffer = new byte[1024];
-    int bytesRead;
-    ByteArrayOutputStream decompressedStream = new ByteArrayOutputStream();
-    while ((bytesRead = gzipInputStream.read(buffer)) != -1) {
-      decompressedStream.write(buffer, 0, bytesRead);
-    }
-    return decompressedStream.toByteArray();
+  private ReportItems statusPurposeMismatch(String statusPurpose, String listStatusPurpose, RunContext ctx) {
+    return error(
+        "statusPurpose mismatch (credential: "
+            + statusPurpose
+            + ", bitstringStatusListCredential: "
+            + listStatusPurpose,
+        ctx);
   }
 
   public static final String ID = BitstringStatusListProbe.class.getSimpleName();
@@ -0,0 +1,59 @@
+package org.oneedtech.inspect.vc.status.revocation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A parsed 1EdTechRevocationList, indexed by the id of the revoked credentials.
+ * See https://www.imsglobal.org/spec/vcrl/v1p0/.
+ */
+public class RevocationList {
+  private final Map<String, Boolean> revoked;
+
+  RevocationList(Map<String, Boolean> revoked) {
+    this.revoked = revoked;
+  }
+
+  /**
+   * Index the revokedCredential entries of a revocation list. An entry revokes
+   * its credential if its revoked property is true or omitted.
+   */
+  public static RevocationList of(JsonNode revocationList) {
+    JsonNode entries = revocationList.get("revokedCredential");
+    int expected = entries != null && entries.isArray() ? entries.size() : 1;
+    Map<String, Boolean> revoked = new HashMap<>((int) (expected / 0.75f) + 1);
+    if (entries != null && entries.isArray()) {
+      for (JsonNode entry : entries) {
+        add(revoked, entry);
+      }
+    } else if (entries != null && entries.isObject()) {
+      add(revoked, entries);
+    }
+    return new RevocationList(revoked);
+  }
+
+  private static void add(Map<String, Boolean> revoked, JsonNode entry) {
+    JsonNode id = entry.get("id");
+    if (id == null || !id.isValueNode()) {
+      return;
+    }
+    JsonNode flag = entry.get("revoked");
+    revoked.merge(id.asText(), flag == null || flag.asBoolean(), Boolean::logicalOr);
+  }
+
+  /**
+   * Whether the list revokes the credential with the given id.
+   */
+  public boolean isRevoked(String credentialId) {
+    return credentialId != null && revoked.getOrDefault(credentialId, false);
+  }
+
+  /**
+   * The number of distinct credential ids listed.
+   */
+  public int size() {
+    return revoked.size();
+  }
+}
@@ -0,0 +1,42 @@
+package org.oneedtech.inspect.vc.status.revocation;
+
+import static org.oneedtech.inspect.util.json.ObjectMapperCache.Config.DEFAULT;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+import org.oneedtech.inspect.util.json.ObjectMapperCache;
+import org.oneedtech.inspect.util.resource.MimeType;
+import org.oneedtech.inspect.vc.util.DocumentStore;
+import org.oneedtech.inspect.vc.util.HttpCache;
+
+/**
+ * A threadsafe static cache of indexed 1EdTechRevocationLists, keyed by list
+ * url. Lists are revalidated according to their HTTP caching headers, see
+ * {@link HttpCache}.
+ */
+public class RevocationListCache {
+  private static final HttpCache<RevocationList> lists = new HttpCache<>(
+      content -> RevocationList.of(ObjectMapperCache.get(DEFAULT).readTree(content)),
+      MimeType.JSON.toString(), 64, Duration.ofMinutes(5));
+
+  /**
+   * Get the revocation list at the given url, fetching or revalidating it if necessary.
+   */
+  public static RevocationList get(URI url) throws IOException {
+    return lists.get(url);
+  }
+
+  /**
+   * Back the cache with the given persistent store, or with none if null.
+   */
+  public static void setDocumentStore(DocumentStore store) {
+    lists.setStore(store);
+    lists.invalidateAll();
+  }
+
+  public static void reset() {
+    lists.invalidateAll();
+  }
+}
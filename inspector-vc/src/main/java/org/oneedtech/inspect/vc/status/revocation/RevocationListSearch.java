@@ -0,0 +1,81 @@
+package org.oneedtech.inspect.vc.status.revocation;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Searches revocation lists while they are being read, one entry at a time,
+ * and stops reading at the first match. Memory use does not depend on the
+ * size of the list.
+ */
+public final class RevocationListSearch {
+
+  private RevocationListSearch() {}
+
+  /**
+   * Whether the 1EdTechRevocationList read by the given parser revokes the
+   * credential with the given id, that is whether it has a revokedCredential
+   * entry with that id and a revoked property that is true or omitted.
+   */
+  public static boolean isRevoked(JsonParser parser, String credentialId) throws IOException {
+    if (credentialId == null) {
+      return false;
+    }
+    return find(parser, "revokedCredential", entry -> {
+      JsonNode id = entry.get("id");
+      JsonNode revoked = entry.get("revoked");
+      return id != null
+          && id.isValueNode()
+          && credentialId.equals(id.asText())
+          && (revoked == null || revoked.asBoolean());
+    }).isPresent();
+  }
+
+  /**
+   * Find the first entry of the given top level property of the JSON object read
+   * by the parser that is accepted by the matcher. The property may hold an array
+   * of entries or a single entry. The parser must have an ObjectCodec, as those
+   * created by an ObjectMapper do.
+   */
+  public static Optional<JsonNode> find(JsonParser parser, String property, Predicate<JsonNode> matcher)
+      throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      return Optional.empty();
+    }
+    JsonToken token;
+    while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+      String name = parser.getCurrentName();
+      token = parser.nextToken();
+      if (!property.equals(name)) {
+        parser.skipChildren();
+        continue;
+      }
+      if (token == JsonToken.START_ARRAY) {
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+          if (token == null) {
+            throw new EOFException("Unexpected end of revocation list");
+          }
+          JsonNode entry = parser.readValueAsTree();
+          if (matcher.test(entry)) {
+            return Optional.of(entry);
+          }
+        }
+      } else if (token != null) {
+        JsonNode entry = parser.readValueAsTree();
+        if (matcher.test(entry)) {
+          return Optional.of(entry);
+        }
+      }
+    }
+    if (token != JsonToken.END_OBJECT) {
+      throw new EOFException("Unexpected end of revocation list");
+    }
+    return Optional.empty();
+  }
+}
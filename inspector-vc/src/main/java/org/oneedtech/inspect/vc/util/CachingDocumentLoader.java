@@ -1,5 +1,6 @@
 package org.oneedtech.inspect.vc.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -7,11 +8,13 @@ import java.net.URL;
 import java.time.Duration;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.oneedtech.inspect.util.code.Tuple;
+import org.oneedtech.inspect.vc.jsonld.JsonLdContextCache;
 
 import com.apicatalog.jsonld.JsonLdError;
 import com.apicatalog.jsonld.JsonLdErrorCode;
@@ -28,12 +31,16 @@ import com.google.common.io.Resources;
 import foundation.identity.jsonld.ConfigurableDocumentLoader;
 
 /**
- * A com.apicatalog DocumentLoader with a threadsafe static cache.
+ * A com.apicatalog DocumentLoader with a threadsafe static cache. Remote documents
+ * are cached according to their HTTP caching headers, see {@link HttpCache}, and
+ * can additionally be kept in a persistent {@link DocumentStore}, see
+ * {@link #setDocumentStore(DocumentStore)}.
  *
  * @author mgylling
  */
 public class CachingDocumentLoader extends ConfigurableDocumentLoader {
 	private Set<URI> contexts;
+	private final Map<URI, String> localDomains;
 
 	public CachingDocumentLoader() {
 		this(null);
@@ -41,6 +48,7 @@ public class CachingDocumentLoader extends ConfigurableDocumentLoader {
 
 	public CachingDocumentLoader(Map<URI, String> localDomains) {
 		super();
+		this.localDomains = localDomains != null ? Map.copyOf(localDomains) : Map.of();
 		setEnableHttp(true);
 		setEnableHttps(true);
 		setDefaultHttpLoader(new HttpLoader(localDomains));
@@ -68,6 +76,13 @@ public class CachingDocumentLoader extends ConfigurableDocumentLoader {
 		this.contexts.clear();
 	}
 
+	/**
+	 * @return the local domains documents are resolved from, empty if none
+	 */
+	public Map<URI, String> getLocalDomains() {
+		return localDomains;
+	}
+
 	public class HttpLoader implements DocumentLoader {
 		final Map<URI, String> localDomains;
 
@@ -81,6 +96,10 @@ public class CachingDocumentLoader extends ConfigurableDocumentLoader {
 				// resolve url
 				URI resolvedUrl = resolve(url);
 
+				if (isRemote(resolvedUrl) && !bundled.containsKey(resolvedUrl.toASCIIString())) {
+					return remoteDocuments.get(resolvedUrl);
+				}
+
 				Tuple<String, DocumentLoaderOptions> tpl = new Tuple<>(resolvedUrl.toASCIIString(), options);
 
 				return documentCache.get(tpl);
@@ -142,7 +161,6 @@ public class CachingDocumentLoader extends ConfigurableDocumentLoader {
 			.initialCapacity(32).maximumSize(64).expireAfterAccess(Duration.ofHours(24))
 			.build(new CacheLoader<Tuple<String, DocumentLoaderOptions>, Document>() {
 				public Document load(final Tuple<String, DocumentLoaderOptions> id) throws Exception {
-					// TODO: this loading will fail if the document is redirected (HTTP 301)
 					try (InputStream is = bundled.containsKey(id.t1)
 							? bundled.get(id.t1).openStream()
 							: new URI(id.t1).toURL().openStream();) {
@@ -151,8 +169,39 @@ public class CachingDocumentLoader extends ConfigurableDocumentLoader {
 				}
 			});
 
+	static final HttpCache<Document> remoteDocuments = new HttpCache<>(
+			content -> JsonDocument.of(new ByteArrayInputStream(content)),
+			"application/ld+json, application/json;q=0.9, */*;q=0.1",
+			1024, Duration.ofHours(24));
+
+	private static volatile DocumentStore documentStore;
+
+	/**
+	 * Keep remote (http and https) documents in the given persistent store, so that
+	 * they and their HTTP cache validators survive restarts. Pass null to disable the store.
+	 */
+	public static void setDocumentStore(DocumentStore store) {
+		documentStore = store;
+		remoteDocuments.setStore(store);
+		remoteDocuments.invalidateAll();
+	}
+
+	public static Optional<DocumentStore> getDocumentStore() {
+		return Optional.ofNullable(documentStore);
+	}
+
+	private static boolean isRemote(URI uri) {
+		return "http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme());
+	}
+
+	/**
+	 * Invalidate the in-memory caches, including processed JSON-LD contexts.
+	 * The persistent document store, if any, is kept.
+	 */
 	public static void reset() {
 		documentCache.invalidateAll();
+		remoteDocuments.invalidateAll();
+		JsonLdContextCache.reset();
 	}
 
 	private static final Logger logger = LogManager.getLogger();
@@ -0,0 +1,488 @@
+package org.oneedtech.inspect.vc.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A persistent, content-addressed document store. Document bodies are kept as
+ * files named by the SHA-256 of their content, and a memory-mapped index maps
+ * the SHA-256 of a document URL to its body. Each entry can carry a small map of
+ * string metadata (such as HTTP cache validators), which is stored the same way
+ * as document bodies. The store is bounded by the total size of the stored files,
+ * bodies and metadata alike, with content shared by several documents counted
+ * once, and evicts least recently used entries when full, so it survives
+ * restarts and can hold thousands of documents.
+ *
+ * <p>A store directory can only be opened by one process at a time.</p>
+ */
+public class DocumentStore implements Closeable {
+	private static final int MAGIC = 0x31454456; // "1EDV"
+	private static final int VERSION = 3;
+	private static final int HEADER_SIZE = 64;
+	private static final int SLOT_SIZE = 128;
+	private static final int HASH_SIZE = 32;
+	// slot layout
+	private static final int SLOT_STATE = 0;
+	private static final int SLOT_URL_HASH = 8;
+	private static final int SLOT_CONTENT_HASH = SLOT_URL_HASH + HASH_SIZE;
+	private static final int SLOT_LENGTH = SLOT_CONTENT_HASH + HASH_SIZE;
+	private static final int SLOT_STORED_AT = SLOT_LENGTH + 8;
+	private static final int SLOT_LAST_ACCESS = SLOT_STORED_AT + 8;
+	private static final int SLOT_META_HASH = SLOT_LAST_ACCESS + 8;
+	// header layout
+	private static final int HEADER_MAGIC = 0;
+	private static final int HEADER_VERSION = 4;
+	private static final int HEADER_CAPACITY = 8;
+	private static final int HEADER_COUNT = 12;
+	private static final int HEADER_BYTES = 16;
+
+	private static final int USED = 1;
+	private static final byte[] NO_HASH = new byte[HASH_SIZE];
+
+	public static final int DEFAULT_CAPACITY = 16_384;
+	public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+	private final Path directory;
+	private final Path objects;
+	private final long maxBytes;
+	private final int capacity;
+	private final FileChannel channel;
+	private final FileLock lock;
+	private final MappedByteBuffer index;
+
+	private DocumentStore(Path directory, int capacity, long maxBytes) throws IOException {
+		this.directory = directory;
+		this.objects = directory.resolve("objects");
+		this.maxBytes = maxBytes;
+		Files.createDirectories(objects);
+
+		Path indexFile = directory.resolve("index");
+		this.channel = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.lock = channel.tryLock();
+		if (lock == null) {
+			channel.close();
+			throw new IOException("Document store " + directory + " is in use by another process");
+		}
+
+		int existingCapacity = readExistingCapacity(channel);
+		if (existingCapacity > 0) {
+			this.capacity = existingCapacity;
+			this.index = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+		} else {
+			this.capacity = capacity;
+			channel.truncate(0);
+			this.index = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+			index.putInt(HEADER_MAGIC, MAGIC);
+			index.putInt(HEADER_VERSION, VERSION);
+			index.putInt(HEADER_CAPACITY, capacity);
+			index.putInt(HEADER_COUNT, 0);
+			index.putLong(HEADER_BYTES, 0);
+			index.force();
+		}
+	}
+
+	/**
+	 * Open (or create) a store in the given directory.
+	 * @param directory the store directory
+	 * @param maxBytes the maximum number of body and metadata bytes to keep
+	 */
+	public static DocumentStore open(Path directory, long maxBytes) throws IOException {
+		return new DocumentStore(directory, DEFAULT_CAPACITY, maxBytes);
+	}
+
+	/**
+	 * Open (or create) a store in the given directory.
+	 * @param directory the store directory
+	 * @param capacity the maximum number of index entries, used only when the store is created
+	 * @param maxBytes the maximum number of body and metadata bytes to keep
+	 */
+	public static DocumentStore open(Path directory, int capacity, long maxBytes) throws IOException {
+		return new DocumentStore(directory, capacity, maxBytes);
+	}
+
+	/**
+	 * Get the stored body of the document with the given url, if any.
+	 */
+	public synchronized Optional<byte[]> get(String url) {
+		int slot = find(sha256(url.getBytes(UTF_8)));
+		if (slot < 0) return Optional.empty();
+
+		byte[] contentHash = getHash(slot, SLOT_CONTENT_HASH);
+		try {
+			byte[] content = Files.readAllBytes(bodyPath(contentHash));
+			if (!Arrays.equals(contentHash, sha256(content))) {
+				logger.warn("Corrupt document store entry for {}, discarding", url);
+				removeSlot(slot);
+				return Optional.empty();
+			}
+			index.putLong(offset(slot) + SLOT_LAST_ACCESS, System.currentTimeMillis());
+			return Optional.of(content);
+		} catch (IOException e) {
+			logger.warn("Could not read document store entry for {}, discarding", url);
+			removeSlot(slot);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Get the time in epoch millis at which the document with the given url was stored, if present.
+	 */
+	public synchronized Optional<Long> getStoredAt(String url) {
+		int slot = find(sha256(url.getBytes(UTF_8)));
+		if (slot < 0) return Optional.empty();
+		return Optional.of(index.getLong(offset(slot) + SLOT_STORED_AT));
+	}
+
+	/**
+	 * Get the metadata stored with the document with the given url, if present.
+	 */
+	public synchronized Optional<Map<String, String>> getMetadata(String url) {
+		int slot = find(sha256(url.getBytes(UTF_8)));
+		if (slot < 0) return Optional.empty();
+
+		byte[] metaHash = getHash(slot, SLOT_META_HASH);
+		if (Arrays.equals(NO_HASH, metaHash)) return Optional.of(Map.of());
+		try {
+			byte[] meta = Files.readAllBytes(bodyPath(metaHash));
+			if (!Arrays.equals(metaHash, sha256(meta))) {
+				logger.warn("Corrupt document store metadata for {}, discarding", url);
+				removeSlot(slot);
+				return Optional.empty();
+			}
+			return Optional.of(decodeMetadata(meta));
+		} catch (IOException e) {
+			logger.warn("Could not read document store metadata for {}, discarding", url);
+			removeSlot(slot);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Store the body of the document with the given url, replacing any previous body.
+	 */
+	public void put(String url, byte[] content) throws IOException {
+		put(url, content, Map.of());
+	}
+
+	/**
+	 * Store the body and metadata of the document with the given url, replacing any previous entry.
+	 */
+	public synchronized void put(String url, byte[] content, Map<String, String> metadata) throws IOException {
+		byte[] meta = encodeMetadata(metadata);
+		if (content.length + meta.length > maxBytes) return;
+
+		byte[] urlHash = sha256(url.getBytes(UTF_8));
+		byte[] contentHash = sha256(content);
+		byte[] metaHash = meta.length > 0 ? sha256(meta) : NO_HASH;
+
+		int existing = find(urlHash);
+		if (existing >= 0) {
+			removeSlot(existing);
+		}
+
+		while (getBytes() + unstoredBytes(contentHash, content) + unstoredBytes(metaHash, meta) > maxBytes
+				|| getCount() >= capacity * 3 / 4) {
+			if (!evictLeastRecentlyUsed()) break;
+		}
+
+		writeBody(contentHash, content);
+		writeBody(metaHash, meta);
+
+		long now = System.currentTimeMillis();
+		int slot = home(urlHash);
+		while (index.getInt(offset(slot) + SLOT_STATE) == USED) {
+			slot = (slot + 1) % capacity;
+		}
+		int off = offset(slot);
+		index.putInt(off + SLOT_STATE, USED);
+		index.put(off + SLOT_URL_HASH, urlHash);
+		index.put(off + SLOT_CONTENT_HASH, contentHash);
+		index.putLong(off + SLOT_LENGTH, content.length);
+		index.putLong(off + SLOT_STORED_AT, now);
+		index.putLong(off + SLOT_LAST_ACCESS, now);
+		index.put(off + SLOT_META_HASH, metaHash);
+		index.putInt(HEADER_COUNT, getCount() + 1);
+	}
+
+	/**
+	 * Replace the metadata of the document with the given url, if present. This
+	 * also marks the document as freshly stored.
+	 */
+	public synchronized void updateMetadata(String url, Map<String, String> metadata) throws IOException {
+		byte[] urlHash = sha256(url.getBytes(UTF_8));
+		int slot = find(urlHash);
+		if (slot < 0) return;
+
+		// make room for the new metadata, evicting this entry last
+		long now = System.currentTimeMillis();
+		index.putLong(offset(slot) + SLOT_LAST_ACCESS, now);
+		byte[] meta = encodeMetadata(metadata);
+		byte[] metaHash = meta.length > 0 ? sha256(meta) : NO_HASH;
+		while (getBytes() + unstoredBytes(metaHash, meta) > maxBytes) {
+			if (!evictLeastRecentlyUsed()) break;
+		}
+		slot = find(urlHash);
+		if (slot < 0) return;
+
+		byte[] previous = getHash(slot, SLOT_META_HASH);
+		writeBody(metaHash, meta);
+		index.put(offset(slot) + SLOT_META_HASH, metaHash);
+		index.putLong(offset(slot) + SLOT_STORED_AT, now);
+		index.putLong(offset(slot) + SLOT_LAST_ACCESS, now);
+		if (!Arrays.equals(NO_HASH, previous) && !isReferenced(previous)) {
+			deleteBody(previous);
+		}
+	}
+
+	/**
+	 * Remove the document with the given url from the store.
+	 */
+	public synchronized void remove(String url) {
+		int slot = find(sha256(url.getBytes(UTF_8)));
+		if (slot >= 0) removeSlot(slot);
+	}
+
+	/**
+	 * Remove all documents from the store.
+	 */
+	public synchronized void clear() {
+		for (int i = 0; i < capacity; i++) {
+			if (index.getInt(offset(i) + SLOT_STATE) == USED) {
+				deleteBody(getHash(i, SLOT_CONTENT_HASH));
+				deleteBody(getHash(i, SLOT_META_HASH));
+				index.put(offset(i), new byte[SLOT_SIZE]);
+			}
+		}
+		index.putInt(HEADER_COUNT, 0);
+		index.putLong(HEADER_BYTES, 0);
+	}
+
+	/**
+	 * The number of documents in the store.
+	 */
+	public synchronized int size() {
+		return getCount();
+	}
+
+	/**
+	 * The total number of body and metadata bytes in the store, counting content
+	 * shared by several documents once.
+	 */
+	public synchronized long bytes() {
+		return getBytes();
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		index.force();
+		lock.release();
+		channel.close();
+	}
+
+	private int find(byte[] urlHash) {
+		int slot = home(urlHash);
+		for (int i = 0; i < capacity; i++) {
+			int off = offset(slot);
+			if (index.getInt(off + SLOT_STATE) != USED) return -1;
+			if (Arrays.equals(urlHash, getHash(slot, SLOT_URL_HASH))) return slot;
+			slot = (slot + 1) % capacity;
+		}
+		return -1;
+	}
+
+	private boolean evictLeastRecentlyUsed() {
+		int victim = -1;
+		long oldest = Long.MAX_VALUE;
+		for (int i = 0; i < capacity; i++) {
+			int off = offset(i);
+			if (index.getInt(off + SLOT_STATE) == USED && index.getLong(off + SLOT_LAST_ACCESS) < oldest) {
+				oldest = index.getLong(off + SLOT_LAST_ACCESS);
+				victim = i;
+			}
+		}
+		if (victim < 0) return false;
+		removeSlot(victim);
+		return true;
+	}
+
+	/**
+	 * Remove a slot, deleting its bodies if no other slot references them, and
+	 * shift following entries of the probe sequence back into the hole.
+	 */
+	private void removeSlot(int slot) {
+		byte[] contentHash = getHash(slot, SLOT_CONTENT_HASH);
+		byte[] metaHash = getHash(slot, SLOT_META_HASH);
+		index.put(offset(slot), new byte[SLOT_SIZE]);
+		index.putInt(HEADER_COUNT, getCount() - 1);
+
+		int hole = slot;
+		int next = (slot + 1) % capacity;
+		while (index.getInt(offset(next) + SLOT_STATE) == USED) {
+			int home = home(getHash(next, SLOT_URL_HASH));
+			boolean movable = hole <= next
+					? (home <= hole || home > next)
+					: (home <= hole && home > next);
+			if (movable) {
+				byte[] moved = new byte[SLOT_SIZE];
+				index.get(offset(next), moved);
+				index.put(offset(hole), moved);
+				index.put(offset(next), new byte[SLOT_SIZE]);
+				hole = next;
+			}
+			next = (next + 1) % capacity;
+		}
+
+		if (!isReferenced(contentHash)) {
+			deleteBody(contentHash);
+		}
+		if (!Arrays.equals(NO_HASH, metaHash) && !isReferenced(metaHash)) {
+			deleteBody(metaHash);
+		}
+	}
+
+	private boolean isReferenced(byte[] hash) {
+		for (int i = 0; i < capacity; i++) {
+			if (index.getInt(offset(i) + SLOT_STATE) == USED
+					&& (Arrays.equals(hash, getHash(i, SLOT_CONTENT_HASH))
+							|| Arrays.equals(hash, getHash(i, SLOT_META_HASH)))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The number of bytes writing the given content would add to the store.
+	 */
+	private long unstoredBytes(byte[] hash, byte[] content) {
+		if (Arrays.equals(NO_HASH, hash) || Files.exists(bodyPath(hash))) return 0;
+		return content.length;
+	}
+
+	private void writeBody(byte[] hash, byte[] content) throws IOException {
+		if (Arrays.equals(NO_HASH, hash)) return;
+		Path body = bodyPath(hash);
+		if (Files.exists(body)) return;
+
+		Files.createDirectories(body.getParent());
+		Path tmp = Files.createTempFile(objects, "body", ".tmp");
+		try {
+			Files.write(tmp, content);
+			try {
+				Files.move(tmp, body, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp, body, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+		index.putLong(HEADER_BYTES, getBytes() + content.length);
+	}
+
+	private static byte[] encodeMetadata(Map<String, String> metadata) {
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<String, String> entry : metadata.entrySet()) {
+			sb.append(entry.getKey()).append('\t').append(entry.getValue().replace('\n', ' ')).append('\n');
+		}
+		return sb.toString().getBytes(UTF_8);
+	}
+
+	private static Map<String, String> decodeMetadata(byte[] meta) {
+		Map<String, String> metadata = new LinkedHashMap<>();
+		for (String line : new String(meta, UTF_8).split("\n")) {
+			int tab = line.indexOf('\t');
+			if (tab > 0) metadata.put(line.substring(0, tab), line.substring(tab + 1));
+		}
+		return metadata;
+	}
+
+	private void deleteBody(byte[] contentHash) {
+		if (Arrays.equals(NO_HASH, contentHash)) return;
+		Path body = bodyPath(contentHash);
+		try {
+			long size = Files.size(body);
+			Files.delete(body);
+			index.putLong(HEADER_BYTES, Math.max(0, getBytes() - size));
+		} catch (NoSuchFileException e) {
+			// already deleted
+		} catch (IOException e) {
+			logger.warn("Could not delete document store body {}", HexFormat.of().formatHex(contentHash));
+		}
+	}
+
+	private Path bodyPath(byte[] contentHash) {
+		String hex = HexFormat.of().formatHex(contentHash);
+		return objects.resolve(hex.substring(0, 2)).resolve(hex);
+	}
+
+	private byte[] getHash(int slot, int field) {
+		byte[] hash = new byte[HASH_SIZE];
+		index.get(offset(slot) + field, hash);
+		return hash;
+	}
+
+	private int home(byte[] urlHash) {
+		return Math.floorMod(ByteBuffer.wrap(urlHash).getInt(), capacity);
+	}
+
+	private int offset(int slot) {
+		return HEADER_SIZE + slot * SLOT_SIZE;
+	}
+
+	private int getCount() {
+		return index.getInt(HEADER_COUNT);
+	}
+
+	private long getBytes() {
+		return index.getLong(HEADER_BYTES);
+	}
+
+	private static int readExistingCapacity(FileChannel channel) throws IOException {
+		if (channel.size() < HEADER_SIZE) return 0;
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		channel.read(header, 0);
+		if (header.getInt(HEADER_MAGIC) != MAGIC || header.getInt(HEADER_VERSION) != VERSION) {
+			logger.warn("Discarding document store index with unknown format");
+			return 0;
+		}
+		int capacity = header.getInt(HEADER_CAPACITY);
+		if (capacity <= 0 || channel.size() < HEADER_SIZE + (long) capacity * SLOT_SIZE) return 0;
+		return capacity;
+	}
+
+	static byte[] sha256(byte[] bytes) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(bytes);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static final Logger logger = LogManager.getLogger();
+}
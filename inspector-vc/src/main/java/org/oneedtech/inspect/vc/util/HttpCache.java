@@ -0,0 +1,367 @@
+package org.oneedtech.inspect.vc.util;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * A cache of parsed remote documents that follows the caching headers of the
+ * publisher. Freshness comes from Cache-Control (s-maxage, max-age, no-cache,
+ * no-store) or Expires, falling back to a default TTL. Expired entries are
+ * revalidated with If-None-Match/If-Modified-Since, so that a 304 response
+ * reuses the already parsed value, and entries within their
+ * stale-while-revalidate window are served while being refreshed in the
+ * background. Concurrent requests for the same url share one fetch.
+ *
+ * <p>Documents are fetched with the default {@link HttpClientService}.</p>
+ *
+ * <p>Entries can be backed by a persistent {@link DocumentStore}, in which
+ * case validators and freshness survive restarts.</p>
+ *
+ * @param <V> the type of the parsed value
+ */
+public class HttpCache<V> {
+	private final Parser<V> parser;
+	private final String accept;
+	private final Duration defaultTtl;
+	private final Cache<String, Entry<V>> entries;
+	private final Map<String, CompletableFuture<Entry<V>>> inflight = new ConcurrentHashMap<>();
+	private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+	private volatile DocumentStore store;
+
+	/**
+	 * @param parser parses a response body into the cached value
+	 * @param accept the value of the Accept request header
+	 * @param maximumSize the maximum number of entries kept in memory
+	 * @param defaultTtl the freshness lifetime of responses without caching headers
+	 */
+	public HttpCache(Parser<V> parser, String accept, long maximumSize, Duration defaultTtl) {
+		this.parser = parser;
+		this.accept = accept;
+		this.defaultTtl = defaultTtl;
+		this.entries = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+	}
+
+	/**
+	 * Back this cache with the given persistent store, or with none if null.
+	 */
+	public void setStore(DocumentStore store) {
+		this.store = store;
+	}
+
+	/**
+	 * Get the value of the document at the given http or https uri, fetching or
+	 * revalidating it if necessary.
+	 */
+	public V get(URI uri) throws IOException {
+		String url = uri.toASCIIString();
+		Entry<V> entry = entries.getIfPresent(url);
+		if (entry == null) {
+			entry = loadStored(url);
+		}
+		if (entry != null) {
+			long now = System.currentTimeMillis();
+			if (now < entry.expiresAt) {
+				return entry.value;
+			}
+			if (now < entry.staleUntil) {
+				refreshInBackground(uri, entry);
+				return entry.value;
+			}
+		}
+		return fetch(uri, entry).value;
+	}
+
+	/**
+	 * Invalidate the in-memory entries. The persistent store, if any, is kept.
+	 */
+	public void invalidateAll() {
+		entries.invalidateAll();
+	}
+
+	private Entry<V> fetch(URI uri, Entry<V> previous) throws IOException {
+		String url = uri.toASCIIString();
+		CompletableFuture<Entry<V>> pending = new CompletableFuture<>();
+		CompletableFuture<Entry<V>> existing = inflight.putIfAbsent(url, pending);
+		if (existing != null) {
+			return await(existing);
+		}
+		try {
+			Entry<V> entry = revalidate(uri, previous);
+			pending.complete(entry);
+			return entry;
+		} catch (IOException | RuntimeException e) {
+			pending.completeExceptionally(e);
+			throw e;
+		} finally {
+			inflight.remove(url, pending);
+		}
+	}
+
+	private Entry<V> revalidate(URI uri, Entry<V> previous) throws IOException {
+		String url = uri.toASCIIString();
+		Map<String, String> headers = new HashMap<>();
+		headers.put("Accept", accept);
+		if (previous != null && previous.etag != null) {
+			headers.put("If-None-Match", previous.etag);
+		}
+		if (previous != null && previous.lastModified != null) {
+			headers.put("If-Modified-Since", previous.lastModified);
+		}
+
+		try (HttpClientService.Response response = HttpClientService.getDefault().get(uri, headers)) {
+			int status = response.status();
+			long now = System.currentTimeMillis();
+
+			if (status == 304 && previous != null) {
+				Freshness freshness = Freshness.of(response, now, null);
+				Entry<V> entry = previous.revalidated(freshness != null ? freshness : previous.freshness, now);
+				entries.put(url, entry);
+				DocumentStore store = this.store;
+				if (store != null) {
+					store.updateMetadata(url, entry.metadata());
+				}
+				return entry;
+			}
+			if (status < 200 || status >= 300) {
+				throw new IOException("HTTP " + status + " loading " + url);
+			}
+
+			byte[] content = response.readAllBytes();
+			V value = parse(url, content);
+			Freshness freshness = Freshness.of(response, now, defaultTtl);
+			Entry<V> entry = new Entry<>(value, response.header("ETag"),
+					response.header("Last-Modified"), freshness, now);
+			if (!freshness.noStore) {
+				entries.put(url, entry);
+				DocumentStore store = this.store;
+				if (store != null) {
+					store.put(url, content, entry.metadata());
+				}
+			}
+			return entry;
+		}
+	}
+
+	private Entry<V> loadStored(String url) {
+		DocumentStore store = this.store;
+		if (store == null) return null;
+
+		Optional<Map<String, String>> metadata = store.getMetadata(url);
+		if (metadata.isEmpty()) return null;
+		Optional<byte[]> content = store.get(url);
+		if (content.isEmpty()) return null;
+		try {
+			Entry<V> entry = Entry.of(parse(url, content.get()), metadata.get(), defaultTtl);
+			entries.put(url, entry);
+			return entry;
+		} catch (IOException e) {
+			logger.warn("Discarding stored document {}", url);
+			store.remove(url);
+			return null;
+		}
+	}
+
+	private void refreshInBackground(URI uri, Entry<V> entry) {
+		String url = uri.toASCIIString();
+		if (!refreshing.add(url)) return;
+		refresher.execute(() -> {
+			try {
+				fetch(uri, entry);
+			} catch (Exception e) {
+				logger.warn("Background refresh of {} failed: {}", url, e.getMessage());
+			} finally {
+				refreshing.remove(url);
+			}
+		});
+	}
+
+	private V parse(String url, byte[] content) throws IOException {
+		try {
+			return parser.parse(content);
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException("Could not parse " + url + ": " + e.getMessage(), e);
+		}
+	}
+
+	private static <V> Entry<V> await(CompletableFuture<Entry<V>> future) throws IOException {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/**
+	 * Parses a response body.
+	 */
+	@FunctionalInterface
+	public interface Parser<V> {
+		V parse(byte[] content) throws Exception;
+	}
+
+	static final class Entry<V> {
+		final V value;
+		final String etag;
+		final String lastModified;
+		final Freshness freshness;
+		final long expiresAt;
+		final long staleUntil;
+
+		Entry(V value, String etag, String lastModified, Freshness freshness, long now) {
+			this(value, etag, lastModified, freshness,
+					now + freshness.ttl, now + freshness.ttl + freshness.staleWhileRevalidate);
+		}
+
+		private Entry(V value, String etag, String lastModified, Freshness freshness, long expiresAt, long staleUntil) {
+			this.value = value;
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.freshness = freshness;
+			this.expiresAt = expiresAt;
+			this.staleUntil = staleUntil;
+		}
+
+		Entry<V> revalidated(Freshness freshness, long now) {
+			return new Entry<>(value, etag, lastModified, freshness, now);
+		}
+
+		Map<String, String> metadata() {
+			Map<String, String> metadata = new HashMap<>();
+			if (etag != null) metadata.put("etag", etag);
+			if (lastModified != null) metadata.put("last-modified", lastModified);
+			metadata.put("ttl", String.valueOf(freshness.ttl));
+			metadata.put("stale-while-revalidate", String.valueOf(freshness.staleWhileRevalidate));
+			metadata.put("expires-at", String.valueOf(expiresAt));
+			metadata.put("stale-until", String.valueOf(staleUntil));
+			return metadata;
+		}
+
+		static <V> Entry<V> of(V value, Map<String, String> metadata, Duration defaultTtl) {
+			long ttl = parseLong(metadata.get("ttl"), defaultTtl.toMillis());
+			long swr = parseLong(metadata.get("stale-while-revalidate"), 0);
+			return new Entry<>(value, metadata.get("etag"), metadata.get("last-modified"),
+					new Freshness(false, ttl, swr),
+					parseLong(metadata.get("expires-at"), 0), parseLong(metadata.get("stale-until"), 0));
+		}
+
+		private static long parseLong(String value, long defaultValue) {
+			if (value == null) return defaultValue;
+			try {
+				return Long.parseLong(value);
+			} catch (NumberFormatException e) {
+				return defaultValue;
+			}
+		}
+	}
+
+	/**
+	 * The freshness lifetime of a response, in millis.
+	 */
+	static final class Freshness {
+		final boolean noStore;
+		final long ttl;
+		final long staleWhileRevalidate;
+
+		Freshness(boolean noStore, long ttl, long staleWhileRevalidate) {
+			this.noStore = noStore;
+			this.ttl = Math.max(0, ttl);
+			this.staleWhileRevalidate = Math.max(0, staleWhileRevalidate);
+		}
+
+		static Freshness of(HttpClientService.Response response, long now, Duration defaultTtl) {
+			return of(response.header("Cache-Control"), response.header("Expires"),
+					response.header("Date"), response.header("Age"), now, defaultTtl);
+		}
+
+		/**
+		 * Compute the freshness of a response from its headers. Returns null if the
+		 * headers carry no freshness information and defaultTtl is null.
+		 */
+		static Freshness of(String cacheControl, String expires, String date, String age, long now, Duration defaultTtl) {
+			Map<String, String> directives = parseCacheControl(cacheControl);
+			boolean noStore = directives.containsKey("no-store");
+			long currentAge = parseSeconds(age, 0) * 1000;
+			long staleWhileRevalidate = directives.containsKey("must-revalidate") || directives.containsKey("proxy-revalidate")
+					? 0 : parseSeconds(directives.get("stale-while-revalidate"), 0) * 1000;
+
+			if (directives.containsKey("no-cache")) {
+				return new Freshness(noStore, 0, 0);
+			}
+			if (directives.containsKey("s-maxage")) {
+				return new Freshness(noStore, parseSeconds(directives.get("s-maxage"), 0) * 1000 - currentAge, staleWhileRevalidate);
+			}
+			if (directives.containsKey("max-age")) {
+				return new Freshness(noStore, parseSeconds(directives.get("max-age"), 0) * 1000 - currentAge, staleWhileRevalidate);
+			}
+			if (expires != null) {
+				long expiresAt = parseDate(expires, 0);
+				long dateAt = parseDate(date, now);
+				return new Freshness(noStore, expiresAt - dateAt - currentAge, staleWhileRevalidate);
+			}
+			if (noStore) {
+				return new Freshness(true, 0, 0);
+			}
+			return defaultTtl == null ? null : new Freshness(false, defaultTtl.toMillis(), staleWhileRevalidate);
+		}
+
+		private static Map<String, String> parseCacheControl(String cacheControl) {
+			Map<String, String> directives = new HashMap<>();
+			if (cacheControl == null) return directives;
+			for (String directive : cacheControl.split(",")) {
+				String[] parts = directive.trim().split("=", 2);
+				if (parts[0].isEmpty()) continue;
+				String value = parts.length > 1 ? parts[1].trim().replace("\"", "") : null;
+				directives.put(parts[0].trim().toLowerCase(Locale.ROOT), value);
+			}
+			return directives;
+		}
+
+		private static long parseSeconds(String value, long defaultValue) {
+			if (value == null) return defaultValue;
+			try {
+				return Long.parseLong(value.trim());
+			} catch (NumberFormatException e) {
+				return defaultValue;
+			}
+		}
+
+		private static long parseDate(String value, long defaultValue) {
+			if (value == null) return defaultValue;
+			try {
+				return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+			} catch (DateTimeParseException e) {
+				// invalid dates, such as "0", mean already expired
+				return defaultValue;
+			}
+		}
+	}
+
+	private static final ExecutorService refresher = Executors.newFixedThreadPool(2,
+			new ThreadFactoryBuilder().setDaemon(true).setNameFormat("http-cache-refresh-%d").build());
+	private static final Logger logger = LogManager.getLogger();
+}
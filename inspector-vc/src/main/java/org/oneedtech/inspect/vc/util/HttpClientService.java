@@ -0,0 +1,364 @@
+package org.oneedtech.inspect.vc.util;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The outbound HTTP client shared by the inspectors. Connections are pooled and
+ * kept alive, https hosts are spoken to over HTTP/2 where they support it, and
+ * every request is bounded: by a connect timeout, a deadline for the whole
+ * exchange including reading the body, a maximum number of concurrent requests
+ * per host, and a maximum response size. Redirects from https to http are not
+ * followed.
+ *
+ * <p>The default instance is used unless replaced with {@link #setDefault(HttpClientService)}.</p>
+ */
+public class HttpClientService {
+	private static volatile HttpClientService defaultService = builder().build();
+
+	private final HttpClient client;
+	private final Duration connectTimeout;
+	private final Duration requestTimeout;
+	private final int maxRequestsPerHost;
+	private final long maxResponseBytes;
+	// hosts with requests in flight or waiting, removed once idle
+	private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+
+	private HttpClientService(Builder builder) {
+		this.connectTimeout = builder.connectTimeout;
+		this.requestTimeout = builder.requestTimeout;
+		this.maxRequestsPerHost = builder.maxRequestsPerHost;
+		this.maxResponseBytes = builder.maxResponseBytes;
+		this.client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.connectTimeout(connectTimeout)
+				.followRedirects(HttpClient.Redirect.NEVER)
+				.build();
+	}
+
+	public static HttpClientService getDefault() {
+		return defaultService;
+	}
+
+	/**
+	 * Replace the instance used by the inspectors.
+	 */
+	public static void setDefault(HttpClientService service) {
+		defaultService = service;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public Duration getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public Duration getRequestTimeout() {
+		return requestTimeout;
+	}
+
+	public int getMaxRequestsPerHost() {
+		return maxRequestsPerHost;
+	}
+
+	public long getMaxResponseBytes() {
+		return maxResponseBytes;
+	}
+
+	/**
+	 * GET the given http or https uri, following redirects except from https to http.
+	 * The response holds a per-host permit until it is closed, or until the request
+	 * timeout has passed, after which reading the body fails.
+	 */
+	public Response get(URI uri, Map<String, String> headers) throws IOException {
+		URI current = uri;
+		for (int i = 0; i <= MAX_REDIRECTS; i++) {
+			Response response = send(current, headers);
+			String location = response.header("Location");
+			if (response.status() < 300 || response.status() >= 400 || response.status() == 304 || location == null) {
+				return response;
+			}
+			response.close();
+			URI next = current.resolve(location);
+			if ("https".equalsIgnoreCase(current.getScheme()) && !"https".equalsIgnoreCase(next.getScheme())) {
+				throw new IOException("Refusing redirect from https to " + next.getScheme() + " loading " + uri);
+			}
+			current = next;
+		}
+		throw new IOException("Too many redirects loading " + uri);
+	}
+
+	private Response send(URI uri, Map<String, String> headers) throws IOException {
+		String scheme = uri.getScheme();
+		if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+			throw new IOException("Unsupported scheme loading " + uri);
+		}
+
+		Host host = acquire(uri);
+		long deadline = System.nanoTime() + requestTimeout.toNanos();
+		try {
+			HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+					.timeout(requestTimeout)
+					.GET();
+			if ("http".equalsIgnoreCase(scheme)) {
+				// avoid h2c upgrade requests, which some servers reject
+				request.version(HttpClient.Version.HTTP_1_1);
+			}
+			headers.forEach(request::header);
+			HttpResponse<InputStream> response = client.send(request.build(), BodyHandlers.ofInputStream());
+
+			long length = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+			if (length > maxResponseBytes) {
+				response.body().close();
+				throw new IOException("Response from " + uri + " exceeds " + maxResponseBytes + " bytes");
+			}
+			return new Response(response, new LimitedInputStream(response.body(), uri, host, deadline));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			release(host);
+			throw new InterruptedIOException("Interrupted loading " + uri);
+		} catch (IOException | RuntimeException e) {
+			release(host);
+			throw e;
+		}
+	}
+
+	private Host acquire(URI uri) throws IOException {
+		String key = uri.getHost() + ":" + uri.getPort();
+		Host host = hosts.compute(key, (k, h) -> {
+			Host entry = h != null ? h : new Host(k, maxRequestsPerHost);
+			entry.users++;
+			return entry;
+		});
+		try {
+			if (!host.permits.tryAcquire(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+				leave(host);
+				throw new IOException("Too many concurrent requests to " + uri.getHost());
+			}
+		} catch (InterruptedException e) {
+			leave(host);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted waiting to load " + uri);
+		}
+		return host;
+	}
+
+	private void release(Host host) {
+		host.permits.release();
+		leave(host);
+	}
+
+	private void leave(Host host) {
+		hosts.computeIfPresent(host.key, (k, h) -> --h.users == 0 ? null : h);
+	}
+
+	/**
+	 * The number of hosts with requests in flight or waiting.
+	 */
+	int activeHosts() {
+		return hosts.size();
+	}
+
+	/**
+	 * The request permits of a host, and the number of requests holding or waiting for one.
+	 * Users are counted under the map lock, so an entry is only removed when no one refers to it.
+	 */
+	private static final class Host {
+		final String key;
+		final Semaphore permits;
+		int users;
+
+		Host(String key, int maxRequests) {
+			this.key = key;
+			this.permits = new Semaphore(maxRequests, true);
+		}
+	}
+
+	/**
+	 * A response with a streamed body. Closing it closes the body and releases the host permit.
+	 */
+	public static final class Response implements Closeable {
+		private final HttpResponse<InputStream> response;
+		private final InputStream body;
+
+		private Response(HttpResponse<InputStream> response, InputStream body) {
+			this.response = response;
+			this.body = body;
+		}
+
+		public int status() {
+			return response.statusCode();
+		}
+
+		public URI uri() {
+			return response.uri();
+		}
+
+		/**
+		 * The first value of the given header, or null if absent.
+		 */
+		public String header(String name) {
+			return response.headers().firstValue(name).orElse(null);
+		}
+
+		public InputStream body() {
+			return body;
+		}
+
+		public byte[] readAllBytes() throws IOException {
+			return body.readAllBytes();
+		}
+
+		@Override
+		public void close() throws IOException {
+			body.close();
+		}
+	}
+
+	/**
+	 * Fails reads past the maximum response size or past the request deadline, and releases
+	 * the host permit on close. At the deadline the stream is closed from the timer thread,
+	 * which also ends a read blocked on a slow host.
+	 */
+	private final class LimitedInputStream extends FilterInputStream {
+		private final URI uri;
+		private final Host host;
+		private final AtomicBoolean closed = new AtomicBoolean();
+		private final ScheduledFuture<?> timeout;
+		private volatile boolean expired;
+		private long count;
+
+		LimitedInputStream(InputStream in, URI uri, Host host, long deadline) {
+			super(in);
+			this.uri = uri;
+			this.host = host;
+			this.timeout = timer.schedule(this::expire, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b;
+			try {
+				b = super.read();
+			} catch (IOException e) {
+				throw expired ? timedOut() : e;
+			}
+			if (expired) {
+				throw timedOut();
+			}
+			if (b >= 0) {
+				count(1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n;
+			try {
+				n = super.read(b, off, len);
+			} catch (IOException e) {
+				throw expired ? timedOut() : e;
+			}
+			if (expired) {
+				throw timedOut();
+			}
+			if (n > 0) {
+				count(n);
+			}
+			return n;
+		}
+
+		private void expire() {
+			expired = true;
+			try {
+				close();
+			} catch (IOException ignored) {
+				// the permit is released regardless
+			}
+		}
+
+		private IOException timedOut() {
+			return new IOException("Timed out reading response from " + uri + " after " + requestTimeout);
+		}
+
+		private void count(long n) throws IOException {
+			count += n;
+			if (count > maxResponseBytes) {
+				throw new IOException("Response from " + uri + " exceeds " + maxResponseBytes + " bytes");
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed.compareAndSet(false, true)) {
+				timeout.cancel(false);
+				try {
+					super.close();
+				} finally {
+					release(host);
+				}
+			}
+		}
+	}
+
+	public static class Builder {
+		private Duration connectTimeout = Duration.ofSeconds(10);
+		private Duration requestTimeout = Duration.ofSeconds(30);
+		private int maxRequestsPerHost = 16;
+		private long maxResponseBytes = 64L * 1024 * 1024;
+
+		public Builder connectTimeout(Duration connectTimeout) {
+			this.connectTimeout = connectTimeout;
+			return this;
+		}
+
+		/**
+		 * The time allowed for the whole exchange, from sending the request until the response body has been read.
+		 */
+		public Builder requestTimeout(Duration requestTimeout) {
+			this.requestTimeout = requestTimeout;
+			return this;
+		}
+
+		public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+			this.maxRequestsPerHost = maxRequestsPerHost;
+			return this;
+		}
+
+		public Builder maxResponseBytes(long maxResponseBytes) {
+			this.maxResponseBytes = maxResponseBytes;
+			return this;
+		}
+
+		public HttpClientService build() {
+			return new HttpClientService(this);
+		}
+	}
+
+	private static final int MAX_REDIRECTS = 5;
+	private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "http-response-deadline");
+		thread.setDaemon(true);
+		return thread;
+	});
+}
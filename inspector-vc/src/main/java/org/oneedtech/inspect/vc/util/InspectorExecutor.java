@@ -0,0 +1,123 @@
+package org.oneedtech.inspect.vc.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Predicate;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * The bounded executor the inspectors run sub-inspections and probes on.
+ * Results are always returned in task order, so reports built from them are
+ * the same as when the tasks run one after another.
+ *
+ * <p>Tasks started from a thread of the executor itself run inline, so that
+ * nested inspections cannot exhaust the pool waiting on each other.</p>
+ */
+public final class InspectorExecutor {
+	private static final ThreadLocal<Boolean> worker = ThreadLocal.withInitial(() -> Boolean.FALSE);
+	private static final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+			.setDaemon(true)
+			.setNameFormat("inspector-%d")
+			.build();
+
+	private static volatile ExecutorService executor = newExecutor(Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+	private InspectorExecutor() {}
+
+	/**
+	 * Set the number of threads tasks run on. Tasks already running complete on the previous threads.
+	 */
+	public static void setParallelism(int threads) {
+		ExecutorService previous = executor;
+		executor = newExecutor(threads);
+		previous.shutdown();
+	}
+
+	/**
+	 * The executor itself, for tasks that are chained rather than waited on.
+	 */
+	public static Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Whether the current thread is one of the executor's.
+	 */
+	public static boolean isWorker() {
+		return worker.get();
+	}
+
+	/**
+	 * Run the given tasks and return their results in task order. Results are
+	 * inspected in that order, and once a result matches stop, the tasks after
+	 * it are cancelled, if not yet started, and left out, as if the tasks had run one after another
+	 * and stopped there.
+	 *
+	 * @param stop whether a result ends the run, null to always run all tasks
+	 * @throws Exception the exception of the first task, in task order, that
+	 *     failed before any stopping result
+	 */
+	public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks, Predicate<? super T> stop) throws Exception {
+		List<T> results = new ArrayList<>(tasks.size());
+		if (tasks.size() < 2 || isWorker()) {
+			for (Callable<T> task : tasks) {
+				T result = task.call();
+				results.add(result);
+				if (stop != null && stop.test(result)) break;
+			}
+			return results;
+		}
+
+		ExecutorService service = executor;
+		List<Future<T>> futures = new ArrayList<>(tasks.size());
+		try {
+			for (Callable<T> task : tasks) {
+				futures.add(service.submit(task));
+			}
+			for (Future<T> future : futures) {
+				T result = get(future);
+				results.add(result);
+				if (stop != null && stop.test(result)) break;
+			}
+			return results;
+		} finally {
+			// running tasks are left to complete rather than interrupted, as they may
+			// be loading documents that other inspections are waiting on
+			for (Future<T> future : futures) {
+				future.cancel(false);
+			}
+		}
+	}
+
+	private static <T> T get(Future<T> future) throws Exception {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		} catch (CancellationException e) {
+			throw new InterruptedException("Task was cancelled");
+		}
+	}
+
+	private static ExecutorService newExecutor(int threads) {
+		return Executors.newFixedThreadPool(threads, task -> threadFactory.newThread(() -> {
+			worker.set(Boolean.TRUE);
+			task.run();
+		}));
+	}
+}
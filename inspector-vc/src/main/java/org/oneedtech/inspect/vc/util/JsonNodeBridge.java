@@ -0,0 +1,511 @@
+package org.oneedtech.inspect.vc.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonStructure;
+import jakarta.json.JsonValue;
+
+/**
+ * Moves JSON between the Jackson trees the inspectors hold and the jakarta.json
+ * and Map based models of the JSON-LD and verifiable credential libraries,
+ * without serializing it to text and parsing it again. Values come out as if
+ * the tree had been serialized and parsed by the other library.
+ */
+public final class JsonNodeBridge {
+
+	private JsonNodeBridge() {}
+
+	/**
+	 * A read-only jakarta.json view of the given tree. The view reads through to
+	 * the tree, which must not be modified while the view is in use.
+	 */
+	public static JsonValue asJsonValue(JsonNode node) {
+		switch (node.getNodeType()) {
+			case OBJECT:
+				return new ObjectView(node);
+			case ARRAY:
+				return new ArrayView(node);
+			case STRING:
+				return new StringView(node);
+			case NUMBER:
+				return new NumberView(node);
+			case BOOLEAN:
+				return node.booleanValue() ? JsonValue.TRUE : JsonValue.FALSE;
+			case NULL:
+				return JsonValue.NULL;
+			default:
+				throw new IllegalArgumentException("Unsupported JSON node type " + node.getNodeType());
+		}
+	}
+
+	/**
+	 * A read-only jakarta.json view of the given object or array, see {@link #asJsonValue(JsonNode)}.
+	 */
+	public static JsonStructure asJsonStructure(JsonNode node) {
+		if (!node.isContainerNode()) {
+			throw new IllegalArgumentException("Expected a JSON object or array, found " + node.getNodeType());
+		}
+		return (JsonStructure) asJsonValue(node);
+	}
+
+	/**
+	 * A read-only jakarta.json view of the given object, see {@link #asJsonValue(JsonNode)}.
+	 */
+	public static JsonObject asJsonObject(JsonNode node) {
+		if (!node.isObject()) {
+			throw new IllegalArgumentException("Expected a JSON object, found " + node.getNodeType());
+		}
+		return new ObjectView(node);
+	}
+
+	/**
+	 * Copy the given object into nested maps and lists, with the value types
+	 * a default ObjectMapper reads untyped JSON into.
+	 */
+	public static Map<String, Object> toMap(JsonNode node) {
+		if (!node.isObject()) {
+			throw new IllegalArgumentException("Expected a JSON object, found " + node.getNodeType());
+		}
+		Map<String, Object> map = new LinkedHashMap<>();
+		Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+		while (fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			map.put(field.getKey(), toObject(field.getValue()));
+		}
+		return map;
+	}
+
+	private static Object toObject(JsonNode node) {
+		switch (node.getNodeType()) {
+			case OBJECT:
+				return toMap(node);
+			case ARRAY:
+				List<Object> list = new ArrayList<>(node.size());
+				for (JsonNode element : node) {
+					list.add(toObject(element));
+				}
+				return list;
+			case STRING:
+				return node.textValue();
+			case NUMBER:
+				if (!node.isIntegralNumber()) return node.doubleValue();
+				if (node.canConvertToInt()) return node.intValue();
+				if (node.canConvertToLong()) return node.longValue();
+				return node.bigIntegerValue();
+			case BOOLEAN:
+				return node.booleanValue();
+			case NULL:
+				return null;
+			default:
+				throw new IllegalArgumentException("Unsupported JSON node type " + node.getNodeType());
+		}
+	}
+
+	/**
+	 * Copy the given jakarta.json value into a tree, with the node types the given mapper reads JSON into.
+	 */
+	public static JsonNode toJsonNode(JsonValue value, ObjectMapper mapper) {
+		JsonNodeFactory factory = mapper.getNodeFactory();
+		switch (value.getValueType()) {
+			case OBJECT:
+				ObjectNode object = factory.objectNode();
+				for (Map.Entry<String, JsonValue> entry : value.asJsonObject().entrySet()) {
+					object.set(entry.getKey(), toJsonNode(entry.getValue(), mapper));
+				}
+				return object;
+			case ARRAY:
+				ArrayNode array = factory.arrayNode();
+				for (JsonValue element : value.asJsonArray()) {
+					array.add(toJsonNode(element, mapper));
+				}
+				return array;
+			case STRING:
+				return factory.textNode(((JsonString) value).getString());
+			case NUMBER:
+				JsonNumber number = (JsonNumber) value;
+				if (!number.isIntegral()) {
+					return mapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+							? factory.numberNode(number.bigDecimalValue())
+							: factory.numberNode(number.doubleValue());
+				}
+				BigInteger integer = number.bigIntegerValue();
+				if (mapper.isEnabled(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS) || integer.bitLength() >= 64) {
+					return factory.numberNode(integer);
+				}
+				return integer.bitLength() < 32 ? factory.numberNode(integer.intValue()) : factory.numberNode(integer.longValue());
+			case TRUE:
+				return factory.booleanNode(true);
+			case FALSE:
+				return factory.booleanNode(false);
+			default:
+				return factory.nullNode();
+		}
+	}
+
+	private static final class ObjectView extends AbstractMap<String, JsonValue> implements JsonObject {
+		private final JsonNode node;
+
+		ObjectView(JsonNode node) {
+			this.node = node;
+		}
+
+		@Override
+		public Set<Map.Entry<String, JsonValue>> entrySet() {
+			return new AbstractSet<>() {
+				@Override
+				public Iterator<Map.Entry<String, JsonValue>> iterator() {
+					Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+					return new Iterator<>() {
+						@Override
+						public boolean hasNext() {
+							return fields.hasNext();
+						}
+
+						@Override
+						public Map.Entry<String, JsonValue> next() {
+							Map.Entry<String, JsonNode> field = fields.next();
+							return new AbstractMap.SimpleImmutableEntry<>(field.getKey(), asJsonValue(field.getValue()));
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return node.size();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return node.size();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof String && node.has((String) key);
+		}
+
+		@Override
+		public JsonValue get(Object key) {
+			JsonNode value = key instanceof String ? node.get((String) key) : null;
+			return value == null ? null : asJsonValue(value);
+		}
+
+		@Override
+		public JsonArray getJsonArray(String name) {
+			return (JsonArray) get(name);
+		}
+
+		@Override
+		public JsonObject getJsonObject(String name) {
+			return (JsonObject) get(name);
+		}
+
+		@Override
+		public JsonNumber getJsonNumber(String name) {
+			return (JsonNumber) get(name);
+		}
+
+		@Override
+		public JsonString getJsonString(String name) {
+			return (JsonString) get(name);
+		}
+
+		@Override
+		public String getString(String name) {
+			return getJsonString(name).getString();
+		}
+
+		@Override
+		public String getString(String name, String defaultValue) {
+			JsonValue value = get(name);
+			return value instanceof JsonString ? ((JsonString) value).getString() : defaultValue;
+		}
+
+		@Override
+		public int getInt(String name) {
+			return getJsonNumber(name).intValue();
+		}
+
+		@Override
+		public int getInt(String name, int defaultValue) {
+			JsonValue value = get(name);
+			return value instanceof JsonNumber ? ((JsonNumber) value).intValue() : defaultValue;
+		}
+
+		@Override
+		public boolean getBoolean(String name) {
+			return toBoolean(get(name));
+		}
+
+		@Override
+		public boolean getBoolean(String name, boolean defaultValue) {
+			JsonValue value = get(name);
+			return value == JsonValue.TRUE || (value != JsonValue.FALSE && defaultValue);
+		}
+
+		@Override
+		public boolean isNull(String name) {
+			return get(name).equals(JsonValue.NULL);
+		}
+
+		@Override
+		public ValueType getValueType() {
+			return ValueType.OBJECT;
+		}
+
+		@Override
+		public String toString() {
+			return node.toString();
+		}
+	}
+
+	private static final class ArrayView extends AbstractList<JsonValue> implements JsonArray, RandomAccess {
+		private final JsonNode node;
+
+		ArrayView(JsonNode node) {
+			this.node = node;
+		}
+
+		@Override
+		public JsonValue get(int index) {
+			JsonNode value = node.get(index);
+			if (value == null) {
+				throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + node.size());
+			}
+			return asJsonValue(value);
+		}
+
+		@Override
+		public int size() {
+			return node.size();
+		}
+
+		@Override
+		public JsonObject getJsonObject(int index) {
+			return (JsonObject) get(index);
+		}
+
+		@Override
+		public JsonArray getJsonArray(int index) {
+			return (JsonArray) get(index);
+		}
+
+		@Override
+		public JsonNumber getJsonNumber(int index) {
+			return (JsonNumber) get(index);
+		}
+
+		@Override
+		public JsonString getJsonString(int index) {
+			return (JsonString) get(index);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T extends JsonValue> List<T> getValuesAs(Class<T> clazz) {
+			return (List<T>) this;
+		}
+
+		@Override
+		public String getString(int index) {
+			return getJsonString(index).getString();
+		}
+
+		@Override
+		public String getString(int index, String defaultValue) {
+			JsonValue value = index >= 0 && index < size() ? get(index) : null;
+			return value instanceof JsonString ? ((JsonString) value).getString() : defaultValue;
+		}
+
+		@Override
+		public int getInt(int index) {
+			return getJsonNumber(index).intValue();
+		}
+
+		@Override
+		public int getInt(int index, int defaultValue) {
+			JsonValue value = index >= 0 && index < size() ? get(index) : null;
+			return value instanceof JsonNumber ? ((JsonNumber) value).intValue() : defaultValue;
+		}
+
+		@Override
+		public boolean getBoolean(int index) {
+			return toBoolean(get(index));
+		}
+
+		@Override
+		public boolean getBoolean(int index, boolean defaultValue) {
+			JsonValue value = index >= 0 && index < size() ? get(index) : null;
+			return value == JsonValue.TRUE || (value != JsonValue.FALSE && defaultValue);
+		}
+
+		@Override
+		public boolean isNull(int index) {
+			return get(index).equals(JsonValue.NULL);
+		}
+
+		@Override
+		public ValueType getValueType() {
+			return ValueType.ARRAY;
+		}
+
+		@Override
+		public String toString() {
+			return node.toString();
+		}
+	}
+
+	private static final class StringView implements JsonString {
+		private final JsonNode node;
+
+		StringView(JsonNode node) {
+			this.node = node;
+		}
+
+		@Override
+		public String getString() {
+			return node.textValue();
+		}
+
+		@Override
+		public CharSequence getChars() {
+			return node.textValue();
+		}
+
+		@Override
+		public ValueType getValueType() {
+			return ValueType.STRING;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof JsonString && getString().equals(((JsonString) obj).getString());
+		}
+
+		@Override
+		public int hashCode() {
+			return getString().hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return node.toString();
+		}
+	}
+
+	/**
+	 * A number as parsed from its JSON text: integers are integral, other numbers
+	 * are decimals with the scale of their text, even when it is zero.
+	 */
+	private static final class NumberView implements JsonNumber {
+		private final JsonNode node;
+
+		NumberView(JsonNode node) {
+			this.node = node;
+		}
+
+		@Override
+		public boolean isIntegral() {
+			return node.isIntegralNumber();
+		}
+
+		@Override
+		public int intValue() {
+			return isIntegral() ? node.intValue() : bigDecimalValue().intValue();
+		}
+
+		@Override
+		public int intValueExact() {
+			return bigDecimalValue().intValueExact();
+		}
+
+		@Override
+		public long longValue() {
+			return isIntegral() ? node.longValue() : bigDecimalValue().longValue();
+		}
+
+		@Override
+		public long longValueExact() {
+			return bigDecimalValue().longValueExact();
+		}
+
+		@Override
+		public BigInteger bigIntegerValue() {
+			return isIntegral() ? node.bigIntegerValue() : bigDecimalValue().toBigInteger();
+		}
+
+		@Override
+		public BigInteger bigIntegerValueExact() {
+			return bigDecimalValue().toBigIntegerExact();
+		}
+
+		@Override
+		public double doubleValue() {
+			return isIntegral() ? node.doubleValue() : bigDecimalValue().doubleValue();
+		}
+
+		@Override
+		public BigDecimal bigDecimalValue() {
+			// the text Jackson writes the number as
+			return isIntegral() ? new BigDecimal(node.bigIntegerValue()) : new BigDecimal(node.asText());
+		}
+
+		@Override
+		public Number numberValue() {
+			return isIntegral() && node.canConvertToLong() ? node.numberValue() : bigDecimalValue();
+		}
+
+		@Override
+		public ValueType getValueType() {
+			return ValueType.NUMBER;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof JsonNumber && bigDecimalValue().equals(((JsonNumber) obj).bigDecimalValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return bigDecimalValue().hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return bigDecimalValue().toString();
+		}
+	}
+
+	private static boolean toBoolean(JsonValue value) {
+		if (value == null) {
+			throw new NullPointerException();
+		}
+		if (value == JsonValue.TRUE) return true;
+		if (value == JsonValue.FALSE) return false;
+		throw new ClassCastException("Not a boolean: " + value.getValueType());
+	}
+}
@@ -1,7 +1,6 @@
 package org.oneedtech.inspect.vc.util;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -11,22 +10,19 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
 import java.time.format.ResolverStyle;
+import java.util.HashMap;
 import java.util.IllformedLocaleException;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.regex.Pattern;
 
-import org.oneedtech.inspect.core.probe.json.JsonPathEvaluator;
 import org.oneedtech.inspect.util.json.ObjectMapperCache;
 import org.oneedtech.inspect.util.json.ObjectMapperCache.Config;
 
-import com.apicatalog.jsonld.JsonLd;
-import com.apicatalog.jsonld.JsonLdError;
-import com.apicatalog.jsonld.document.JsonDocument;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectReader;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.TextNode;
 import com.google.common.io.Resources;
 
 /**
@@ -43,24 +39,15 @@ public class PrimitiveValueValidator {
             return true;
         }
 
-        ObjectMapper mapper = ObjectMapperCache.get(Config.DEFAULT); // TODO: get from RunContext
-
+        // JSON-LD expansion keeps a property that is a term, @type, or expands to an IRI, i.e. contains a colon
+        String text = value.asText();
         try {
-            JsonNode node = mapper.readTree(Resources.getResource("contexts/ob-v2p0.json"));
-            ObjectReader readerForUpdating = mapper.readerForUpdating(node);
-            JsonNode merged = readerForUpdating.readValue("{\"" + value.asText() + "\" : \"TEST\"}");
-            JsonDocument jsonDocument = JsonDocument.of(new StringReader(merged.toString()));
-
-            JsonNode expanded = mapper.readTree(JsonLd.expand(jsonDocument).get().toString());
-            if (expanded.isArray() && ((ArrayNode) expanded).size() > 0) {
-                return true;
-            }
-
-        } catch (NullPointerException | IOException | JsonLdError e) {
+            return getOb20Terms().containsKey(text)
+                || text.equals("@type")
+                || !text.startsWith("@") && text.indexOf(':') >= 0;
+        } catch (IOException e) {
             return false;
         }
-
-        return false;
     }
 
     public static boolean validateDataUri(JsonNode value) {
@@ -84,28 +71,33 @@ public class PrimitiveValueValidator {
         .parseStrict()
         .toFormatter();
 
+    private static final List<DateTimeFormatter> DATETIME_FORMATTERS = List.of(ISO_OFFSET_TIME_JOINED,
+        DateTimeFormatter.ISO_OFFSET_DATE_TIME,
+        DateTimeFormatter.ISO_INSTANT);
+
     public static boolean validateDatetime(JsonNode value) {
-        boolean valid = List.of(ISO_OFFSET_TIME_JOINED,
-            DateTimeFormatter.ISO_OFFSET_DATE_TIME,
-            DateTimeFormatter.ISO_INSTANT)
-        .stream().anyMatch(formatter -> {
+        if (value == null) {
+            return false;
+        }
+        String text = value.asText();
+        for (DateTimeFormatter formatter : DATETIME_FORMATTERS) {
             try {
-                formatter.parse(value.asText());
+                formatter.parse(text);
                 return true;
-            } catch (DateTimeParseException | NullPointerException ignored) {
-                return false;
+            } catch (DateTimeParseException ignored) {
+                // try the next format
             }
-        });
-
-        return valid;
+        }
+        return false;
     }
 
     public static boolean validateEmail(JsonNode value) {
-        return value.asText().matches("(^[^@\\s]+@[^@\\s]+$)");
+        return EMAIL.matcher(value.asText()).matches();
     }
 
     public static boolean is_hashed_identity_hash(JsonNode value) {
-        return value.asText().matches("md5\\$[\\da-fA-F]{32}$") || value.asText().matches("sha256\\$[\\da-fA-F]{64}$");
+        String text = value.asText();
+        return MD5_HASH.matcher(text).matches() || SHA256_HASH.matcher(text).matches();
     }
 
     /**
@@ -124,9 +116,9 @@ public class PrimitiveValueValidator {
      * @return
      */
     public static boolean validateIri(JsonNode value) {
-        return
-            Pattern.compile("^_:.+", Pattern.CASE_INSENSITIVE).matcher(value.asText()).matches()
-            || Pattern.compile("^urn:uuid:[0-9a-f]{8}-[0-9a-f]{4}-[1-5][0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}$", Pattern.CASE_INSENSITIVE).matcher(value.asText()).matches()
+        String text = value.asText();
+        return BLANK_NODE.matcher(text).matches()
+            || URN_UUID.matcher(text).matches()
             || validateUrl(value);
     }
 
@@ -148,26 +140,15 @@ public class PrimitiveValueValidator {
             return false;
         }
 
-        ObjectMapper mapper = ObjectMapperCache.get(Config.DEFAULT); // TODO: get from RunContext
-        JsonPathEvaluator jsonPath = new JsonPathEvaluator(mapper); // TODO: get from RunContext
-
         try {
-            JsonNode node = mapper.readTree(Resources.getResource("contexts/ob-v2p0.json"));
-            ObjectReader readerForUpdating = mapper.readerForUpdating(node);
-            JsonNode merged = readerForUpdating.readValue("{\"type\": \"" + value.asText() + "\"}");
-
-            JsonDocument jsonDocument = JsonDocument.of(new StringReader(merged.toString()));
-            JsonNode expanded = mapper.readTree(JsonLd.expand(jsonDocument).get().toString());
-
-            return validateIri(JsonNodeUtil.asNodeList(expanded, "$[0].@type[0]", jsonPath).get(0));
-
-        } catch (NullPointerException | IOException | JsonLdError e) {
+            return validateIri(TextNode.valueOf(expandIri(value.asText(), getOb20Terms())));
+        } catch (IOException e) {
             return false;
         }
     }
 
     public static boolean validateTelephone(JsonNode value) {
-        return value.asText().matches("^\\+?[1-9]\\d{1,14}(;ext=\\d+)?$");
+        return TELEPHONE.matcher(value.asText()).matches();
     }
 
     public static boolean validateText(JsonNode value) {
@@ -201,7 +182,7 @@ public class PrimitiveValueValidator {
         try {
             testUri = new URI("http://" + value.asText() + "/test");
             String host = testUri.getHost();
-            if (host == null || !host.matches("(?=^.{4,253}$)(^((?!-)[a-zA-Z0-9-]{0,62}[a-zA-Z0-9]\\.)+[a-zA-Z]{2,63}$)")) {
+            if (host == null || !HOSTNAME.matcher(host).matches()) {
                 return false;
             }
             return testUri.getScheme().equals("http") && host.equals(value.asText()) && testUri.getPath().equals("/test") && testUri.getQuery() == null;
@@ -209,4 +190,61 @@ public class PrimitiveValueValidator {
             return false;
         }
     }
+
+    /**
+     * The terms of the OB 2.0 context, mapped to the IRIs they expand to. The RDF type and compact
+     * IRI checks look values up here instead of expanding a document against the context.
+     */
+    private static Map<String, String> getOb20Terms() throws IOException {
+        Map<String, String> terms = ob20Terms;
+        if (terms == null) {
+            ObjectMapper mapper = ObjectMapperCache.get(Config.DEFAULT); // TODO: get from RunContext
+            JsonNode context = mapper.readTree(Resources.getResource("contexts/ob-v2p0.json")).get("@context");
+            Map<String, String> definitions = new HashMap<>();
+            context.fields().forEachRemaining(field -> {
+                JsonNode definition = field.getValue();
+                definitions.put(field.getKey(), definition.isObject() ? definition.path("@id").asText() : definition.asText());
+            });
+            Map<String, String> expanded = new HashMap<>();
+            for (String term : definitions.keySet()) {
+                expanded.put(term, expandIri(term, definitions));
+            }
+            ob20Terms = terms = Map.copyOf(expanded);
+        }
+        return terms;
+    }
+
+    /**
+     * IRI expansion of a vocabulary value against the given term definitions: terms and the prefix
+     * of compact IRIs are replaced by their mappings, anything else is kept as is.
+     */
+    private static String expandIri(String value, Map<String, String> terms) {
+        for (int depth = 0; depth < terms.size() && !value.startsWith("@"); depth++) {
+            String mapping = terms.get(value);
+            if (mapping != null) {
+                if (mapping.equals(value)) {
+                    break;
+                }
+                value = mapping;
+                continue;
+            }
+            int colon = value.indexOf(':');
+            String prefix = colon > 0 ? terms.get(value.substring(0, colon)) : null;
+            if (prefix == null || value.startsWith("//", colon + 1)) {
+                break;
+            }
+            value = prefix + value.substring(colon + 1);
+        }
+        return value;
+    }
+
+    private static volatile Map<String, String> ob20Terms;
+
+    private static final Pattern BLANK_NODE = Pattern.compile("^_:.+", Pattern.CASE_INSENSITIVE);
+    private static final Pattern URN_UUID = Pattern.compile("^urn:uuid:[0-9a-f]{8}-[0-9a-f]{4}-[1-5][0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern EMAIL = Pattern.compile("(^[^@\\s]+@[^@\\s]+$)");
+    private static final Pattern MD5_HASH = Pattern.compile("md5\\$[\\da-fA-F]{32}$");
+    private static final Pattern SHA256_HASH = Pattern.compile("sha256\\$[\\da-fA-F]{64}$");
+    private static final Pattern TELEPHONE = Pattern.compile("^\\+?[1-9]\\d{1,14}(;ext=\\d+)?$");
+    private static final Pattern HOSTNAME = Pattern.compile("(?=^.{4,253}$)(^((?!-)[a-zA-Z0-9-]{0,62}[a-zA-Z0-9]\\.)+[a-zA-Z]{2,63}$)");
 }
@@ -16,6 +16,7 @@ import java.io.StringWriter;
 import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import org.oneedtech.inspect.vc.jsonld.JsonLdContextCache;
 
 /**
  * RDFC 1.0 canonicalizer for use with ECDSA-SD 2023.
@@ -32,7 +33,7 @@ public class RDFC10Canonicalizer extends Canonicalizer {
     @Override
     public String canonicalize(JsonLDObject jsonLDObject)
         throws JsonLDException, IOException, NoSuchAlgorithmException {
-        RdfDataset rdfDataset = jsonLDObject.toDataset();
+        RdfDataset rdfDataset = JsonLdContextCache.toDataset(jsonLDObject);
         RdfCanon rdfCanon = RdfCanon.create("SHA-256");
         feedDataset(rdfDataset, rdfCanon);
 
@@ -33,6 +33,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.bouncycastle.util.encoders.Hex;
 import org.oneedtech.inspect.util.code.Tuple;
+import org.oneedtech.inspect.vc.jsonld.JsonLdContextCache;
 
 /**
  * This class implements the functions required for the ECDSA-SD 2023 signature suite,
@@ -167,7 +168,7 @@ public class SDFunctions {
     // 1. Deserialize the JSON-LD document to RDF, rdf, using the Deserialize JSON-LD to RDF
     // algorithm, passing any custom options (such as a document loader).
     unsecuredDocument.setDocumentLoader(documentLoader);
-    RdfDataset rdfDataset = unsecuredDocument.toDataset();
+    RdfDataset rdfDataset = JsonLdContextCache.toDataset(unsecuredDocument);
 
     // 2. Serialize rdf to an array of N-Quad strings, nquads.
     // not needed becuse the canocalization algorithm will do this
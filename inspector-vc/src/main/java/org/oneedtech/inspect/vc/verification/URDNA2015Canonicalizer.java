@@ -7,6 +7,7 @@ import java.security.NoSuchAlgorithmException;
 import java.util.List;
 
 import org.apache.commons.codec.binary.Hex;
+import org.oneedtech.inspect.vc.jsonld.JsonLdContextCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,7 +41,7 @@ public class URDNA2015Canonicalizer extends Canonicalizer {
 
     @Override
     public String canonicalize(JsonLDObject jsonLDObject) throws JsonLDException, IOException, NoSuchAlgorithmException {
-        RdfDataset rdfDataset = jsonLDObject.toDataset();
+        RdfDataset rdfDataset = JsonLdContextCache.toDataset(jsonLDObject);
         rdfDataset = RdfNormalize.normalize(rdfDataset, "urdna2015");
         StringWriter stringWriter = new StringWriter();
         NQuadsWriter nQuadsWriter = new NQuadsWriter(stringWriter);
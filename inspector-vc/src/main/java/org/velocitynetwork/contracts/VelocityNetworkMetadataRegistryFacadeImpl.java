@@ -3,6 +3,7 @@ package org.velocitynetwork.contracts;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import okhttp3.*;
+import org.oneedtech.inspect.vc.util.HttpClientService;
 import org.web3j.crypto.Credentials;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
@@ -30,7 +31,7 @@ public class VelocityNetworkMetadataRegistryFacadeImpl implements VelocityNetwor
     public VelocityNetworkMetadataRegistryFacadeImpl(String rpcUrl, String privateKey, String contractAddress, String tokenEndpoint, String clientId, String clientSecret) {
         this.contractAddress = contractAddress;
 
-        OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder();
+        OkHttpClient.Builder clientBuilder = newClientBuilder();
 
         if (tokenEndpoint !=null && clientId != null && clientSecret != null) {
             clientBuilder = clientBuilder.addInterceptor(new Interceptor() {
@@ -39,9 +40,7 @@ public class VelocityNetworkMetadataRegistryFacadeImpl implements VelocityNetwor
                     Request originalRequest = chain.request();
 
                     if (this.accessToken == null) {
-                        OkHttpClient authClient = new OkHttpClient()
-                                .newBuilder()
-                                .build();
+                        OkHttpClient authClient = newClientBuilder().build();
 
                         // Create the request body
                         MediaType mediaType = MediaType.parse("application/json");
@@ -77,6 +76,20 @@ public class VelocityNetworkMetadataRegistryFacadeImpl implements VelocityNetwor
         this.credentials = Credentials.create(privateKey);
     }
 
+    /**
+     * An OkHttp client builder with the timeouts and per-host limit of the shared HttpClientService.
+     */
+    private static OkHttpClient.Builder newClientBuilder() {
+        HttpClientService http = HttpClientService.getDefault();
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(http.getMaxRequestsPerHost());
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectTimeout(http.getConnectTimeout())
+                .readTimeout(http.getRequestTimeout())
+                .writeTimeout(http.getRequestTimeout());
+    }
+
     public VelocityNetworkMetadataRegistry getMetadataRegistryContract() {
         if (this.metadataRegistryContract == null) {
             this.metadataRegistryContract = org.velocitynetwork.contracts.VelocityNetworkMetadataRegistry.load(
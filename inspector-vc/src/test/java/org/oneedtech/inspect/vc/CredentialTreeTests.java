@@ -0,0 +1,64 @@
+package org.oneedtech.inspect.vc;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class CredentialTreeTests {
+	private static CredentialTree tree;
+
+	@BeforeAll
+	static void setup() throws Exception {
+		JsonNode root = new ObjectMapper().readTree("{"
+				+ "\"id\": {\"type\": \"Extension\"},"
+				+ "\"endorsement\": [{\"id\": \"e1\", \"endorsement\": {\"id\": \"e2\"}}, {\"id\": \"e3\"}],"
+				+ "\"credentialSubject\": {"
+				+ "  \"verifications\": [\"v1\"],"
+				+ "  \"achievement\": [{"
+				+ "    \"endorsement\": {\"id\": \"e4\"},"
+				+ "    \"verifications\": \"v2\","
+				+ "    \"ext\": {\"type\": [\"Extension\", \"MyExtension\"]}"
+				+ "  }],"
+				+ "  \"verifiableCredential\": [{\"id\": \"vc1\"}, {\"id\": \"vc2\"}]"
+				+ "},"
+				+ "\"verifications\": \"outside the subject\","
+				+ "\"endorsementJwt\": \"jwt1\""
+				+ "}");
+		tree = CredentialTree.of(root);
+	}
+
+	@Test
+	void testEndorsementsInDeepScanOrder() {
+		Assertions.assertEquals(List.of("e1", "e3", "e2", "e4"), ids(tree.getEndorsements()));
+		Assertions.assertEquals(List.of("jwt1"), texts(tree.getEndorsementJwts()));
+	}
+
+	@Test
+	void testSubjectNodes() {
+		Assertions.assertEquals(List.of("v1", "v2"), texts(tree.getSubjectVerifications()));
+		Assertions.assertEquals(List.of("vc1", "vc2"), ids(tree.getSubjectCredentials()));
+	}
+
+	@Test
+	void testExtensions() {
+		Assertions.assertEquals(1, tree.getExtensions().size());
+		CredentialTree.Extension extension = tree.getExtensions().get(0);
+		Assertions.assertEquals(".credentialSubject.achievement[0].ext", extension.getPath());
+		Assertions.assertEquals(List.of("MyExtension"), extension.getTypes());
+	}
+
+	private static List<String> ids(List<JsonNode> nodes) {
+		return nodes.stream().map(node -> node.get("id").asText()).collect(toList());
+	}
+
+	private static List<String> texts(List<JsonNode> nodes) {
+		return nodes.stream().map(JsonNode::asText).collect(toList());
+	}
+}
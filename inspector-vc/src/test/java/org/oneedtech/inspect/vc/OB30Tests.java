@@ -1,6 +1,7 @@
 package org.oneedtech.inspect.vc;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.oneedtech.inspect.test.Assertions.assertErrorCount;
@@ -11,11 +12,21 @@ import static org.oneedtech.inspect.test.Assertions.assertValid;
 import static org.oneedtech.inspect.test.Assertions.assertWarning;
 import static org.velocitynetwork.contracts.CryptoUtils.hexToBytes;
 
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
 import com.google.common.collect.Iterables;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -25,6 +36,9 @@ import org.oneedtech.inspect.core.probe.GeneratedObject;
 import org.oneedtech.inspect.core.probe.json.JsonSchemaProbe;
 import org.oneedtech.inspect.core.report.Report;
 import org.oneedtech.inspect.test.PrintHelper;
+import org.oneedtech.inspect.test.Sample;
+import org.oneedtech.inspect.util.resource.ResourceType;
+import org.oneedtech.inspect.util.spec.Specification;
 import org.oneedtech.inspect.vc.jsonld.probe.JsonLDValidationProbe;
 import org.oneedtech.inspect.vc.probe.ContextPropertyProbe;
 import org.oneedtech.inspect.vc.probe.CredentialSubjectProbe;
@@ -35,9 +49,11 @@ import org.oneedtech.inspect.vc.probe.ExpirationProbe;
 import org.oneedtech.inspect.vc.probe.InlineJsonSchemaProbe;
 import org.oneedtech.inspect.vc.probe.IssuanceProbe;
 import org.oneedtech.inspect.vc.probe.IssuerProbe;
+import org.oneedtech.inspect.vc.probe.ProofVerificationCache;
 import org.oneedtech.inspect.vc.probe.RevocationListProbe;
 import org.oneedtech.inspect.vc.probe.TypePropertyProbe;
 import org.oneedtech.inspect.vc.status.bitstring.BitstringStatusListProbe;
+import org.oneedtech.inspect.vc.util.CachingDocumentLoader;
 import org.velocitynetwork.contracts.VelocityNetworkDidResolver;
 import org.velocitynetwork.contracts.VelocityNetworkMetadataRegistry;
 import org.velocitynetwork.contracts.VelocityNetworkMetadataRegistryFacade;
@@ -72,6 +88,61 @@ public class OB30Tests {
 		});
 	}
 
+	@Test
+	void testSimpleJsonValidWithPrefetch() {
+		assertDoesNotThrow(()->{
+			PrefetchingInspector.Builder builder = new PrefetchingInspector.Builder();
+			builder.set(Behavior.TEST_INCLUDE_SUCCESS, true);
+			builder.set(VCInspector.Behavior.PREFETCH_REMOTE_RESOURCES, true);
+			PrefetchingInspector prefetching = builder.build();
+			Report report = prefetching.run(Samples.OB30.JSON.SIMPLE_JSON.asFileResource());
+			if(verbose) PrintHelper.print(report, true);
+			assertValid(report);
+
+			// the prefetch loaded each context of the credential once, through the caching loader
+			List<URI> contexts = List.of(URI.create("https://www.w3.org/ns/credentials/v2"),
+					URI.create("https://purl.imsglobal.org/spec/ob/v3p0/context-3.0.3.json"));
+			long deadline = System.currentTimeMillis() + 10_000;
+			while (!prefetching.loads.keySet().containsAll(contexts) && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			for (URI context : contexts) {
+				assertEquals(1, prefetching.loads.getOrDefault(context, new AtomicInteger()).get(), context.toString());
+			}
+		});
+	}
+
+	/**
+	 * Counts the documents the prefetch loads.
+	 */
+	static class PrefetchingInspector extends OB30Inspector {
+		final Map<URI, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+		PrefetchingInspector(Builder builder) {
+			super(builder);
+		}
+
+		@Override
+		protected DocumentLoader getDocumentLoader() {
+			return new CachingDocumentLoader() {
+				@Override
+				public Document loadDocument(URI url, DocumentLoaderOptions options) throws JsonLdError {
+					loads.computeIfAbsent(url, key -> new AtomicInteger()).incrementAndGet();
+					return super.loadDocument(url, options);
+				}
+			};
+		}
+
+		static class Builder extends OB30Inspector.Builder {
+			@Override
+			public PrefetchingInspector build() {
+				set(Specification.OB_30);
+				set(ResourceType.OPENBADGE);
+				return new PrefetchingInspector(this);
+			}
+		}
+	}
+
 	@Test
 	void testSimple1ObValid() {
 		assertDoesNotThrow(()->{
@@ -503,6 +574,46 @@ public class OB30Tests {
 
 	}
 
+	@Test
+	void testCachedProofVerificationKeepsReport() {
+		assertDoesNotThrow(()->{
+			OB30Inspector caching = new OB30Inspector.Builder()
+					.set(Behavior.TEST_INCLUDE_SUCCESS, true)
+					.set(VCInspector.Behavior.CACHE_PROOF_VERIFICATIONS, true)
+					.build();
+			ProofVerificationCache.reset();
+			// expiration and status are checked again when the proof verification is cached
+			for (Sample sample : List.of(Samples.OB30.JSON.SIMPLE_JSON, Samples.OB30.JSON.SIMPLE_JSON_EXPIRED,
+					Samples.OB30.BSL.CREDENTIAL_STATUS_REVOKED)) {
+				Report verified = caching.run(sample.asFileResource());
+				Report cached = caching.run(sample.asFileResource());
+				if(verbose) PrintHelper.print(cached, true);
+				assertEquals(items(verified), items(cached));
+			}
+			assertHasProbeID(caching.run(Samples.OB30.JSON.SIMPLE_JSON_EXPIRED.asFileResource()), ExpirationProbe.ID, true);
+			assertHasProbeID(caching.run(Samples.OB30.BSL.CREDENTIAL_STATUS_REVOKED.asFileResource()), BitstringStatusListProbe.ID, true);
+		});
+	}
+
+	@Test
+	void testParallelEndorsementsKeepReport() {
+		// three endorsements, of which one is altered and one expired, then an undecodable endorsementJwt
+		assertDoesNotThrow(()->{
+			List<List<String>> reports = new ArrayList<>();
+			for (boolean parallel : new boolean[] { false, true }) {
+				OB30Inspector inspector = new OB30Inspector.Builder()
+						.set(Behavior.TEST_INCLUDE_SUCCESS, true)
+						.set(VCInspector.Behavior.PARALLEL_SUB_INSPECTIONS, parallel)
+						.build();
+				Report report = inspector.run(Samples.OB30.JSON.SIMPLE_ENDORSEMENTS_JSON.asFileResource());
+				if(verbose) PrintHelper.print(report, true);
+				assertInvalid(report);
+				reports.add(items(report));
+			}
+			assertEquals(reports.get(0), reports.get(1));
+		});
+	}
+
 	@Test
 	void testRevokedWithBlankNodes() {
 		assertDoesNotThrow(()->{
@@ -526,6 +637,12 @@ public class OB30Tests {
 		});
 	}
 
+	private static List<String> items(Report report) {
+		return StreamSupport.stream(report.spliterator(), false)
+				.map(item -> item.getOutcome() + " " + item.getMessage())
+				.collect(Collectors.toList());
+	}
+
   static class MockVelocityNetworkMetadataRegistry
       implements VelocityNetworkMetadataRegistryFacade {
     public List<VelocityNetworkMetadataRegistry.CredentialMetadata> getPaidEntries(
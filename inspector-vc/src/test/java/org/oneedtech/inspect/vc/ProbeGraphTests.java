@@ -0,0 +1,157 @@
+package org.oneedtech.inspect.vc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.oneedtech.inspect.core.report.ReportItems;
+
+public class ProbeGraphTests {
+	private final ReportItems brokenItems = new ReportItems();
+	private final Predicate<List<ReportItems>> broken = accumulator -> accumulator.stream().anyMatch(items -> items == brokenItems);
+
+	@Test
+	void testParallelKeepsReportOrder() throws Exception {
+		for (boolean parallel : new boolean[] { false, true }) {
+			List<ReportItems> expected = new ArrayList<>();
+			ProbeGraph graph = new ProbeGraph(parallel);
+			for (int i = 0; i < 8; i++) {
+				ReportItems items = new ReportItems();
+				expected.add(items);
+				int delay = 8 - i;
+				graph.add(() -> {
+					// later probes complete first
+					Thread.sleep(delay);
+					return items;
+				});
+			}
+			graph.add(() -> null).uncounted();
+
+			List<ReportItems> accumulator = new ArrayList<>();
+			ProbeGraph.Result result = graph.run(accumulator, broken);
+			result.throwIfFailed();
+			Assertions.assertFalse(result.isStopped());
+			Assertions.assertEquals(8, result.getProbeCount());
+			Assertions.assertEquals(expected.size(), accumulator.size());
+			for (int i = 0; i < expected.size(); i++) {
+				Assertions.assertSame(expected.get(i), accumulator.get(i));
+			}
+		}
+	}
+
+	@Test
+	void testStopsAtFirstBrokenProbeInReportOrder() throws Exception {
+		CountDownLatch slow = new CountDownLatch(1);
+		AtomicInteger dependentRuns = new AtomicInteger();
+		ReportItems first = new ReportItems();
+		ReportItems second = new ReportItems();
+
+		ProbeGraph graph = new ProbeGraph(true);
+		graph.add(() -> {
+			slow.await(5, TimeUnit.SECONDS);
+			return first;
+		});
+		ProbeGraph.Node failing = graph.add(() -> brokenItems);
+		graph.add(() -> {
+			slow.countDown();
+			return second;
+		});
+		graph.add(() -> {
+			dependentRuns.incrementAndGet();
+			return new ReportItems();
+		}, failing);
+
+		List<ReportItems> accumulator = new ArrayList<>();
+		ProbeGraph.Result result = graph.run(accumulator, broken);
+		Assertions.assertTrue(result.isStopped());
+		Assertions.assertEquals(2, result.getProbeCount());
+		Assertions.assertEquals(2, accumulator.size());
+		Assertions.assertSame(first, accumulator.get(0));
+		Assertions.assertSame(brokenItems, accumulator.get(1));
+		Assertions.assertEquals(0, dependentRuns.get());
+	}
+
+	@Test
+	void testEarlierBrokenProbeSkipsLaterOnes() throws Exception {
+		AtomicInteger runs = new AtomicInteger();
+		ProbeGraph graph = new ProbeGraph(true);
+		// keeps the report from getting to the broken probe
+		graph.add(() -> {
+			Thread.sleep(500);
+			return new ReportItems();
+		});
+		graph.add(() -> brokenItems);
+		ProbeGraph.Node slow = graph.add(() -> {
+			Thread.sleep(100);
+			return new ReportItems();
+		}).unchecked();
+		// does not depend on the broken probe, but starts after it has completed
+		graph.add(() -> {
+			runs.incrementAndGet();
+			return new ReportItems();
+		}, slow);
+
+		ProbeGraph.Result result = graph.run(new ArrayList<>(), broken);
+		Assertions.assertTrue(result.isStopped());
+		Assertions.assertEquals(2, result.getProbeCount());
+		Assertions.assertEquals(0, runs.get());
+	}
+
+	@Test
+	void testOrderedProbeWaitsForEarlierChecks() throws Exception {
+		AtomicInteger runs = new AtomicInteger();
+		ProbeGraph graph = new ProbeGraph(true);
+		graph.add(() -> new ReportItems());
+		graph.add(() -> {
+			Thread.sleep(200);
+			return brokenItems;
+		});
+		graph.add(() -> {
+			runs.incrementAndGet();
+			return new ReportItems();
+		}).unchecked().ordered();
+
+		ProbeGraph.Result result = graph.run(new ArrayList<>(), broken);
+		Assertions.assertTrue(result.isStopped());
+		Assertions.assertEquals(2, result.getProbeCount());
+		Assertions.assertEquals(0, runs.get());
+	}
+
+	@Test
+	void testUncheckedProbesDoNotStop() throws Exception {
+		ProbeGraph graph = new ProbeGraph(true);
+		graph.add(() -> brokenItems).unchecked();
+		graph.add(() -> new ReportItems()).unchecked();
+		graph.add(() -> new ReportItems());
+		graph.add(() -> new ReportItems());
+
+		List<ReportItems> accumulator = new ArrayList<>();
+		ProbeGraph.Result result = graph.run(accumulator, broken);
+		// as in a serial run, the first checked probe sees the earlier broken results
+		Assertions.assertTrue(result.isStopped());
+		Assertions.assertEquals(3, result.getProbeCount());
+		Assertions.assertEquals(3, accumulator.size());
+	}
+
+	@Test
+	void testFailureCountsFailingProbe() {
+		for (boolean parallel : new boolean[] { false, true }) {
+			ProbeGraph graph = new ProbeGraph(parallel);
+			graph.add(() -> new ReportItems());
+			graph.add(() -> { throw new IllegalStateException("probe failed"); });
+			graph.add(() -> new ReportItems());
+
+			List<ReportItems> accumulator = new ArrayList<>();
+			ProbeGraph.Result result = graph.run(accumulator, broken);
+			Assertions.assertEquals(2, result.getProbeCount());
+			Assertions.assertEquals(1, accumulator.size());
+			IllegalStateException e = Assertions.assertThrows(IllegalStateException.class, result::throwIfFailed);
+			Assertions.assertEquals("probe failed", e.getMessage());
+		}
+	}
+}
@@ -15,6 +15,7 @@ public class Samples {
 			public final static Sample SIMPLE_JSON = new Sample("ob30/simple.json", true);
 			public final static Sample SIMPLE_V1_JSON = new Sample("ob30/simple_v1.json", true);
 			public final static Sample SIMPLE_1OB = new Sample("ob30/simple.1ob", true);
+			public final static Sample SIMPLE_ENDORSEMENTS_JSON = new Sample("ob30/simple-endorsements.json", false);
 			public final static Sample SIMPLE_EDDSA_20222_JSON = new Sample("ob30/simple-eddsa-2022.json", true);
 			public final static Sample SIMPLE_DID_KEY_METHOD_JSON = new Sample("ob30/simple-did-key-method.json", true);
 			public final static Sample SIMPLE_DID_WEB_METHOD_JSON = new Sample("ob30/simple-did-web-method.json", true);
@@ -114,6 +115,8 @@ public class Samples {
 			public final static Sample BADGE_WITH_COMPLEX_IMAGE_JSON = new Sample("ob20/assets/badgeclass-with-complex-image.json", true);
 			// original: test_validate_endorsements
 			public final static Sample ASSERTION_WITH_ENDORSEMENTS = new Sample("ob20/assertion-with-endorsements.json", true);
+			// the badge and the endorsement share their issuer, which has a revocation list
+			public final static Sample ASSERTION_WITH_SHARED_ISSUER = new Sample("ob20/assertion-with-shared-issuer.json", true);
 			// original: test_validate_extensions: test_validate_extension_node_basic
 			public final static Sample ASSERTION_WITH_EXTENSION_NODE_BASIC_JSON = new Sample("ob20/assertion-with-extension-node-basic.json", true);
 			// original: test_validate_extensions: test_validate_extension_node_invalid
@@ -0,0 +1,119 @@
+package org.oneedtech.inspect.vc.credential;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.oneedtech.inspect.vc.payload.PngChunkScanner;
+
+import com.google.common.io.Resources;
+
+public class PngChunkScannerTests {
+
+	@Test
+	void testBakedSamples() throws Exception {
+		// the credential is baked before the image data
+		try (InputStream in = Resources.getResource("ob20/simple-badge.png").openStream()) {
+			Assertions.assertTrue(PngChunkScanner.findText(in, "openbadges").strip().startsWith("{"));
+		}
+		// the credential is baked after the image data
+		try (InputStream in = Resources.getResource("ob30/simple-json.png").openStream()) {
+			Assertions.assertTrue(PngChunkScanner.findText(in, "openbadgecredential").strip().startsWith("{"));
+		}
+		try (InputStream in = Resources.getResource("ob30/simple-json.png").openStream()) {
+			Assertions.assertNull(PngChunkScanner.findText(in, "openbadges"));
+		}
+	}
+
+	@Test
+	void testTextChunks() throws Exception {
+		byte[] png = png(
+			chunk("tEXt", concat(latin1("openbadge\0"), latin1("prefix"))),
+			chunk("IDAT", new byte[] {1, 2, 3}),
+			chunk("zTXt", concat(latin1("zipped\0"), new byte[] {0}, deflate(latin1("caf\u00e9")))),
+			chunk("iTXt", concat(latin1("international\0"), new byte[] {1, 0}, latin1("en\0"), utf8("\u00e9\0"), deflate(utf8("\u00e9t\u00e9")))),
+			chunk("tEXt", concat(latin1("openbadges\0"), latin1("https://example.org/assertion"))));
+
+		Assertions.assertEquals("prefix", PngChunkScanner.findText(new ByteArrayInputStream(png), "openbadge"));
+		Assertions.assertEquals("caf\u00e9", PngChunkScanner.findText(new ByteArrayInputStream(png), "zipped"));
+		Assertions.assertEquals("\u00e9t\u00e9", PngChunkScanner.findText(new ByteArrayInputStream(png), "international"));
+		Assertions.assertEquals("https://example.org/assertion", PngChunkScanner.findText(new ByteArrayInputStream(png), "openbadges"));
+		Assertions.assertNull(PngChunkScanner.findText(new ByteArrayInputStream(png), "missing"));
+	}
+
+	@Test
+	void testNotPng() {
+		Assertions.assertThrows(IllegalArgumentException.class,
+			() -> PngChunkScanner.findText(new ByteArrayInputStream(latin1("GIF89a, not a PNG")), "openbadges"));
+	}
+
+	@Test
+	void testTextTooLarge() throws Exception {
+		// declares the largest chunk length but holds a few bytes
+		byte[] header = chunk("tEXt", latin1("openbadges\0"));
+		header[0] = 0x7f;
+		header[1] = header[2] = header[3] = (byte) 0xff;
+		byte[] declared = png(header);
+		Assertions.assertThrows(IllegalArgumentException.class,
+			() -> PngChunkScanner.findText(new ByteArrayInputStream(declared), "openbadges"));
+
+		byte[] truncated = png(chunk("tEXt", concat(latin1("openbadges\0"), new byte[64])));
+		truncated[11] = (byte) 0xff;
+		Assertions.assertThrows(IOException.class,
+			() -> PngChunkScanner.findText(new ByteArrayInputStream(truncated, 0, 40), "openbadges"));
+
+		byte[] zipped = png(chunk("zTXt", concat(latin1("openbadges\0"), new byte[] {0},
+			deflate(new byte[PngChunkScanner.MAX_TEXT_LENGTH + 1]))));
+		Assertions.assertThrows(IllegalArgumentException.class,
+			() -> PngChunkScanner.findText(new ByteArrayInputStream(zipped), "openbadges"));
+	}
+
+	private static byte[] png(byte[]... chunks) {
+		byte[] signature = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+		return concat(signature, concat(chunks), chunk("IEND", new byte[0]));
+	}
+
+	private static byte[] chunk(String type, byte[] data) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(data.length);
+			out.write(latin1(type));
+			out.write(data);
+			// the scanner does not check the crc
+			out.writeInt(0);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static byte[] deflate(byte[] data) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+			out.write(data);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static byte[] concat(byte[]... parts) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		for (byte[] part : parts) {
+			bytes.writeBytes(part);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static byte[] latin1(String s) {
+		return s.getBytes(StandardCharsets.ISO_8859_1);
+	}
+
+	private static byte[] utf8(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+}
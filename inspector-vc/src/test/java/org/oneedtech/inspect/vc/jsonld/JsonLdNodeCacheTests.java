@@ -0,0 +1,97 @@
+package org.oneedtech.inspect.vc.jsonld;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.oneedtech.inspect.vc.jsonld.JsonLdNodeCache.Node;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.sun.net.httpserver.HttpServer;
+
+public class JsonLdNodeCacheTests {
+	private static final String CONTEXT = "https://w3id.org/openbadges/v2";
+	private static HttpServer server;
+	private static String base;
+	private static volatile String content = "{\"name\":\"first\"}";
+	private static final AtomicInteger notModified = new AtomicInteger();
+
+	@BeforeAll
+	static void setup() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/node", exchange -> {
+			// always revalidated, with the content as etag
+			String etag = "\"" + Integer.toHexString(content.hashCode()) + "\"";
+			exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+			exchange.getResponseHeaders().add("ETag", etag);
+			if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+				notModified.incrementAndGet();
+				exchange.sendResponseHeaders(304, -1);
+			} else {
+				byte[] body = content.getBytes(UTF_8);
+				exchange.sendResponseHeaders(200, body.length);
+				exchange.getResponseBody().write(body);
+			}
+			exchange.close();
+		});
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+		base = "http://127.0.0.1:" + server.getAddress().getPort();
+		JsonLdNodeCache.reset();
+	}
+
+	@AfterAll
+	static void teardown() {
+		server.stop(0);
+		JsonLdNodeCache.reset();
+	}
+
+	@Test
+	void testContent() {
+		Node node = new Node("{\"name\":\"Caf\u00e9\"}".getBytes(UTF_8));
+		Assertions.assertEquals("{\"name\":\"Caf\u00e9\"}", node.getContent());
+	}
+
+	@Test
+	void testCompactedByContext() {
+		Node node = new Node("{}".getBytes(UTF_8));
+		Assertions.assertTrue(node.getCompacted(CONTEXT).isEmpty());
+
+		JsonNode compacted = JsonNodeFactory.instance.objectNode().put("@context", CONTEXT);
+		node.putCompacted(CONTEXT, compacted);
+		Assertions.assertSame(compacted, node.getCompacted(CONTEXT).get());
+		Assertions.assertTrue(node.getCompacted("https://example.org/context").isEmpty());
+	}
+
+	@Test
+	void testRevalidation() throws Exception {
+		URI uri = URI.create(base + "/node");
+		Node node = JsonLdNodeCache.get(uri);
+		Assertions.assertEquals("{\"name\":\"first\"}", node.getContent());
+		JsonNode compacted = JsonNodeFactory.instance.objectNode().put("name", "first");
+		node.putCompacted(CONTEXT, compacted);
+
+		// not modified: the node is kept with its compacted forms
+		Node revalidated = JsonLdNodeCache.get(uri);
+		Assertions.assertEquals(1, notModified.get());
+		Assertions.assertSame(node, revalidated);
+		Assertions.assertSame(compacted, revalidated.getCompacted(CONTEXT).get());
+
+		// new content: the compacted forms of the previous content are dropped
+		content = "{\"name\":\"second\"}";
+		Node changed = JsonLdNodeCache.get(uri);
+		Assertions.assertEquals(1, notModified.get());
+		Assertions.assertNotSame(node, changed);
+		Assertions.assertEquals("{\"name\":\"second\"}", changed.getContent());
+		Assertions.assertTrue(changed.getCompacted(CONTEXT).isEmpty());
+	}
+}
@@ -0,0 +1,122 @@
+package org.oneedtech.inspect.vc.jsonld.probe;
+
+import static org.oneedtech.inspect.util.json.ObjectMapperCache.Config.DEFAULT;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.oneedtech.inspect.core.probe.Outcome;
+import org.oneedtech.inspect.core.probe.RunContext;
+import org.oneedtech.inspect.core.probe.RunContext.Key;
+import org.oneedtech.inspect.core.probe.json.JsonPathEvaluator;
+import org.oneedtech.inspect.core.report.ReportItems;
+import org.oneedtech.inspect.util.json.ObjectMapperCache;
+import org.oneedtech.inspect.util.resource.Resource;
+import org.oneedtech.inspect.util.resource.ResourceType;
+import org.oneedtech.inspect.util.resource.UriResource;
+import org.oneedtech.inspect.vc.Assertion;
+import org.oneedtech.inspect.vc.OB20Inspector;
+import org.oneedtech.inspect.vc.Samples;
+import org.oneedtech.inspect.vc.jsonld.JsonLdGeneratedObject;
+import org.oneedtech.inspect.vc.payload.PngParser;
+import org.oneedtech.inspect.vc.payload.SvgParser;
+import org.oneedtech.inspect.vc.probe.CredentialParseProbe;
+import org.oneedtech.inspect.vc.resource.UriResourceFactory;
+import org.oneedtech.inspect.vc.util.CachingDocumentLoader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.ByteSource;
+
+public class GraphFetcherProbeTests {
+
+	@Test
+	void testUrnRegex() {
+		Pattern pattern = Pattern.compile(GraphFetcherProbe.URN_REGEX, Pattern.CASE_INSENSITIVE);
+		Assertions.assertTrue(pattern.matcher("urn:uuid:2f1e5c8a-6b3d-4c9e-8a7f-1d2c3b4a5e6f").matches());
+		Assertions.assertTrue(pattern.matcher("URN:UUID:2F1E5C8A-6B3D-4C9E-8A7F-1D2C3B4A5E6F").matches());
+		Assertions.assertFalse(pattern.matcher("urn:uuid:2f1e5c8a-6b3d-4c9e-8a7f-1d2c3b4a5e6").matches());
+		Assertions.assertFalse(pattern.matcher("https://example.org/badges/1").matches());
+	}
+
+	@Test
+	void testGraphFetchedOncePerUri() throws Exception {
+		Map<URI, String> localDomains = Map.of(
+			new URI("https://example.org/"), "ob20/assets",
+			new URI("http://example.org/"), "ob20/assets");
+		CachingDocumentLoader documentLoader = new CachingDocumentLoader(localDomains);
+		CachingDocumentLoader.HttpLoader httpLoader = documentLoader.new HttpLoader(localDomains);
+
+		// resolves to the local assets, counting the reads of each uri
+		Map<String, AtomicInteger> reads = new ConcurrentHashMap<>();
+		UriResourceFactory uriResourceFactory = uri -> new UriResource(httpLoader.resolve(new URI(uri)), ResourceType.JSON,
+				List.of(ResourceType.VC_JSON_LD, ResourceType.JSON_LD, ResourceType.JSON)) {
+			@Override
+			public ByteSource asByteSource() {
+				reads.computeIfAbsent(uri, key -> new AtomicInteger()).incrementAndGet();
+				return super.asByteSource();
+			}
+		};
+
+		Resource resource = Samples.OB20.JSON.ASSERTION_WITH_SHARED_ISSUER.asFileResource();
+		RunContext ctx = context(resource, documentLoader, uriResourceFactory);
+		new CredentialParseProbe().run(resource, ctx);
+		Assertion assertion = ctx.getGeneratedObject(resource.getID());
+		new JsonLDCompactionProbe(assertion.getCredentialType().getContextUris().get(0)).run(assertion, ctx);
+		JsonLdGeneratedObject root = ctx.getGeneratedObject(JsonLDCompactionProbe.getId(assertion));
+
+		ReportItems items = new GraphFetcherProbe(assertion).run(root.getNode(), ctx);
+		Assertions.assertFalse(items.contains(Outcome.ERROR, Outcome.FATAL, Outcome.EXCEPTION));
+
+		// the issuer is referenced from both the badge and the endorsement
+		List<String> uris = List.of(
+			"https://example.org/badge-from-organization-with-revocation-list.json",
+			"https://example.org/endorsement-by-organization-with-revocation-list.json",
+			"https://example.org/organization-with-revocation-list.json",
+			"http://example.org/revocation-list.json",
+			"http://example.org/key3.json");
+		for (String uri : uris) {
+			Assertions.assertEquals(1, reads.getOrDefault(uri, new AtomicInteger()).get(), uri);
+		}
+		Assertions.assertEquals(Set.copyOf(uris), reads.keySet());
+
+		Set<String> expected = new HashSet<>();
+		expected.add(JsonLDCompactionProbe.getId(resource));
+		for (String uri : uris) {
+			String id = JsonLDCompactionProbe.getId(uriResourceFactory.of(uri));
+			expected.add(id);
+			JsonLdGeneratedObject node = ctx.getGeneratedObject(id);
+			Assertions.assertEquals(uri, node.getNode().get("id").asText());
+		}
+		Set<String> generated = ctx.getGeneratedObjects().entrySet().stream()
+			.filter(entry -> entry.getValue() instanceof JsonLdGeneratedObject)
+			.map(Map.Entry::getKey)
+			.collect(Collectors.toSet());
+		Assertions.assertEquals(expected, generated);
+	}
+
+	private static RunContext context(Resource resource, CachingDocumentLoader documentLoader, UriResourceFactory uriResourceFactory) {
+		ObjectMapper mapper = ObjectMapperCache.get(DEFAULT);
+		return new RunContext.Builder()
+				.put(new OB20Inspector.Builder().build())
+				.put(resource)
+				.put(Key.JACKSON_OBJECTMAPPER, mapper)
+				.put(Key.JSONPATH_EVALUATOR, new JsonPathEvaluator(mapper))
+				.put(Key.GENERATED_OBJECT_BUILDER, new Assertion.Builder())
+				.put(Key.PNG_CREDENTIAL_KEY, PngParser.Keys.OB20)
+				.put(Key.SVG_CREDENTIAL_QNAME, SvgParser.QNames.OB20)
+				.put(Key.JSON_DOCUMENT_LOADER, documentLoader)
+				.put(Key.JWT_CREDENTIAL_NODE_NAME, Assertion.JWT_NODE_NAME)
+				.put(Key.JWT_CREDENTIAL_ALLOW_WHOLE_PAYLOAD, Assertion.JWT_ALLOW_WHOLE_PAYLOAD)
+				.put(Key.URI_RESOURCE_FACTORY, uriResourceFactory)
+				.build();
+	}
+}
@@ -0,0 +1,171 @@
+package org.oneedtech.inspect.vc.probe;
+
+import static org.oneedtech.inspect.util.json.ObjectMapperCache.Config.DEFAULT;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.oneedtech.inspect.core.probe.Outcome;
+import org.oneedtech.inspect.core.probe.RunContext;
+import org.oneedtech.inspect.core.probe.RunContext.Key;
+import org.oneedtech.inspect.util.json.ObjectMapperCache;
+import org.oneedtech.inspect.vc.OB30Inspector;
+import org.oneedtech.inspect.vc.Samples;
+import org.oneedtech.inspect.vc.VerifiableCredential;
+import org.oneedtech.inspect.vc.probe.did.DidResolution;
+import org.oneedtech.inspect.vc.probe.did.DidResolver;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Ticker;
+
+public class ExternalProofProbeTests {
+	private static final String ISSUER = "did:example:issuer";
+	private static KeyPair keyPair;
+	private static String jwk;
+
+	private final List<URI> resolved = new CopyOnWriteArrayList<>();
+	private volatile String resolvedJwk;
+	private long nanos;
+
+	@BeforeAll
+	static void setupKey() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec("secp256r1"));
+		keyPair = generator.generateKeyPair();
+		ECPublicKey publicKey = (ECPublicKey) keyPair.getPublic();
+		jwk = "{\"kty\":\"EC\",\"crv\":\"P-256\""
+				+ ",\"x\":\"" + coordinate(publicKey.getW().getAffineX()) + "\""
+				+ ",\"y\":\"" + coordinate(publicKey.getW().getAffineY()) + "\"}";
+	}
+
+	@BeforeEach
+	void setup() {
+		resolvedJwk = jwk;
+		ExternalProofProbe.ticker = new Ticker() {
+			@Override
+			public long read() {
+				return nanos;
+			}
+		};
+		ExternalProofProbe.reset();
+	}
+
+	@AfterEach
+	void teardown() {
+		ExternalProofProbe.ticker = Ticker.systemTicker();
+		ExternalProofProbe.reset();
+	}
+
+	@Test
+	void testKeyCached() throws Exception {
+		VerifiableCredential crd = credential(ISSUER, ISSUER + "#key-1");
+		assertVerified(new ExternalProofProbe(false), crd);
+		assertVerified(new ExternalProofProbe(false), crd);
+		Assertions.assertEquals(List.of(new URI(ISSUER + "#key-1")), resolved);
+	}
+
+	@Test
+	void testKeyExpires() throws Exception {
+		VerifiableCredential crd = credential(ISSUER, ISSUER + "#key-1");
+		assertVerified(new ExternalProofProbe(false), crd);
+
+		nanos += TimeUnit.MINUTES.toNanos(59);
+		assertVerified(new ExternalProofProbe(false), crd);
+		Assertions.assertEquals(1, resolved.size());
+
+		nanos += TimeUnit.MINUTES.toNanos(1);
+		assertVerified(new ExternalProofProbe(false), crd);
+		Assertions.assertEquals(2, resolved.size());
+	}
+
+	@Test
+	void testKidHintSharesFullKidEntry() throws Exception {
+		// the hint resolves against the issuer did, to the same key as the full kid
+		assertVerified(new ExternalProofProbe(true), credential(ISSUER, "key-1"));
+		assertVerified(new ExternalProofProbe(true), credential(ISSUER, ISSUER + "#key-1"));
+		Assertions.assertEquals(List.of(new URI(ISSUER + "#key-1")), resolved);
+
+		// the same hint from another issuer is another key
+		assertVerified(new ExternalProofProbe(true), credential("did:example:other", "key-1"));
+		Assertions.assertEquals(List.of(new URI(ISSUER + "#key-1"), new URI("did:example:other#key-1")), resolved);
+	}
+
+	@Test
+	void testPrefetchWithoutKey() throws Exception {
+		VerifiableCredential crd = credential(ISSUER, ISSUER + "#key-1");
+		resolvedJwk = null;
+		new ExternalProofProbe(false).prefetchKey(crd, context());
+		Assertions.assertEquals(1, resolved.size());
+
+		// nothing was cached, the probe resolves the key again
+		resolvedJwk = jwk;
+		assertVerified(new ExternalProofProbe(false), crd);
+		Assertions.assertEquals(2, resolved.size());
+	}
+
+	@Test
+	void testPrefetchedKeyUsed() throws Exception {
+		VerifiableCredential crd = credential(ISSUER, ISSUER + "#key-1");
+		new ExternalProofProbe(false).prefetchKey(crd, context());
+		assertVerified(new ExternalProofProbe(false), crd);
+		Assertions.assertEquals(1, resolved.size());
+	}
+
+	private void assertVerified(ExternalProofProbe probe, VerifiableCredential crd) throws Exception {
+		Assertions.assertFalse(probe.run(crd, context()).contains(Outcome.ERROR, Outcome.FATAL, Outcome.EXCEPTION));
+	}
+
+	private RunContext context() {
+		DidResolver didResolver = (did, documentLoader) -> {
+			resolved.add(did);
+			return DidResolution.builder().publicKeyJwk(resolvedJwk).build();
+		};
+		return new RunContext.Builder()
+				.put(new OB30Inspector.Builder().build())
+				.put(Key.JACKSON_OBJECTMAPPER, ObjectMapperCache.get(DEFAULT))
+				.put(RunContextKey.DID_RESOLVER, didResolver)
+				.build();
+	}
+
+	private static VerifiableCredential credential(String issuer, String kid) {
+		ObjectMapper mapper = ObjectMapperCache.get(DEFAULT);
+		ObjectNode json = mapper.createObjectNode();
+		json.putArray("@context").add("https://www.w3.org/ns/credentials/v2");
+		json.putArray("type").add("VerifiableCredential");
+		json.put("issuer", issuer);
+		String jwt = JWT.create()
+				.withKeyId(kid)
+				.withIssuer(issuer)
+				.sign(Algorithm.ECDSA256((ECPublicKey) keyPair.getPublic(), (ECPrivateKey) keyPair.getPrivate()));
+		return new VerifiableCredential.Builder()
+				.resource(Samples.OB30.JSON.SIMPLE_JSON.asFileResource())
+				.jsonData(json)
+				.jwt(jwt)
+				.build();
+	}
+
+	private static String coordinate(BigInteger value) {
+		byte[] bytes = value.toByteArray();
+		byte[] coordinate = new byte[32];
+		int length = Math.min(bytes.length, 32);
+		System.arraycopy(bytes, bytes.length - length, coordinate, 32 - length, length);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(coordinate);
+	}
+}
@@ -0,0 +1,76 @@
+package org.oneedtech.inspect.vc.probe;
+
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.jsonld.document.JsonDocument;
+
+import jakarta.json.Json;
+
+public class ProofVerificationCacheTests {
+	private static final String CREDENTIAL = "{\"id\":\"urn:uuid:1\",\"proof\":{\"proofValue\":\"z1\"}}";
+	private static final String PROOF = "{\"proofValue\":\"z1\"}";
+	private static final byte[] KEY = new byte[] { (byte) 0xed, 0x01, 1, 2, 3 };
+
+	@AfterEach
+	void reset() {
+		ProofVerificationCache.setTtl(Duration.ofHours(1));
+		ProofVerificationCache.reset();
+	}
+
+	@Test
+	void testKeyCoversCredentialProofAndKey() {
+		String key = key(CREDENTIAL, PROOF, KEY);
+		Assertions.assertEquals(key, key(CREDENTIAL, PROOF, KEY.clone()));
+		Assertions.assertNotEquals(key, key(CREDENTIAL.replace("urn:uuid:1", "urn:uuid:2"), PROOF, KEY));
+		Assertions.assertNotEquals(key, key(CREDENTIAL, PROOF.replace("z1", "z2"), KEY));
+		Assertions.assertNotEquals(key, key(CREDENTIAL, PROOF, new byte[] { (byte) 0xed, 0x01, 1, 2, 4 }));
+		// field boundaries are part of the digest
+		Assertions.assertNotEquals(key("ab", "c", KEY), key("a", "bc", KEY));
+	}
+
+	@Test
+	void testKeyCoversContexts() {
+		Document context = context("{\"@context\":{\"name\":\"https://schema.org/name\"}}");
+		String key = ProofVerificationCache.key(CREDENTIAL, PROOF, KEY, List.of(context)).get();
+		Assertions.assertEquals(key, ProofVerificationCache.key(CREDENTIAL, PROOF, KEY, List.of(context)).get());
+		// the same content loaded again
+		Assertions.assertEquals(key, ProofVerificationCache.key(CREDENTIAL, PROOF, KEY,
+				List.of(context("{\"@context\":{\"name\":\"https://schema.org/name\"}}"))).get());
+		Assertions.assertNotEquals(key, ProofVerificationCache.key(CREDENTIAL, PROOF, KEY,
+				List.of(context("{\"@context\":{\"name\":\"https://example.org/name\"}}"))).get());
+		Assertions.assertNotEquals(key, key(CREDENTIAL, PROOF, KEY));
+	}
+
+	@Test
+	void testOnlyVerifiedKeysHit() {
+		String key = key(CREDENTIAL, PROOF, KEY);
+		Assertions.assertFalse(ProofVerificationCache.isVerified(key));
+		ProofVerificationCache.verified(key);
+		Assertions.assertTrue(ProofVerificationCache.isVerified(key));
+		ProofVerificationCache.reset();
+		Assertions.assertFalse(ProofVerificationCache.isVerified(key));
+	}
+
+	@Test
+	void testExpiry() {
+		String key = key(CREDENTIAL, PROOF, KEY);
+		ProofVerificationCache.setTtl(Duration.ZERO);
+		ProofVerificationCache.verified(key);
+		Assertions.assertFalse(ProofVerificationCache.isVerified(key));
+	}
+
+	private static String key(String credential, String proof, byte[] key) {
+		return ProofVerificationCache.key(credential, proof, key, List.of()).get();
+	}
+
+	private static Document context(String json) {
+		return JsonDocument.of(Json.createReader(new StringReader(json)).read());
+	}
+}
@@ -0,0 +1,117 @@
+package org.oneedtech.inspect.vc.probe.did;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
+public class DidDocumentCacheTests {
+
+	@AfterEach
+	void reset() {
+		DidDocumentCache.reset();
+	}
+
+	@Test
+	void testCachedByDidWithoutFragment() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		JsonObject document = Json.createObjectBuilder().add("id", "did:example:cached").build();
+		DidDocumentCache.Loader loader = () -> {
+			loads.incrementAndGet();
+			return document;
+		};
+		Assertions.assertSame(document, DidDocumentCache.get(new URI("did:example:cached#key-1"), loader));
+		Assertions.assertSame(document, DidDocumentCache.get(new URI("did:example:cached#key-2"), loader));
+		Assertions.assertSame(document, DidDocumentCache.get(new URI("did:example:cached"), loader));
+		Assertions.assertEquals(1, loads.get());
+	}
+
+	@Test
+	void testCachedPerScope() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		DidDocumentCache.Loader loader = () -> Json.createObjectBuilder().add("load", loads.incrementAndGet()).build();
+		URI did = new URI("did:example:scoped#key-1");
+		JsonObject first = DidDocumentCache.get(did, "https://resolver.example.org/", loader);
+		Assertions.assertSame(first, DidDocumentCache.get(did, "https://resolver.example.org/", loader));
+		JsonObject other = DidDocumentCache.get(did, "https://other.example.org/", loader);
+		Assertions.assertNotSame(first, other);
+		Assertions.assertNotSame(first, DidDocumentCache.get(did, loader));
+		Assertions.assertEquals(3, loads.get());
+	}
+
+	@Test
+	void testFailuresAreCached() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		DidDocumentCache.Loader loader = () -> {
+			loads.incrementAndGet();
+			throw new DidResolutionException("not found", null, true);
+		};
+		URI did = new URI("did:example:missing#key-1");
+		Assertions.assertThrows(DidResolutionException.class, () -> DidDocumentCache.get(did, loader));
+		DidResolutionException e = Assertions.assertThrows(DidResolutionException.class, () -> DidDocumentCache.get(did, loader));
+		Assertions.assertEquals("not found", e.getMessage());
+		Assertions.assertTrue(e.isDefinitive());
+		Assertions.assertEquals(1, loads.get());
+	}
+
+	@Test
+	void testTransientFailuresAreNotCached() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		JsonObject document = Json.createObjectBuilder().add("id", "did:example:flaky").build();
+		DidDocumentCache.Loader loader = () -> {
+			if (loads.incrementAndGet() == 1) {
+				throw new DidResolutionException("timed out");
+			}
+			return document;
+		};
+		URI did = new URI("did:example:flaky#key-1");
+		DidResolutionException e = Assertions.assertThrows(DidResolutionException.class, () -> DidDocumentCache.get(did, loader));
+		Assertions.assertFalse(e.isDefinitive());
+		Assertions.assertSame(document, DidDocumentCache.get(did, loader));
+		Assertions.assertEquals(2, loads.get());
+	}
+
+	@Test
+	void testConcurrentResolutionsAreCoalesced() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		JsonObject document = Json.createObjectBuilder().add("id", "did:example:issuer").build();
+		DidDocumentCache.Loader loader = () -> {
+			loads.incrementAndGet();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return document;
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(50);
+		try {
+			List<Future<JsonObject>> results = new ArrayList<>();
+			for (int i = 0; i < 50; i++) {
+				results.add(executor.submit(() -> DidDocumentCache.get(new URI("did:example:issuer#key-1"), loader)));
+			}
+			Thread.sleep(200);
+			release.countDown();
+			for (Future<JsonObject> result : results) {
+				Assertions.assertSame(document, result.get(10, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		Assertions.assertEquals(1, loads.get());
+	}
+}
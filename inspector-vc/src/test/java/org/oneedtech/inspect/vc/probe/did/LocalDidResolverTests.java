@@ -0,0 +1,99 @@
+package org.oneedtech.inspect.vc.probe.did;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LocalDidResolverTests {
+	private static final String DOCUMENT = "{"
+			+ "\"id\": \"did:web:issuer.example\","
+			+ "\"assertionMethod\": [\"did:web:issuer.example#key-1\"],"
+			+ "\"verificationMethod\": [{"
+			+ "\"id\": \"did:web:issuer.example#key-1\","
+			+ "\"controller\": \"did:web:issuer.example\","
+			+ "\"publicKeyMultibase\": \"z6MkhaXgBZDvotDkL5257faiztiGiC2QtKLGpbnnEGta2doK\""
+			+ "}]}";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void testResolveFromDirectory() throws Exception {
+		Files.writeString(dir.resolve("issuer.json"), DOCUMENT);
+		Files.writeString(dir.resolve("notes.txt"), "not a did document");
+		LocalDidDocuments documents = LocalDidDocuments.load(dir);
+		Assertions.assertEquals(1, documents.size());
+
+		DidResolution resolution = new LocalDidResolver(documents, null)
+				.resolve(new URI("did:web:issuer.example#key-1"), null);
+		Assertions.assertEquals("z6MkhaXgBZDvotDkL5257faiztiGiC2QtKLGpbnnEGta2doK", resolution.getPublicKeyMultibase());
+		Assertions.assertEquals("did:web:issuer.example", resolution.getController());
+	}
+
+	@Test
+	void testResolveFromBundle() throws Exception {
+		Path bundle = dir.resolve("bundle.json");
+		Files.writeString(bundle, "{\"did:web:issuer.example\": " + DOCUMENT
+				+ ", \"did:web:other.example\": {\"id\": \"did:web:other.example\"}}");
+		LocalDidDocuments documents = LocalDidDocuments.load(bundle);
+		Assertions.assertEquals(2, documents.size());
+		Assertions.assertTrue(documents.get(new URI("did:web:other.example#key-1")).isPresent());
+
+		Files.writeString(bundle, "[" + DOCUMENT + "]");
+		documents.reload();
+		Assertions.assertEquals(1, documents.size());
+		Assertions.assertTrue(documents.get(new URI("did:web:other.example")).isEmpty());
+	}
+
+	@Test
+	void testFallback() throws Exception {
+		LocalDidDocuments documents = LocalDidDocuments.load(Files.writeString(dir.resolve("issuer.json"), DOCUMENT));
+		DidResolution fallbackResolution = DidResolution.builder().publicKeyMultibase("fallback").build();
+		DidResolver resolver = new LocalDidResolver(documents, (did, loader) -> fallbackResolution);
+		Assertions.assertSame(fallbackResolution, resolver.resolve(new URI("did:web:unknown.example#key-1"), null));
+		Assertions.assertNotSame(fallbackResolution, resolver.resolve(new URI("did:web:issuer.example#key-1"), null));
+
+		Assertions.assertThrows(DidResolutionException.class,
+				() -> new LocalDidResolver(documents, null).resolve(new URI("did:web:unknown.example#key-1"), null));
+	}
+
+	@Test
+	void testInvalidDocument() throws Exception {
+		Files.writeString(dir.resolve("broken.json"), "{\"id\": ");
+		Assertions.assertThrows(IOException.class, () -> LocalDidDocuments.load(dir));
+	}
+
+	@Test
+	void testShared() throws Exception {
+		Files.writeString(dir.resolve("issuer.json"), DOCUMENT);
+		LocalDidDocuments documents = LocalDidDocuments.shared(dir, null);
+		Assertions.assertSame(documents, LocalDidDocuments.shared(dir.resolve("."), null));
+		Assertions.assertThrows(IllegalStateException.class, () -> documents.scheduleRefresh(Duration.ofMinutes(1)));
+
+		// another refresh interval is shared separately, and keeps refreshing once closed
+		LocalDidDocuments refreshed = LocalDidDocuments.shared(dir, Duration.ofMillis(50));
+		Assertions.assertNotSame(documents, refreshed);
+		refreshed.close();
+		Assertions.assertSame(refreshed, LocalDidDocuments.shared(dir, Duration.ofMillis(50)));
+
+		Files.writeString(dir.resolve("other.json"), "{\"id\": \"did:web:other.example\"}");
+		long deadline = System.currentTimeMillis() + 5000;
+		while (refreshed.size() < 2 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		Assertions.assertEquals(2, refreshed.size());
+		Assertions.assertEquals(1, documents.size());
+	}
+
+	@Test
+	void testWrapWithoutDocuments() {
+		DidResolver fallback = (did, loader) -> null;
+		Assertions.assertSame(fallback, LocalDidResolver.wrap(null, fallback));
+	}
+}
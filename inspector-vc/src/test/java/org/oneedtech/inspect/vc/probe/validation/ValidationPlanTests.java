@@ -0,0 +1,87 @@
+package org.oneedtech.inspect.vc.probe.validation;
+
+import static org.oneedtech.inspect.util.json.ObjectMapperCache.Config.DEFAULT;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.oneedtech.inspect.core.probe.RunContext;
+import org.oneedtech.inspect.core.probe.RunContext.Key;
+import org.oneedtech.inspect.core.report.ReportItems;
+import org.oneedtech.inspect.util.json.ObjectMapperCache;
+import org.oneedtech.inspect.vc.Assertion;
+import org.oneedtech.inspect.vc.OB20Inspector;
+import org.oneedtech.inspect.vc.Validation;
+import org.oneedtech.inspect.vc.jsonld.JsonLdGeneratedObject;
+import org.oneedtech.inspect.vc.jsonld.probe.JsonLDCompactionProbe;
+import org.oneedtech.inspect.vc.resource.DefaultJsonLDUriResourceFactory;
+import org.oneedtech.inspect.vc.resource.UriResourceFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.Resources;
+
+public class ValidationPlanTests {
+
+	@Test
+	void testPlanPerType() {
+		for (Assertion.Type type : Assertion.validationMap.keySet()) {
+			ValidationPlan plan = ValidationPlan.of(type);
+			Assertions.assertSame(plan, ValidationPlan.of(type));
+
+			List<Validation> validations = type.getValidations();
+			List<ValidationPropertyProbe> probes = plan.getProbes();
+			Assertions.assertEquals(validations.size(), probes.size());
+			for (int i = 0; i < validations.size(); i++) {
+				Assertions.assertSame(validations.get(i), probes.get(i).validation);
+				Assertions.assertEquals(ValidationPropertyProbeFactory.of(type.toString(), "Properties Validation", validations.get(i)).getClass(),
+						probes.get(i).getClass());
+			}
+		}
+	}
+
+	@Test
+	void testPlanKeepsReport() throws Exception {
+		ObjectMapper mapper = ObjectMapperCache.get(DEFAULT);
+		UriResourceFactory uriResourceFactory = new DefaultJsonLDUriResourceFactory();
+		RunContext ctx = new RunContext.Builder()
+				.put(new OB20Inspector.Builder().build())
+				.put(Key.JACKSON_OBJECTMAPPER, mapper)
+				.put(Key.URI_RESOURCE_FACTORY, uriResourceFactory)
+				.build();
+
+		JsonNode assertion = mapper.readTree(Resources.getResource("ob20/basic-assertion.json"));
+		JsonNode badge = mapper.readTree(Resources.getResource("ob20/assets/robotics-badge.json"));
+		JsonNode issuer = mapper.readTree(Resources.getResource("ob20/assets/organization.json"));
+		// the referenced nodes are in the graph, so that their expected types are validated
+		for (JsonNode node : List.of(badge, issuer)) {
+			String id = JsonLDCompactionProbe.getId(uriResourceFactory.of(node.get("id").asText()));
+			ctx.addGeneratedObject(new JsonLdGeneratedObject(id, node));
+		}
+
+		for (Assertion.Type type : List.of(Assertion.Type.Assertion, Assertion.Type.BadgeClass, Assertion.Type.Profile)) {
+			for (JsonNode node : List.of(assertion, badge, issuer)) {
+				List<ReportItems> expected = new ArrayList<>();
+				for (Validation validation : type.getValidations()) {
+					expected.add(ValidationPropertyProbeFactory.of(type.toString(), "Properties Validation", validation).run(node, ctx));
+				}
+				List<ReportItems> actual = new ArrayList<>();
+				ValidationPlan.of(type).run(node, ctx).forEach(actual::add);
+
+				Assertions.assertEquals(items(expected), items(actual), type + " " + node.get("id"));
+			}
+		}
+	}
+
+	private static List<List<String>> items(List<ReportItems> results) {
+		return results.stream()
+			.map(items -> StreamSupport.stream(items.spliterator(), false)
+				.map(item -> item.getOutcome() + " " + item.getMessage())
+				.collect(Collectors.toList()))
+			.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,76 @@
+package org.oneedtech.inspect.vc.status.bitstring;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class BitstringExpansionTests {
+	private static final int SIZE = 16 * 1024 * 1024;
+	private static byte[] bitstring;
+	private static byte[] compressed;
+
+	@BeforeAll
+	static void setup() throws Exception {
+		bitstring = new byte[SIZE];
+		for (int i = 0; i < SIZE; i += 4099) {
+			bitstring[i] = (byte) (i * 31);
+		}
+		bitstring[SIZE - 1] = (byte) 0x80;
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bitstring);
+		}
+		compressed = out.toByteArray();
+	}
+
+	@Test
+	void testUncompressedSize() {
+		Assertions.assertDoesNotThrow(()->{
+			Assertions.assertEquals(SIZE, BitstringExpansion.uncompressedSize(compressed));
+		});
+	}
+
+	@Test
+	void testFullExpansion() {
+		Assertions.assertDoesNotThrow(()->{
+			Assertions.assertArrayEquals(bitstring, BitstringExpansion.expand(compressed));
+		});
+	}
+
+	@Test
+	void testCursor() {
+		Assertions.assertDoesNotThrow(()->{
+			try (BitstringExpansion.Cursor cursor = BitstringExpansion.cursor(compressed)) {
+				for (long offset : new long[] { 0, 4099, 65_535, 65_536, SIZE / 2, SIZE - 3, SIZE - 1 }) {
+					Assertions.assertEquals(bitstring[(int) offset] & 0xff, cursor.byteAt(offset));
+				}
+			}
+		});
+	}
+
+	@Test
+	void testTrailerSizeChecked() {
+		// a zip bomb claiming a small size, 1 MB instead of 16 MB
+		byte[] understated = compressed.clone();
+		understated[understated.length - 2] = 0x10;
+		understated[understated.length - 1] = 0;
+		Assertions.assertThrows(ZipException.class, ()->BitstringExpansion.expand(understated));
+
+		byte[] overstated = compressed.clone();
+		overstated[overstated.length - 4] = 1;
+		Assertions.assertThrows(ZipException.class, ()->BitstringExpansion.expand(overstated));
+
+		byte[] tooLarge = compressed.clone();
+		tooLarge[tooLarge.length - 1] = 0x7f;
+		Assertions.assertThrows(ZipException.class, ()->BitstringExpansion.expand(tooLarge));
+	}
+
+	@Test
+	void testNotGzip() {
+		Assertions.assertThrows(Exception.class, ()->BitstringExpansion.expand(new byte[32]));
+	}
+}
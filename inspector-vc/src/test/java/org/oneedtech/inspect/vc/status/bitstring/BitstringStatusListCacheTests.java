@@ -0,0 +1,150 @@
+package org.oneedtech.inspect.vc.status.bitstring;
+
+import static org.oneedtech.inspect.util.json.ObjectMapperCache.Config.DEFAULT;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.oneedtech.inspect.util.json.ObjectMapperCache;
+import org.oneedtech.inspect.vc.Credential;
+import org.oneedtech.inspect.vc.Samples;
+import org.oneedtech.inspect.vc.VerifiableCredential;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public class BitstringStatusListCacheTests {
+	private static final String URL = "https://example.org/status/1";
+	private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+	private static final BitstringStatusList LIST = new BitstringStatusList(new byte[16]);
+
+	private MutableClock clock;
+
+	@BeforeEach
+	void setup() {
+		clock = new MutableClock(START);
+		BitstringStatusListCache.clock = clock;
+		BitstringStatusListCache.reset();
+	}
+
+	@AfterEach
+	void teardown() {
+		BitstringStatusListCache.clock = Clock.systemUTC();
+		BitstringStatusListCache.setDefaultTtl(Duration.ofMinutes(5));
+		BitstringStatusListCache.reset();
+	}
+
+	@Test
+	void testTtl() {
+		Credential credential = credential(60_000L, null);
+		Assertions.assertTrue(BitstringStatusListCache.isCacheable(credential));
+		BitstringStatusListCache.put(URL, credential, "revocation", LIST);
+
+		clock.advance(Duration.ofSeconds(59));
+		Assertions.assertTrue(BitstringStatusListCache.get(URL).isPresent());
+		Assertions.assertEquals("revocation", BitstringStatusListCache.get(URL).get().getStatusPurpose());
+
+		clock.advance(Duration.ofSeconds(1));
+		Assertions.assertTrue(BitstringStatusListCache.get(URL).isEmpty());
+	}
+
+	@Test
+	void testValidUntilBeforeTtl() {
+		Credential credential = credential(3_600_000L, START.plusSeconds(30).toString());
+		BitstringStatusListCache.put(URL, credential, "revocation", LIST);
+
+		clock.advance(Duration.ofSeconds(29));
+		Assertions.assertTrue(BitstringStatusListCache.get(URL).isPresent());
+		clock.advance(Duration.ofSeconds(1));
+		Assertions.assertTrue(BitstringStatusListCache.get(URL).isEmpty());
+	}
+
+	@Test
+	void testDefaultTtl() {
+		BitstringStatusListCache.setDefaultTtl(Duration.ofMinutes(2));
+		BitstringStatusListCache.put(URL, credential(null, null), "revocation", LIST);
+
+		clock.advance(Duration.ofMinutes(2).minusMillis(1));
+		Assertions.assertTrue(BitstringStatusListCache.get(URL).isPresent());
+		clock.advance(Duration.ofMillis(1));
+		Assertions.assertTrue(BitstringStatusListCache.get(URL).isEmpty());
+	}
+
+	@Test
+	void testNotCached() {
+		// unreadable validUntil
+		assertNotCached(credential(60_000L, "notadatetime"));
+		// validUntil in the past
+		assertNotCached(credential(60_000L, START.minusSeconds(1).toString()));
+		// zero ttl
+		assertNotCached(credential(0L, null));
+		// no ttl and caching disabled by default
+		BitstringStatusListCache.setDefaultTtl(Duration.ZERO);
+		assertNotCached(credential(null, null));
+	}
+
+	@Test
+	void testReset() {
+		BitstringStatusListCache.put(URL, credential(60_000L, null), "revocation", LIST);
+		Assertions.assertTrue(BitstringStatusListCache.get(URL).isPresent());
+		BitstringStatusListCache.reset();
+		Assertions.assertTrue(BitstringStatusListCache.get(URL).isEmpty());
+	}
+
+	private static void assertNotCached(Credential credential) {
+		Assertions.assertFalse(BitstringStatusListCache.isCacheable(credential));
+		BitstringStatusListCache.put(URL, credential, "revocation", LIST);
+		Assertions.assertTrue(BitstringStatusListCache.get(URL).isEmpty());
+	}
+
+	private static Credential credential(Long ttl, String validUntil) {
+		ObjectNode json = ObjectMapperCache.get(DEFAULT).createObjectNode();
+		json.putArray("@context").add("https://www.w3.org/ns/credentials/v2");
+		json.putArray("type").add("VerifiableCredential").add("BitstringStatusListCredential");
+		if (validUntil != null) {
+			json.put("validUntil", validUntil);
+		}
+		ObjectNode subject = json.putObject("credentialSubject");
+		subject.put("type", "BitstringStatusList");
+		if (ttl != null) {
+			subject.put("ttl", ttl);
+		}
+		return new VerifiableCredential.Builder()
+				.resource(Samples.OB30.JSON.SIMPLE_JSON.asFileResource())
+				.jsonData(json)
+				.build();
+	}
+
+	private static class MutableClock extends Clock {
+		private Instant instant;
+
+		MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		void advance(Duration duration) {
+			instant = instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package org.oneedtech.inspect.vc.status.bitstring;
+
+import static org.oneedtech.inspect.util.json.ObjectMapperCache.Config.DEFAULT;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.oneedtech.inspect.util.json.ObjectMapperCache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public class BitstringStatusListProbeTests {
+
+	@Test
+	void testDescribeStatus() throws Exception {
+		JsonNode entry = ObjectMapperCache.get(DEFAULT).readTree("{"
+				+ "\"type\":\"BitstringStatusListEntry\",\"statusPurpose\":\"message\",\"statusSize\":2,"
+				+ "\"statusMessage\":["
+				+ "{\"status\":\"0x0\",\"message\":\"pending_review\"},"
+				+ "{\"status\":\"0x1\",\"message\":\"accepted\"},"
+				+ "{\"status\":\"0X2\",\"message\":\"rejected\"}]}");
+		Assertions.assertEquals("Credential status is 0x0: pending_review", BitstringStatusListProbe.describeStatus(entry, 0));
+		Assertions.assertEquals("Credential status is 0x1: accepted", BitstringStatusListProbe.describeStatus(entry, 1));
+		Assertions.assertEquals("Credential status is 0x2: rejected", BitstringStatusListProbe.describeStatus(entry, 2));
+		// no message for the value
+		Assertions.assertEquals("Credential status is 0x3", BitstringStatusListProbe.describeStatus(entry, 3));
+		Assertions.assertEquals("Credential status is 0x3",
+				BitstringStatusListProbe.describeStatus(ObjectMapperCache.get(DEFAULT).createObjectNode(), 3));
+	}
+}
@@ -0,0 +1,81 @@
+package org.oneedtech.inspect.vc.status.bitstring;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class BitstringStatusListTests {
+	private static final int SIZE = 1024 * 1024;
+	private static byte[] bitstring;
+	private static byte[] compressed;
+
+	@BeforeAll
+	static void setup() throws Exception {
+		bitstring = new byte[SIZE];
+		new Random(42).nextBytes(bitstring);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bitstring);
+		}
+		compressed = out.toByteArray();
+	}
+
+	@Test
+	void testSingleBit() {
+		BitstringStatusList list = new BitstringStatusList(new byte[] { (byte) 0b1010_0000, 0x01 });
+		Assertions.assertEquals(1, list.get(0, 1));
+		Assertions.assertEquals(0, list.get(1, 1));
+		Assertions.assertEquals(1, list.get(2, 1));
+		Assertions.assertEquals(1, list.get(15, 1));
+		Assertions.assertEquals(16, list.size(1));
+	}
+
+	@Test
+	void testMultiBit() {
+		BitstringStatusList list = new BitstringStatusList(new byte[] { (byte) 0b1011_0001, (byte) 0b1100_0000 });
+		Assertions.assertEquals(0b10, list.get(0, 2));
+		Assertions.assertEquals(0b11, list.get(1, 2));
+		Assertions.assertEquals(0b01, list.get(3, 2));
+		Assertions.assertEquals(0b1011, list.get(0, 4));
+		// an entry spanning a byte boundary
+		Assertions.assertEquals(0b01_1100, list.get(1, 6));
+	}
+
+	@Test
+	void testOutOfRange() {
+		BitstringStatusList list = new BitstringStatusList(new byte[2]);
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.get(16, 1));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.get(2, 6));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1, 1));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> list.get(0, 0));
+	}
+
+	@Test
+	void testBatchMatchesExpandedList() {
+		Assertions.assertDoesNotThrow(()->{
+			BitstringStatusList list = new BitstringStatusList(BitstringExpansion.expand(compressed));
+			for (int statusSize : new int[] { 1, 2, 3, 8, 13 }) {
+				long size = list.size(statusSize);
+				long[] indices = new long[] { 0, 1, 7, 8, 4096, size / 3, size / 3, size / 2, size - 1 };
+				int[] expected = new int[indices.length];
+				for (int i = 0; i < indices.length; i++) {
+					expected[i] = list.get(indices[i], statusSize);
+				}
+				Assertions.assertArrayEquals(expected, list.get(indices, statusSize));
+				Assertions.assertArrayEquals(expected, BitstringStatusList.get(compressed, indices, statusSize));
+			}
+		});
+	}
+
+	@Test
+	void testBatchRejectsUnsortedIndices() {
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> BitstringStatusList.get(compressed, new long[] { 5, 2 }, 1));
+		Assertions.assertThrows(IndexOutOfBoundsException.class,
+				() -> BitstringStatusList.get(compressed, new long[] { SIZE * 8L }, 1));
+	}
+}
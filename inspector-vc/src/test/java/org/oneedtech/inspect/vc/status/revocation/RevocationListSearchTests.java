@@ -0,0 +1,54 @@
+package org.oneedtech.inspect.vc.status.revocation;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class RevocationListSearchTests {
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	void testRevoked() throws Exception {
+		String list = "{\"id\": \"https://example.org/revocations\", \"revokedCredential\": ["
+				+ "{\"id\": \"urn:uuid:1\", \"revoked\": false},"
+				+ "{\"id\": \"urn:uuid:2\"},"
+				+ "{\"id\": \"urn:uuid:1\", \"revoked\": true}]}";
+		Assertions.assertTrue(isRevoked(list, "urn:uuid:1"));
+		Assertions.assertTrue(isRevoked(list, "urn:uuid:2"));
+		Assertions.assertFalse(isRevoked(list, "urn:uuid:3"));
+	}
+
+	@Test
+	void testStopsAtFirstMatch() throws Exception {
+		// the rest of the list is never read, so it does not matter that it is truncated
+		String list = "{\"other\": {\"a\": [1, 2]}, \"revokedCredential\": [{\"id\": \"urn:uuid:1\"}, {\"id\": ";
+		Assertions.assertTrue(isRevoked(list, "urn:uuid:1"));
+		Assertions.assertThrows(Exception.class, () -> isRevoked(list, "urn:uuid:2"));
+	}
+
+	@Test
+	void testRevokedAssertions() throws Exception {
+		String list = "{\"revokedAssertions\": [\"urn:uuid:1\", {\"id\": \"urn:uuid:2\", \"revocationReason\": \"misconduct\"}]}";
+		try (JsonParser parser = mapper.createParser(list)) {
+			Optional<JsonNode> match = RevocationListSearch.find(parser, "revokedAssertions",
+					node -> node.isObject() && "urn:uuid:2".equals(node.path("id").asText()));
+			Assertions.assertTrue(match.isPresent());
+			Assertions.assertEquals("misconduct", match.get().get("revocationReason").asText());
+		}
+		try (JsonParser parser = mapper.createParser("{\"revokedAssertions\": \"urn:uuid:1\"}")) {
+			Assertions.assertTrue(RevocationListSearch.find(parser, "revokedAssertions",
+					node -> "urn:uuid:1".equals(node.asText())).isPresent());
+		}
+	}
+
+	private boolean isRevoked(String list, String credentialId) throws Exception {
+		try (JsonParser parser = mapper.createParser(list)) {
+			return RevocationListSearch.isRevoked(parser, credentialId);
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package org.oneedtech.inspect.vc.status.revocation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public class RevocationListTests {
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	void testRevokedFlag() throws Exception {
+		RevocationList list = RevocationList.of(mapper.readTree("{"
+				+ "\"id\": \"https://example.org/revocations\","
+				+ "\"revokedCredential\": ["
+				+ "  {\"id\": \"urn:uuid:1\"},"
+				+ "  {\"id\": \"urn:uuid:2\", \"revoked\": true},"
+				+ "  {\"id\": \"urn:uuid:3\", \"revoked\": false},"
+				+ "  {\"revoked\": true}"
+				+ "]}"));
+		Assertions.assertTrue(list.isRevoked("urn:uuid:1"));
+		Assertions.assertTrue(list.isRevoked("urn:uuid:2"));
+		Assertions.assertFalse(list.isRevoked("urn:uuid:3"));
+		Assertions.assertFalse(list.isRevoked("urn:uuid:4"));
+		Assertions.assertFalse(list.isRevoked(null));
+		Assertions.assertEquals(3, list.size());
+	}
+
+	@Test
+	void testDuplicateEntries() throws Exception {
+		RevocationList list = RevocationList.of(mapper.readTree("{\"revokedCredential\": ["
+				+ "  {\"id\": \"urn:uuid:1\", \"revoked\": true},"
+				+ "  {\"id\": \"urn:uuid:1\", \"revoked\": false}"
+				+ "]}"));
+		Assertions.assertTrue(list.isRevoked("urn:uuid:1"));
+	}
+
+	@Test
+	void testLargeList() {
+		ObjectNode json = mapper.createObjectNode();
+		ArrayNode entries = json.putArray("revokedCredential");
+		for (int i = 0; i < 500_000; i++) {
+			entries.addObject().put("id", "urn:uuid:" + i).put("revoked", i % 2 == 0);
+		}
+		RevocationList list = RevocationList.of(json);
+		Assertions.assertEquals(500_000, list.size());
+		Assertions.assertTrue(list.isRevoked("urn:uuid:499998"));
+		Assertions.assertFalse(list.isRevoked("urn:uuid:499999"));
+	}
+}
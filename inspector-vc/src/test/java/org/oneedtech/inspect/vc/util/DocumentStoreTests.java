@@ -0,0 +1,91 @@
+package org.oneedtech.inspect.vc.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DocumentStoreTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void testSurvivesReopen() {
+		Assertions.assertDoesNotThrow(()->{
+			try (DocumentStore store = DocumentStore.open(directory, 1024 * 1024)) {
+				store.put("https://example.org/did.json", "{\"id\":\"did:web:example.org\"}".getBytes(UTF_8));
+			}
+			try (DocumentStore store = DocumentStore.open(directory, 1024 * 1024)) {
+				Assertions.assertEquals(1, store.size());
+				Assertions.assertEquals("{\"id\":\"did:web:example.org\"}",
+						new String(store.get("https://example.org/did.json").orElseThrow(), UTF_8));
+			}
+		});
+	}
+
+	@Test
+	void testBoundedByBytes() {
+		Assertions.assertDoesNotThrow(()->{
+			try (DocumentStore store = DocumentStore.open(directory, 1000)) {
+				for (int i = 0; i < 100; i++) {
+					store.put("https://example.org/" + i, ("{\"index\":" + i + ",\"padding\":\"..........\"}").getBytes(UTF_8));
+				}
+				Assertions.assertTrue(store.bytes() <= 1000);
+				Assertions.assertTrue(store.get("https://example.org/99").isPresent());
+				Assertions.assertTrue(store.get("https://example.org/0").isEmpty());
+			}
+		});
+	}
+
+	@Test
+	void testSharedContent() {
+		Assertions.assertDoesNotThrow(()->{
+			try (DocumentStore store = DocumentStore.open(directory, 1024 * 1024)) {
+				store.put("https://example.org/a", "{}".getBytes(UTF_8));
+				store.put("https://example.org/b", "{}".getBytes(UTF_8));
+				store.remove("https://example.org/a");
+				Assertions.assertTrue(store.get("https://example.org/a").isEmpty());
+				Assertions.assertEquals("{}", new String(store.get("https://example.org/b").orElseThrow(), UTF_8));
+			}
+		});
+	}
+
+	@Test
+	void testSharedContentCountedOnce() {
+		Assertions.assertDoesNotThrow(()->{
+			try (DocumentStore store = DocumentStore.open(directory, 1024 * 1024)) {
+				byte[] content = "{\"shared\":true}".getBytes(UTF_8);
+				store.put("https://example.org/a", content);
+				store.put("https://example.org/b", content);
+				Assertions.assertEquals(content.length, store.bytes());
+				store.remove("https://example.org/a");
+				Assertions.assertEquals(content.length, store.bytes());
+				store.remove("https://example.org/b");
+				Assertions.assertEquals(0, store.bytes());
+			}
+		});
+	}
+
+	@Test
+	void testBoundedWithMetadata() {
+		Assertions.assertDoesNotThrow(()->{
+			try (DocumentStore store = DocumentStore.open(directory, 100)) {
+				Map<String, String> metadata = Map.of("etag", "\"v1\"");
+				store.put("https://example.org/a", new byte[60], metadata);
+				Assertions.assertEquals(70, store.bytes());
+				// the metadata of both entries does not fit next to the bodies
+				store.put("https://example.org/b", new byte[25], Map.of("etag", "\"v2\""));
+				Assertions.assertTrue(store.get("https://example.org/a").isEmpty());
+				Assertions.assertEquals(35, store.bytes());
+
+				store.updateMetadata("https://example.org/b", Map.of("etag", "\"v3\"", "ttl", "60000"));
+				Assertions.assertEquals(25 + 20, store.bytes());
+			}
+		});
+	}
+}
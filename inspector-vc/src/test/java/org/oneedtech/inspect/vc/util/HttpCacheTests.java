@@ -0,0 +1,202 @@
+package org.oneedtech.inspect.vc.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.oneedtech.inspect.vc.util.HttpCache.Freshness;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class HttpCacheTests {
+	private static final long NOW = 1_700_000_000_000L;
+	private static final Duration DEFAULT_TTL = Duration.ofHours(24);
+
+	private static HttpServer server;
+	private static String base;
+	private static final AtomicInteger etagRequests = new AtomicInteger();
+	private static final AtomicInteger staleRequests = new AtomicInteger();
+	private static final CountDownLatch refreshStarted = new CountDownLatch(1);
+	private static final CountDownLatch refreshReleased = new CountDownLatch(1);
+	private static final AtomicInteger slowRequests = new AtomicInteger();
+
+	@BeforeAll
+	static void setup() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/etag", exchange -> {
+			etagRequests.incrementAndGet();
+			exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+			exchange.getResponseHeaders().add("ETag", "\"v1\"");
+			if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+				exchange.sendResponseHeaders(304, -1);
+				exchange.close();
+			} else {
+				respond(exchange, "v1");
+			}
+		});
+		server.createContext("/stale", exchange -> {
+			int request = staleRequests.incrementAndGet();
+			if (request == 2) {
+				// hold the background refresh until the stale value has been served
+				refreshStarted.countDown();
+				try {
+					refreshReleased.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			exchange.getResponseHeaders().add("Cache-Control", "max-age=0, stale-while-revalidate=60");
+			respond(exchange, "v" + request);
+		});
+		server.createContext("/slow", exchange -> {
+			int request = slowRequests.incrementAndGet();
+			try {
+				Thread.sleep(300);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+			respond(exchange, "v" + request);
+		});
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+		base = "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	@AfterAll
+	static void teardown() {
+		server.stop(0);
+	}
+
+	@Test
+	void testMaxAge() {
+		Freshness freshness = Freshness.of("public, max-age=600, stale-while-revalidate=60", null, null, "100", NOW, DEFAULT_TTL);
+		Assertions.assertEquals(500_000, freshness.ttl);
+		Assertions.assertEquals(60_000, freshness.staleWhileRevalidate);
+		Assertions.assertFalse(freshness.noStore);
+	}
+
+	@Test
+	void testSharedMaxAgeWins() {
+		Freshness freshness = Freshness.of("max-age=600, s-maxage=60", null, null, null, NOW, DEFAULT_TTL);
+		Assertions.assertEquals(60_000, freshness.ttl);
+	}
+
+	@Test
+	void testNoCacheAndNoStore() {
+		Assertions.assertEquals(0, Freshness.of("no-cache", null, null, null, NOW, DEFAULT_TTL).ttl);
+		Assertions.assertTrue(Freshness.of("no-store", null, null, null, NOW, DEFAULT_TTL).noStore);
+		Assertions.assertEquals(0, Freshness.of("max-age=600, must-revalidate, stale-while-revalidate=60", null, null, null, NOW, DEFAULT_TTL).staleWhileRevalidate);
+	}
+
+	@Test
+	void testExpires() {
+		Freshness freshness = Freshness.of(null, "Thu, 01 Dec 1994 16:00:00 GMT", "Thu, 01 Dec 1994 15:00:00 GMT", null, NOW, DEFAULT_TTL);
+		Assertions.assertEquals(3_600_000, freshness.ttl);
+		Assertions.assertEquals(0, Freshness.of(null, "0", null, null, NOW, DEFAULT_TTL).ttl);
+	}
+
+	@Test
+	void testDefaultTtl() {
+		Assertions.assertEquals(DEFAULT_TTL.toMillis(), Freshness.of(null, null, null, null, NOW, DEFAULT_TTL).ttl);
+		Assertions.assertNull(Freshness.of(null, null, null, null, NOW, null));
+	}
+
+	@Test
+	void testNotModifiedKeepsParsedValue() throws Exception {
+		AtomicInteger parses = new AtomicInteger();
+		HttpCache<String> cache = cache(parses);
+		URI uri = URI.create(base + "/etag");
+
+		String value = cache.get(uri);
+		Assertions.assertEquals("v1", value);
+		// no-cache, so every get revalidates and is answered with a 304
+		Assertions.assertSame(value, cache.get(uri));
+		Assertions.assertSame(value, cache.get(uri));
+		Assertions.assertEquals(3, etagRequests.get());
+		Assertions.assertEquals(1, parses.get());
+	}
+
+	@Test
+	void testStaleWhileRevalidate() throws Exception {
+		HttpCache<String> cache = cache(new AtomicInteger());
+		URI uri = URI.create(base + "/stale");
+
+		Assertions.assertEquals("v1", cache.get(uri));
+		// expired but within stale-while-revalidate: served while the refresh is held
+		Assertions.assertEquals("v1", cache.get(uri));
+		Assertions.assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+		Assertions.assertEquals("v1", cache.get(uri));
+		Assertions.assertEquals(2, staleRequests.get());
+
+		refreshReleased.countDown();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		String value = cache.get(uri);
+		while (value.equals("v1") && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+			value = cache.get(uri);
+		}
+		Assertions.assertEquals("v2", value);
+	}
+
+	@Test
+	void testConcurrentRequestsCoalesced() throws Exception {
+		HttpCache<String> cache = cache(new AtomicInteger());
+		URI uri = URI.create(base + "/slow");
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		List<CompletableFuture<String>> gets = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			gets.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					start.await();
+					return cache.get(uri);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			}, executor));
+		}
+		start.countDown();
+		try {
+			for (CompletableFuture<String> get : gets) {
+				Assertions.assertEquals("v1", get.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdown();
+		}
+		Assertions.assertEquals(1, slowRequests.get());
+	}
+
+	private static HttpCache<String> cache(AtomicInteger parses) {
+		return new HttpCache<>(content -> {
+			parses.incrementAndGet();
+			return new String(content, StandardCharsets.UTF_8);
+		}, "*/*", 16, DEFAULT_TTL);
+	}
+
+	private static void respond(HttpExchange exchange, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(200, bytes.length);
+		exchange.getResponseBody().write(bytes);
+		exchange.close();
+	}
+}
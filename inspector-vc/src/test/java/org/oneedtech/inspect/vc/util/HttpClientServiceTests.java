@@ -0,0 +1,134 @@
+package org.oneedtech.inspect.vc.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class HttpClientServiceTests {
+	private static HttpServer server;
+	private static String base;
+	private final HttpClientService http = HttpClientService.builder()
+			.maxRequestsPerHost(1)
+			.maxResponseBytes(1000)
+			.requestTimeout(Duration.ofSeconds(1))
+			.build();
+
+	@BeforeAll
+	static void setup() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/redirect", exchange -> {
+			exchange.getResponseHeaders().add("Location", "/ok");
+			exchange.sendResponseHeaders(302, -1);
+			exchange.close();
+		});
+		server.createContext("/ok", exchange -> {
+			byte[] body = exchange.getRequestHeaders().getFirst("Accept").getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.createContext("/large", exchange -> {
+			// chunked, so that the limit is enforced while reading
+			exchange.sendResponseHeaders(200, 0);
+			exchange.getResponseBody().write(new byte[5000]);
+			exchange.close();
+		});
+		server.createContext("/slow", exchange -> {
+			// headers and the start of the body in time, the rest too late
+			exchange.sendResponseHeaders(200, 0);
+			exchange.getResponseBody().write(new byte[10]);
+			exchange.getResponseBody().flush();
+			try {
+				Thread.sleep(3000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			exchange.close();
+		});
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+		base = "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	@AfterAll
+	static void teardown() {
+		server.stop(0);
+	}
+
+	@Test
+	void testRedirect() throws Exception {
+		try (HttpClientService.Response response = http.get(URI.create(base + "/redirect"), Map.of("Accept", "application/json"))) {
+			Assertions.assertEquals(200, response.status());
+			Assertions.assertEquals("application/json", new String(response.readAllBytes(), StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	void testMaxResponseBytes() {
+		Assertions.assertThrows(IOException.class, () -> {
+			try (HttpClientService.Response response = http.get(URI.create(base + "/large"), Map.of())) {
+				response.readAllBytes();
+			}
+		});
+	}
+
+	@Test
+	void testMaxRequestsPerHost() throws Exception {
+		HttpClientService.Response held = http.get(URI.create(base + "/ok"), Map.of("Accept", "*/*"));
+		CompletableFuture<Integer> waiting = CompletableFuture.supplyAsync(() -> {
+			try (HttpClientService.Response response = http.get(URI.create(base + "/ok"), Map.of("Accept", "*/*"))) {
+				return response.status();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		// the second request waits for the permit of the first
+		Thread.sleep(300);
+		Assertions.assertFalse(waiting.isDone());
+		held.close();
+		Assertions.assertEquals(200, waiting.get(500, TimeUnit.MILLISECONDS).intValue());
+	}
+
+	@Test
+	void testBodyDeadline() throws Exception {
+		long start = System.nanoTime();
+		Assertions.assertThrows(IOException.class, () -> {
+			try (HttpClientService.Response response = http.get(URI.create(base + "/slow"), Map.of())) {
+				response.readAllBytes();
+			}
+		});
+		Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(2500)) < 0);
+
+		// the permit of the slow response has been released
+		try (HttpClientService.Response response = http.get(URI.create(base + "/ok"), Map.of("Accept", "*/*"))) {
+			Assertions.assertEquals(200, response.status());
+		}
+	}
+
+	@Test
+	void testIdleHostsRemoved() throws Exception {
+		try (HttpClientService.Response response = http.get(URI.create(base + "/ok"), Map.of("Accept", "*/*"))) {
+			Assertions.assertEquals(1, http.activeHosts());
+		}
+		Assertions.assertEquals(0, http.activeHosts());
+	}
+
+	@Test
+	void testUnsupportedScheme() {
+		Assertions.assertThrows(IOException.class, () -> http.get(URI.create("ftp://example.org/list.json"), Map.of()));
+	}
+}
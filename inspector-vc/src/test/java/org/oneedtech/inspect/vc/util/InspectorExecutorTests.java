@@ -0,0 +1,80 @@
+package org.oneedtech.inspect.vc.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class InspectorExecutorTests {
+
+	@Test
+	void testResultsInTaskOrder() throws Exception {
+		List<Callable<Integer>> tasks = new ArrayList<>();
+		for (int i = 0; i < 16; i++) {
+			int n = i;
+			tasks.add(() -> {
+				// later tasks finish first
+				Thread.sleep(16 - n);
+				return n;
+			});
+		}
+		List<Integer> results = InspectorExecutor.invokeAll(tasks, null);
+		Assertions.assertEquals(16, results.size());
+		for (int i = 0; i < 16; i++) {
+			Assertions.assertEquals(i, results.get(i).intValue());
+		}
+	}
+
+	@Test
+	void testStopsAtFirstStoppingResultInTaskOrder() throws Exception {
+		CountDownLatch first = new CountDownLatch(1);
+		List<Callable<Integer>> tasks = new ArrayList<>();
+		tasks.add(() -> {
+			first.await(5, TimeUnit.SECONDS);
+			return 0;
+		});
+		tasks.add(() -> -1);
+		tasks.add(() -> {
+			// a stopping result that completes before the earlier one must not win
+			first.countDown();
+			return -2;
+		});
+		tasks.add(() -> 3);
+		List<Integer> results = InspectorExecutor.invokeAll(tasks, n -> n < 0);
+		Assertions.assertEquals(List.of(0, -1), results);
+	}
+
+	@Test
+	void testFirstFailureInTaskOrder() {
+		List<Callable<Integer>> tasks = List.of(
+				() -> 0,
+				() -> { throw new IllegalStateException("first"); },
+				() -> { throw new IllegalArgumentException("second"); });
+		IllegalStateException e = Assertions.assertThrows(IllegalStateException.class,
+				() -> InspectorExecutor.invokeAll(tasks, null));
+		Assertions.assertEquals("first", e.getMessage());
+	}
+
+	@Test
+	void testNestedTasksRunInline() throws Exception {
+		AtomicInteger inline = new AtomicInteger();
+		List<Callable<Integer>> tasks = new ArrayList<>();
+		for (int i = 0; i < 64; i++) {
+			tasks.add(() -> {
+				Thread outer = Thread.currentThread();
+				List<Callable<Boolean>> nested = List.of(() -> Thread.currentThread() == outer, () -> Thread.currentThread() == outer);
+				if (InspectorExecutor.invokeAll(nested, null).stream().allMatch(b -> b)) {
+					inline.incrementAndGet();
+				}
+				return 0;
+			});
+		}
+		Assertions.assertEquals(64, InspectorExecutor.invokeAll(tasks, null).size());
+		Assertions.assertEquals(64, inline.get());
+	}
+}
@@ -0,0 +1,59 @@
+package org.oneedtech.inspect.vc.util;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+
+public class JsonNodeBridgeTests {
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static final String JSON = "{\"id\": \"urn:test\", \"int\": 1, \"long\": 3000000000, \"decimal\": 1.0,"
+			+ " \"flag\": true, \"none\": null, \"list\": [\"a\", {\"b\": 2}, [3]]}";
+
+	@Test
+	void testObjectView() throws Exception {
+		JsonObject object = JsonNodeBridge.asJsonObject(mapper.readTree(JSON));
+		Assertions.assertEquals(List.of("id", "int", "long", "decimal", "flag", "none", "list"), List.copyOf(object.keySet()));
+		Assertions.assertEquals("urn:test", object.getString("id"));
+		Assertions.assertEquals(1, object.getInt("int"));
+		Assertions.assertTrue(object.getJsonNumber("long").isIntegral());
+		Assertions.assertEquals(3000000000L, object.getJsonNumber("long").longValueExact());
+		Assertions.assertFalse(object.getJsonNumber("decimal").isIntegral());
+		Assertions.assertEquals("1.0", object.getJsonNumber("decimal").toString());
+		Assertions.assertTrue(object.getBoolean("flag"));
+		Assertions.assertTrue(object.isNull("none"));
+		Assertions.assertEquals("fallback", object.getString("missing", "fallback"));
+		Assertions.assertNull(object.get("missing"));
+
+		JsonArray list = object.getJsonArray("list");
+		Assertions.assertEquals(3, list.size());
+		Assertions.assertEquals("a", list.getString(0));
+		Assertions.assertEquals(2, list.getJsonObject(1).getInt("b"));
+		Assertions.assertEquals(JsonValue.ValueType.ARRAY, list.get(2).getValueType());
+		Assertions.assertEquals(object.getJsonArray("list"), list);
+	}
+
+	@Test
+	void testRoundTrip() throws Exception {
+		JsonNode node = mapper.readTree(JSON);
+		Assertions.assertEquals(node, JsonNodeBridge.toJsonNode(JsonNodeBridge.asJsonValue(node), mapper));
+	}
+
+	@Test
+	void testToMap() throws Exception {
+		Map<String, Object> map = JsonNodeBridge.toMap(mapper.readTree(JSON));
+		Assertions.assertEquals(mapper.readValue(JSON, Map.class), map);
+		Assertions.assertEquals(Integer.class, map.get("int").getClass());
+		Assertions.assertEquals(Long.class, map.get("long").getClass());
+		Assertions.assertEquals(Double.class, map.get("decimal").getClass());
+		Assertions.assertTrue(map.containsKey("none"));
+	}
+}
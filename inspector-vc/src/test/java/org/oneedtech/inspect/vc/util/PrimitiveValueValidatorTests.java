@@ -98,9 +98,20 @@ public class PrimitiveValueValidatorTests {
 
 	@Test
 	void testCompactedIRI() throws JsonMappingException, JsonProcessingException {
-		List<String> goodValues = List.of("id", "email", "telephone", "url");
-		List<String> badValues = List.of("sloths");
+		List<String> goodValues = List.of("id", "email", "telephone", "url", "verify", "obi:validatesType", "@type");
+		List<String> badValues = List.of("sloths", "@id");
+		// twice, as the context terms are read on the first call
 		assertFunction(ValueType.COMPACT_IRI, goodValues, badValues);
+		assertFunction(ValueType.COMPACT_IRI, goodValues, badValues);
+	}
+
+	@Test
+	void testRdfType() throws JsonMappingException, JsonProcessingException {
+		List<String> goodValues = List.of("Assertion", "BadgeClass", "hosted", "obi:CustomType", "http://example.org/MyType");
+		List<Object> badValues = List.of("sloths", "id", 1);
+		// twice, as the context terms are read on the first call
+		assertFunction(ValueType.RDF_TYPE, goodValues, badValues);
+		assertFunction(ValueType.RDF_TYPE, goodValues, badValues);
 	}
 
 	@Test
@@ -139,6 +150,7 @@ public class PrimitiveValueValidatorTests {
 										  "1977-06-10T12:00:00+08:00");
 		List<String> badValues = List.of("notadatetime", "1977-06-10T12:00:00");
 		assertFunction(ValueType.DATETIME, goodValues, badValues);
+		assertFalse(PrimitiveValueValidator.validateDatetime(null));
 	}
 
 	private void assertFunction(ValueType valueType, List<? extends Object> goodValues, List<? extends Object> badValues) throws JsonMappingException, JsonProcessingException {